@@ -17,69 +17,90 @@ package com.google.cloud.opentelemetry.metric;
 
 import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapDistribution;
 import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapInterval;
-import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapMetric;
-import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapMetricDescriptor;
-import static com.google.cloud.opentelemetry.metric.ResourceTranslator.mapResource;
 
+import com.google.api.Distribution;
 import com.google.api.MetricDescriptor;
+import com.google.api.MetricDescriptor.MetricKind;
 import com.google.monitoring.v3.Point;
+import com.google.monitoring.v3.TimeInterval;
 import com.google.monitoring.v3.TimeSeries;
 import com.google.monitoring.v3.TypedValue;
+import com.google.protobuf.Timestamp;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
-import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
 import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.PointData;
-import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
- * Builds GCM TimeSeries from each OTEL metric point, creating metric descriptors based on the
- * "first" seen point for any given metric.
+ * Builds GCM TimeSeries from each OTEL metric point, creating metric descriptors that hold the
+ * label keys of all the points seen for any given metric.
+ *
+ * <p>Distinct OTEL series may map to the same time series, e.g. once their labels are cleaned or
+ * merged with resource labels. Cloud Monitoring rejects requests holding several points of a time
+ * series, so each further point of a time series is put in a separate time series of the next
+ * wave: see {@link #getTimeSeriesWaves()}.
  */
 @Deprecated
-public final class AggregateByLabelMetricTimeSeriesBuilder implements MetricTimeSeriesBuilder {
+public final class AggregateByLabelMetricTimeSeriesBuilder
+    implements MetricTimeSeriesBuilder, PointRecorder {
 
   public static final String LABEL_INSTRUMENTATION_SOURCE =
       "instrumentation_source"; // name of the instrumentation source
   public static final String LABEL_INSTRUMENTATION_VERSION =
       "instrumentation_version"; // version of the instrumentation source
 
+  /** The attribute marking the series that the series of a metric over its limit fold into. */
+  static final AttributeKey<Boolean> OVERFLOW_KEY = AttributeKey.booleanKey("otel.metric.overflow");
+
+  /** The attributes of the points folded into the overflow series of their metric. */
+  static final Attributes OVERFLOW_ATTRIBUTES = Attributes.of(OVERFLOW_KEY, true);
+
   private final Map<String, MetricDescriptor> descriptors = new HashMap<>();
-  private final Map<MetricWithLabels, TimeSeries.Builder> pendingTimeSeries = new HashMap<>();
+  // Destination project to the waves of series written to it. A series is in the first wave that
+  // does not hold it yet.
+  private final Map<String, List<Map<MetricWithLabels, TimeSeries.Builder>>> pendingTimeSeries =
+      new HashMap<>();
+  // Destination project to the series drained from its first wave. Their further points go to the
+  // following waves, as the drained series may still be in the same request.
+  private final Map<String, Set<MetricWithLabels>> drainedTimeSeries = new HashMap<>();
   private final String projectId;
-  private final String prefix;
-  private final Predicate<AttributeKey<?>> resourceAttributeFilter;
-  private final MonitoredResourceDescription monitoredResourceDescription;
-  private final boolean instrumentationLibraryLabelsEnabled;
+  private final SharedLabelsCache sharedLabelsCache;
+  private final MetricDescriptorCache descriptorCache;
+  private final MonitoredResourceCache monitoredResourceCache;
+  private final TimeSeriesHeaderCache headerCache;
+  private int overflowPoints;
+  // Only set when series are routed to projects by attribute.
+  @Nullable private final AttributeKey<String> projectIdAttributeKey;
+  private final ExemplarBudget exemplarBudget;
 
   @Deprecated
   public AggregateByLabelMetricTimeSeriesBuilder(String projectId, String prefix) {
-    this.projectId = projectId;
-    this.prefix = prefix;
-    this.resourceAttributeFilter = MetricConfiguration.NO_RESOURCE_ATTRIBUTES;
-    this.monitoredResourceDescription = MetricConfiguration.EMPTY_MONITORED_RESOURCE_DESCRIPTION;
-    this.instrumentationLibraryLabelsEnabled = true;
+    this(projectId, prefix, MetricConfiguration.NO_RESOURCE_ATTRIBUTES);
   }
 
   @Deprecated
   public AggregateByLabelMetricTimeSeriesBuilder(
       String projectId, String prefix, Predicate<AttributeKey<?>> resourceAttributeFilter) {
-    this.projectId = projectId;
-    this.prefix = prefix;
-    this.resourceAttributeFilter = resourceAttributeFilter;
-    this.monitoredResourceDescription = MetricConfiguration.EMPTY_MONITORED_RESOURCE_DESCRIPTION;
-    this.instrumentationLibraryLabelsEnabled = true;
+    this(
+        projectId,
+        prefix,
+        resourceAttributeFilter,
+        MetricConfiguration.EMPTY_MONITORED_RESOURCE_DESCRIPTION);
   }
 
   @Deprecated
@@ -88,11 +109,7 @@ public final class AggregateByLabelMetricTimeSeriesBuilder implements MetricTime
       String prefix,
       Predicate<AttributeKey<?>> resourceAttributeFilter,
       MonitoredResourceDescription monitoredResourceDescription) {
-    this.projectId = projectId;
-    this.prefix = prefix;
-    this.resourceAttributeFilter = resourceAttributeFilter;
-    this.monitoredResourceDescription = monitoredResourceDescription;
-    this.instrumentationLibraryLabelsEnabled = true;
+    this(projectId, prefix, resourceAttributeFilter, monitoredResourceDescription, true);
   }
 
   public AggregateByLabelMetricTimeSeriesBuilder(
@@ -101,11 +118,48 @@ public final class AggregateByLabelMetricTimeSeriesBuilder implements MetricTime
       Predicate<AttributeKey<?>> resourceAttributeFilter,
       MonitoredResourceDescription monitoredResourceDescription,
       boolean instrumentationLibraryLabelsEnabled) {
+    this(
+        projectId,
+        new SharedLabelsCache(resourceAttributeFilter, instrumentationLibraryLabelsEnabled),
+        new MetricDescriptorCache(prefix),
+        new MonitoredResourceCache(monitoredResourceDescription),
+        new TimeSeriesHeaderCache(),
+        null,
+        ExemplarBudget.UNLIMITED);
+  }
+
+  /**
+   * Creates a builder that shares the labels, descriptors, monitored resources and time series
+   * headers it builds with other builders through the given caches, so that they survive across
+   * export cycles. The resource attribute filter, the metric type prefix and the {@link
+   * MonitoredResourceDescription} are taken from the caches.
+   *
+   * <p>Points whose attributes mark them with {@link #OVERFLOW_KEY}, i.e. the points of the series
+   * that a {@link SeriesLimiter} did not admit, are folded into an overflow series, one per metric
+   * and per set of resource and instrumentation scope labels.
+   *
+   * <p>If a {@code projectIdAttributeKey} is given, each series is written to the project named by
+   * that attribute of its points, or else of its resource, and to {@code projectId} if neither has
+   * it.
+   *
+   * <p>The exemplars of distributions are limited by the given {@link ExemplarBudget}, which is
+   * spent by this builder only.
+   */
+  AggregateByLabelMetricTimeSeriesBuilder(
+      String projectId,
+      SharedLabelsCache sharedLabelsCache,
+      MetricDescriptorCache descriptorCache,
+      MonitoredResourceCache monitoredResourceCache,
+      TimeSeriesHeaderCache headerCache,
+      @Nullable AttributeKey<String> projectIdAttributeKey,
+      ExemplarBudget exemplarBudget) {
     this.projectId = projectId;
-    this.prefix = prefix;
-    this.resourceAttributeFilter = resourceAttributeFilter;
-    this.monitoredResourceDescription = monitoredResourceDescription;
-    this.instrumentationLibraryLabelsEnabled = instrumentationLibraryLabelsEnabled;
+    this.sharedLabelsCache = sharedLabelsCache;
+    this.descriptorCache = descriptorCache;
+    this.monitoredResourceCache = monitoredResourceCache;
+    this.headerCache = headerCache;
+    this.projectIdAttributeKey = projectIdAttributeKey;
+    this.exemplarBudget = exemplarBudget;
   }
 
   @Override
@@ -137,71 +191,263 @@ public final class AggregateByLabelMetricTimeSeriesBuilder implements MetricTime
         pointData,
         Point.newBuilder()
             .setValue(
-                TypedValue.newBuilder().setDistributionValue(mapDistribution(pointData, projectId)))
+                TypedValue.newBuilder()
+                    .setDistributionValue(mapDistribution(pointData, projectId, exemplarBudget)))
+            .setInterval(mapInterval(pointData, metricData))
+            .build());
+  }
+
+  @Override
+  public void recordPoint(MetricData metricData, ExponentialHistogramPointData pointData) {
+    recordPointInTimeSeries(
+        metricData,
+        pointData,
+        Point.newBuilder()
+            .setValue(
+                TypedValue.newBuilder()
+                    .setDistributionValue(mapDistribution(pointData, projectId, exemplarBudget)))
             .setInterval(mapInterval(pointData, metricData))
             .build());
   }
 
   private void recordPointInTimeSeries(MetricData metric, PointData point, Point builtPoint) {
-    MetricDescriptor descriptor =
-        mapMetricDescriptor(
-            this.prefix, metric, point, extraLabelsFromResource(metric.getResource()));
+    Attributes resourceLabels = sharedLabelsCache.getResourceLabels(metric.getResource());
+    MetricDescriptor descriptor = descriptorCache.getDescriptor(metric, point, resourceLabels);
     if (descriptor == null) {
       // Unsupported type.
       return;
     }
-    descriptors.putIfAbsent(descriptor.getType(), descriptor);
+    // Later points may add label keys to the descriptor of the metric.
+    descriptors.put(descriptor.getType(), descriptor);
+    Attributes scopeLabels = sharedLabelsCache.getScopeLabels(metric.getInstrumentationScopeInfo());
     Attributes metricAttributes =
-        Attributes.builder()
-            .putAll(
-                instrumentationLibraryLabels(
-                    point.getAttributes(), metric.getInstrumentationScopeInfo()))
-            .putAll(extraLabelsFromResource(metric.getResource()))
-            .build();
+        SharedLabelsCache.mergeLabels(point.getAttributes(), scopeLabels, resourceLabels);
     MetricWithLabels key = new MetricWithLabels(descriptor.getType(), metricAttributes);
-    pendingTimeSeries
-        .computeIfAbsent(key, k -> makeTimeSeriesHeader(metric, metricAttributes, descriptor))
-        .addPoints(builtPoint);
+    String project = getProjectId(metric, point);
+    List<Map<MetricWithLabels, TimeSeries.Builder>> projectWaves =
+        pendingTimeSeries.computeIfAbsent(project, p -> new ArrayList<>());
+    Map<MetricWithLabels, TimeSeries.Builder> projectTimeSeries = wave(projectWaves, 0);
+    if (Boolean.TRUE.equals(point.getAttributes().get(OVERFLOW_KEY))) {
+      recordOverflowPoint(projectTimeSeries, key, metric, descriptor, metricAttributes, builtPoint);
+      return;
+    }
+    int index = 0;
+    if (projectTimeSeries.containsKey(key) || wasDrained(project, key)) {
+      // Another point of a series already built, for a later wave.
+      do {
+        index++;
+      } while (wave(projectWaves, index).containsKey(key));
+    }
+    TimeSeries.Builder timeSeries =
+        makeTimeSeriesHeader(key, metric, metricAttributes, descriptor).addPoints(builtPoint);
+    projectWaves.get(index).put(key, timeSeries);
   }
 
-  private TimeSeries.Builder makeTimeSeriesHeader(
-      MetricData metric, Attributes attributes, MetricDescriptor descriptor) {
-    return TimeSeries.newBuilder()
-        .setMetric(mapMetric(attributes, descriptor.getType()))
-        .setMetricKind(descriptor.getMetricKind())
-        .setResource(mapResource(metric.getResource(), monitoredResourceDescription));
+  private boolean wasDrained(String project, MetricWithLabels key) {
+    Set<MetricWithLabels> drained = drainedTimeSeries.get(project);
+    return drained != null && drained.contains(key);
   }
 
-  private Attributes extraLabelsFromResource(Resource resource) {
-    AttributesBuilder attrBuilder = resource.getAttributes().toBuilder();
-    attrBuilder.removeIf(resourceAttributeFilter.negate());
-    return attrBuilder.build();
+  private static Map<MetricWithLabels, TimeSeries.Builder> wave(
+      List<Map<MetricWithLabels, TimeSeries.Builder>> waves, int index) {
+    if (index == waves.size()) {
+      waves.add(new HashMap<>());
+    }
+    return waves.get(index);
   }
 
-  private Attributes instrumentationLibraryLabels(
-      Attributes attributes, InstrumentationScopeInfo instrumentationScopeInfo) {
-    if (!instrumentationLibraryLabelsEnabled) {
-      return attributes;
+  private String getProjectId(MetricData metric, PointData point) {
+    if (projectIdAttributeKey == null) {
+      return projectId;
+    }
+    String routedProjectId = point.getAttributes().get(projectIdAttributeKey);
+    if (routedProjectId == null || routedProjectId.isEmpty()) {
+      routedProjectId = metric.getResource().getAttribute(projectIdAttributeKey);
     }
-    return attributes.toBuilder()
-        .put(
-            AttributeKey.stringKey(LABEL_INSTRUMENTATION_SOURCE),
-            instrumentationScopeInfo.getName())
-        .put(
-            AttributeKey.stringKey(LABEL_INSTRUMENTATION_VERSION),
-            Optional.ofNullable(instrumentationScopeInfo.getVersion()).orElse(""))
+    return routedProjectId == null || routedProjectId.isEmpty() ? projectId : routedProjectId;
+  }
+
+  private void recordOverflowPoint(
+      Map<MetricWithLabels, TimeSeries.Builder> projectTimeSeries,
+      MetricWithLabels key,
+      MetricData metric,
+      MetricDescriptor descriptor,
+      Attributes overflowAttributes,
+      Point point) {
+    overflowPoints++;
+    TimeSeries.Builder timeSeries = projectTimeSeries.get(key);
+    if (timeSeries == null) {
+      projectTimeSeries.put(
+          key,
+          makeTimeSeriesHeader(key, metric, overflowAttributes, descriptor).addPoints(point));
+    } else {
+      timeSeries.setPoints(
+          0, mergePoints(timeSeries.getPoints(0), point, descriptor.getMetricKind()));
+    }
+  }
+
+  /**
+   * Merges two points of the overflow series. Gauges keep the latest value, while cumulative
+   * values are added up over the union of both intervals. Distributions with different bucket
+   * options cannot be merged, and the one with the larger count is kept.
+   */
+  private static Point mergePoints(Point first, Point second, MetricKind kind) {
+    if (kind == MetricKind.GAUGE) {
+      return compare(first.getInterval().getEndTime(), second.getInterval().getEndTime()) > 0
+          ? first
+          : second;
+    }
+    TypedValue a = first.getValue();
+    TypedValue b = second.getValue();
+    TypedValue.Builder value = TypedValue.newBuilder();
+    switch (a.getValueCase()) {
+      case INT64_VALUE:
+        value.setInt64Value(a.getInt64Value() + b.getInt64Value());
+        break;
+      case DOUBLE_VALUE:
+        value.setDoubleValue(a.getDoubleValue() + b.getDoubleValue());
+        break;
+      case DISTRIBUTION_VALUE:
+        value.setDistributionValue(
+            mergeDistributions(a.getDistributionValue(), b.getDistributionValue()));
+        break;
+      default:
+        return second;
+    }
+    TimeInterval firstInterval = first.getInterval();
+    TimeInterval secondInterval = second.getInterval();
+    return Point.newBuilder()
+        .setValue(value)
+        .setInterval(
+            TimeInterval.newBuilder()
+                .setStartTime(
+                    compare(firstInterval.getStartTime(), secondInterval.getStartTime()) < 0
+                        ? firstInterval.getStartTime()
+                        : secondInterval.getStartTime())
+                .setEndTime(
+                    compare(firstInterval.getEndTime(), secondInterval.getEndTime()) > 0
+                        ? firstInterval.getEndTime()
+                        : secondInterval.getEndTime()))
         .build();
   }
 
+  private static Distribution mergeDistributions(Distribution first, Distribution second) {
+    if (!first.getBucketOptions().equals(second.getBucketOptions())) {
+      return first.getCount() >= second.getCount() ? first : second;
+    }
+    long count = first.getCount() + second.getCount();
+    Distribution.Builder merged =
+        Distribution.newBuilder()
+            .setCount(count)
+            .setMean(
+                count == 0
+                    ? 0
+                    : (first.getMean() * first.getCount() + second.getMean() * second.getCount())
+                        / count)
+            .setBucketOptions(first.getBucketOptions())
+            .addAllExemplars(first.getExemplarsList())
+            .addAllExemplars(second.getExemplarsList());
+    // Trailing empty buckets may be left out, so the two lists can differ in length.
+    int buckets = Math.max(first.getBucketCountsCount(), second.getBucketCountsCount());
+    for (int i = 0; i < buckets; i++) {
+      merged.addBucketCounts(bucketCount(first, i) + bucketCount(second, i));
+    }
+    return merged.build();
+  }
+
+  private static long bucketCount(Distribution distribution, int index) {
+    return index < distribution.getBucketCountsCount() ? distribution.getBucketCounts(index) : 0;
+  }
+
+  private static int compare(Timestamp first, Timestamp second) {
+    int result = Long.compare(first.getSeconds(), second.getSeconds());
+    return result != 0 ? result : Integer.compare(first.getNanos(), second.getNanos());
+  }
+
+  private TimeSeries.Builder makeTimeSeriesHeader(
+      MetricWithLabels key, MetricData metric, Attributes attributes, MetricDescriptor descriptor) {
+    return headerCache
+        .getHeader(
+            key,
+            attributes,
+            descriptor,
+            monitoredResourceCache.getMonitoredResource(metric.getResource()))
+        .toBuilder();
+  }
+
   @Override
   public Collection<MetricDescriptor> getDescriptors() {
     return descriptors.values();
   }
 
+  /** Returns the number of points folded into overflow series by this builder. */
+  int getOverflowPointCount() {
+    return overflowPoints;
+  }
+
   @Override
   public List<TimeSeries> getTimeSeries() {
     return pendingTimeSeries.values().stream()
+        .flatMap(List::stream)
+        .flatMap(waveTimeSeries -> waveTimeSeries.values().stream())
         .map(TimeSeries.Builder::build)
         .collect(Collectors.toList());
   }
+
+  /**
+   * Returns the time series that were built, in waves grouped by the ID of the project to write
+   * them to. Each wave holds a single point of any time series, and must only be sent once the
+   * previous one has been: Cloud Monitoring rejects requests holding a time series more than once.
+   * There is usually a single wave.
+   */
+  List<Map<String, List<TimeSeries>>> getTimeSeriesWaves() {
+    List<Map<String, List<TimeSeries>>> waves = new ArrayList<>();
+    pendingTimeSeries.forEach(
+        (project, projectWaves) -> {
+          for (int index = 0; index < projectWaves.size(); index++) {
+            Map<MetricWithLabels, TimeSeries.Builder> waveTimeSeries = projectWaves.get(index);
+            // The first wave is empty once drained by drainTimeSeriesByProject.
+            if (!waveTimeSeries.isEmpty()) {
+              List<TimeSeries> timeSeries = new ArrayList<>(waveTimeSeries.size());
+              waveTimeSeries.values().forEach(builder -> timeSeries.add(builder.build()));
+              while (waves.size() <= index) {
+                waves.add(new HashMap<>());
+              }
+              waves.get(index).put(project, timeSeries);
+            }
+          }
+        });
+    waves.removeIf(Map::isEmpty);
+    return waves;
+  }
+
+  /**
+   * Returns the time series of the first wave built since the last call, grouped by the ID of the
+   * project to write them to, and forgets them: further points of the same series start new ones
+   * in the following waves, which are left to {@link #getTimeSeriesWaves()}. Overflow series are
+   * only returned if {@code includeOverflow} is set, since later points may still fold into them.
+   */
+  Map<String, List<TimeSeries>> drainTimeSeriesByProject(boolean includeOverflow) {
+    Map<String, List<TimeSeries>> timeSeriesByProject = new HashMap<>();
+    pendingTimeSeries.forEach(
+        (project, projectWaves) -> {
+          List<TimeSeries> drained = new ArrayList<>();
+          Set<MetricWithLabels> drainedKeys =
+              drainedTimeSeries.computeIfAbsent(project, p -> new HashSet<>());
+          Iterator<Map.Entry<MetricWithLabels, TimeSeries.Builder>> entries =
+              wave(projectWaves, 0).entrySet().iterator();
+          while (entries.hasNext()) {
+            Map.Entry<MetricWithLabels, TimeSeries.Builder> entry = entries.next();
+            if (includeOverflow || !entry.getKey().hasAttribute(OVERFLOW_KEY)) {
+              drained.add(entry.getValue().build());
+              drainedKeys.add(entry.getKey());
+              entries.remove();
+            }
+          }
+          if (!drained.isEmpty()) {
+            timeSeriesByProject.put(project, drained);
+          }
+        });
+    return timeSeriesByProject;
+  }
 }
@@ -16,9 +16,12 @@
 package com.google.cloud.opentelemetry.metric;
 
 import com.google.api.MetricDescriptor;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.monitoring.v3.CreateMetricDescriptorRequest;
 import com.google.monitoring.v3.ProjectName;
 import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.Empty;
 import java.util.List;
 
 /** Wrapper interface for writing to Google Cloud Monitoring. */
@@ -50,6 +53,47 @@ public interface CloudMetricClient {
    */
   void createServiceTimeSeries(ProjectName name, List<TimeSeries> timeSeries);
 
+  /**
+   * Send a time series to Cloud Monitoring without blocking the calling thread.
+   *
+   * <p>The default implementation delegates to {@link #createTimeSeries(ProjectName, List)} and
+   * returns an already completed future.
+   *
+   * @param name The name of the project where we write the time series.
+   * @param timeSeries The list of time series to write.
+   *     <p>Note: This can only take one point at per time series.
+   * @return A future that completes once the write request has finished.
+   */
+  default ApiFuture<Empty> createTimeSeriesAsync(ProjectName name, List<TimeSeries> timeSeries) {
+    try {
+      createTimeSeries(name, timeSeries);
+      return ApiFutures.immediateFuture(Empty.getDefaultInstance());
+    } catch (RuntimeException e) {
+      return ApiFutures.immediateFailedFuture(e);
+    }
+  }
+
+  /**
+   * Send a service time series to Cloud Monitoring without blocking the calling thread.
+   *
+   * <p>The default implementation delegates to {@link #createServiceTimeSeries(ProjectName, List)}
+   * and returns an already completed future.
+   *
+   * @param name The name of the project where we write the time series.
+   * @param timeSeries The list of time series to write.
+   *     <p>Note: This can only take one point at per time series.
+   * @return A future that completes once the write request has finished.
+   */
+  default ApiFuture<Empty> createServiceTimeSeriesAsync(
+      ProjectName name, List<TimeSeries> timeSeries) {
+    try {
+      createServiceTimeSeries(name, timeSeries);
+      return ApiFutures.immediateFuture(Empty.getDefaultInstance());
+    } catch (RuntimeException e) {
+      return ApiFutures.immediateFailedFuture(e);
+    }
+  }
+
   /** Shutdown this client, cleaning up any resources. */
   void shutdown();
 }
@@ -16,10 +16,13 @@
 package com.google.cloud.opentelemetry.metric;
 
 import com.google.api.MetricDescriptor;
+import com.google.api.core.ApiFuture;
 import com.google.cloud.monitoring.v3.MetricServiceClient;
 import com.google.monitoring.v3.CreateMetricDescriptorRequest;
+import com.google.monitoring.v3.CreateTimeSeriesRequest;
 import com.google.monitoring.v3.ProjectName;
 import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.Empty;
 import java.util.List;
 
 /** Directly talks to Cloud Monitoring. */
@@ -46,8 +49,31 @@ public final class CloudMetricClientImpl implements CloudMetricClient {
     this.metricServiceClient.createServiceTimeSeries(name, timeSeries);
   }
 
+  @Override
+  public ApiFuture<Empty> createTimeSeriesAsync(ProjectName name, List<TimeSeries> timeSeries) {
+    return this.metricServiceClient
+        .createTimeSeriesCallable()
+        .futureCall(toCreateTimeSeriesRequest(name, timeSeries));
+  }
+
+  @Override
+  public ApiFuture<Empty> createServiceTimeSeriesAsync(
+      ProjectName name, List<TimeSeries> timeSeries) {
+    return this.metricServiceClient
+        .createServiceTimeSeriesCallable()
+        .futureCall(toCreateTimeSeriesRequest(name, timeSeries));
+  }
+
   @Override
   public void shutdown() {
     this.metricServiceClient.shutdown();
   }
+
+  private static CreateTimeSeriesRequest toCreateTimeSeriesRequest(
+      ProjectName name, List<TimeSeries> timeSeries) {
+    return CreateTimeSeriesRequest.newBuilder()
+        .setName(name.toString())
+        .addAllTimeSeries(timeSeries)
+        .build();
+  }
 }
@@ -0,0 +1,470 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.primitives.Longs;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns delta sums and histograms, explicit or exponential, into cumulative ones by keeping a
+ * running total per series.
+ *
+ * <p>Cloud Monitoring only accepts cumulative points, so this lets the SDK report deltas and forget
+ * about series between collections while the exporter keeps the totals. Totals are held in
+ * primitive fields, the number of series is bounded, and series that have not been reported for
+ * {@link #DEFAULT_EXPIRY_MINUTES} minutes are evicted. An evicted series that shows up again
+ * restarts from zero with a new start time, which Cloud Monitoring treats as a reset.
+ */
+final class CumulativeAccumulator {
+  static final long DEFAULT_MAX_SIZE = 50_000;
+  static final long DEFAULT_EXPIRY_MINUTES = 10;
+
+  private final Cache<SeriesKey, SeriesState> series;
+
+  CumulativeAccumulator() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  CumulativeAccumulator(long maxSize) {
+    this.series =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(DEFAULT_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+  }
+
+  /**
+   * Adds the delta points of the given metrics to their running totals.
+   *
+   * @param metrics The metrics of one export.
+   * @return the metrics with every delta sum and histogram replaced by its cumulative counterpart,
+   *     in the same order. Other metrics are returned as-is.
+   */
+  synchronized List<MetricData> accumulate(Collection<MetricData> metrics) {
+    List<MetricData> result = new ArrayList<>(metrics.size());
+    for (MetricData metric : metrics) {
+      result.add(accumulate(metric));
+    }
+    return result;
+  }
+
+  private MetricData accumulate(MetricData metric) {
+    switch (metric.getType()) {
+      case LONG_SUM:
+        return isDelta(metric.getLongSumData()) ? accumulateLongSum(metric) : metric;
+      case DOUBLE_SUM:
+        return isDelta(metric.getDoubleSumData()) ? accumulateDoubleSum(metric) : metric;
+      case HISTOGRAM:
+        return isDelta(metric.getHistogramData()) ? accumulateHistogram(metric) : metric;
+      case EXPONENTIAL_HISTOGRAM:
+        return isDelta(metric.getExponentialHistogramData())
+            ? accumulateExponentialHistogram(metric)
+            : metric;
+      default:
+        return metric;
+    }
+  }
+
+  private static boolean isDelta(SumData<?> sum) {
+    return sum.getAggregationTemporality() == AggregationTemporality.DELTA;
+  }
+
+  private static boolean isDelta(HistogramData histogram) {
+    return histogram.getAggregationTemporality() == AggregationTemporality.DELTA;
+  }
+
+  private static boolean isDelta(ExponentialHistogramData histogram) {
+    return histogram.getAggregationTemporality() == AggregationTemporality.DELTA;
+  }
+
+  private MetricData accumulateLongSum(MetricData metric) {
+    SumData<LongPointData> sum = metric.getLongSumData();
+    int metricHash = SeriesKey.metricHash(metric);
+    List<LongPointData> points = new ArrayList<>(sum.getPoints().size());
+    for (LongPointData point : sum.getPoints()) {
+      SeriesKey key = new SeriesKey(metric, metricHash, point.getAttributes());
+      SeriesState state = series.getIfPresent(key);
+      LongState total;
+      if (state instanceof LongState) {
+        total = (LongState) state;
+      } else {
+        total = new LongState(point.getStartEpochNanos());
+        series.put(key, total);
+      }
+      total.value += point.getValue();
+      points.add(
+          MetricValues.longPoint(
+              total.startEpochNanos,
+              point.getEpochNanos(),
+              point.getAttributes(),
+              total.value,
+              point.getExemplars()));
+    }
+    return MetricValues.longSum(
+        metric, sum.isMonotonic(), AggregationTemporality.CUMULATIVE, points);
+  }
+
+  private MetricData accumulateDoubleSum(MetricData metric) {
+    SumData<DoublePointData> sum = metric.getDoubleSumData();
+    int metricHash = SeriesKey.metricHash(metric);
+    List<DoublePointData> points = new ArrayList<>(sum.getPoints().size());
+    for (DoublePointData point : sum.getPoints()) {
+      SeriesKey key = new SeriesKey(metric, metricHash, point.getAttributes());
+      SeriesState state = series.getIfPresent(key);
+      DoubleState total;
+      if (state instanceof DoubleState) {
+        total = (DoubleState) state;
+      } else {
+        total = new DoubleState(point.getStartEpochNanos());
+        series.put(key, total);
+      }
+      total.value += point.getValue();
+      points.add(
+          MetricValues.doublePoint(
+              total.startEpochNanos,
+              point.getEpochNanos(),
+              point.getAttributes(),
+              total.value,
+              point.getExemplars()));
+    }
+    return MetricValues.doubleSum(
+        metric, sum.isMonotonic(), AggregationTemporality.CUMULATIVE, points);
+  }
+
+  private MetricData accumulateHistogram(MetricData metric) {
+    HistogramData histogram = metric.getHistogramData();
+    int metricHash = SeriesKey.metricHash(metric);
+    List<HistogramPointData> points = new ArrayList<>(histogram.getPoints().size());
+    for (HistogramPointData point : histogram.getPoints()) {
+      SeriesKey key = new SeriesKey(metric, metricHash, point.getAttributes());
+      SeriesState state = series.getIfPresent(key);
+      HistogramState total;
+      // A change of bucket boundaries makes the running counts meaningless, so start over.
+      if (state instanceof HistogramState
+          && ((HistogramState) state).boundaries.equals(point.getBoundaries())) {
+        total = (HistogramState) state;
+      } else {
+        total = new HistogramState(point.getStartEpochNanos(), point.getBoundaries());
+        series.put(key, total);
+      }
+      total.add(point);
+      points.add(
+          MetricValues.histogramPoint(
+              total.startEpochNanos,
+              point.getEpochNanos(),
+              point.getAttributes(),
+              total.sum,
+              total.hasMin,
+              total.min,
+              total.hasMax,
+              total.max,
+              total.boundaries,
+              Longs.asList(total.counts.clone()),
+              point.getExemplars()));
+    }
+    return MetricValues.histogram(metric, AggregationTemporality.CUMULATIVE, points);
+  }
+
+  private MetricData accumulateExponentialHistogram(MetricData metric) {
+    ExponentialHistogramData histogram = metric.getExponentialHistogramData();
+    int metricHash = SeriesKey.metricHash(metric);
+    List<ExponentialHistogramPointData> points = new ArrayList<>(histogram.getPoints().size());
+    for (ExponentialHistogramPointData point : histogram.getPoints()) {
+      SeriesKey key = new SeriesKey(metric, metricHash, point.getAttributes());
+      SeriesState state = series.getIfPresent(key);
+      ExponentialHistogramState total;
+      if (state instanceof ExponentialHistogramState) {
+        total = (ExponentialHistogramState) state;
+      } else {
+        total = new ExponentialHistogramState(point.getStartEpochNanos(), point.getScale());
+        series.put(key, total);
+      }
+      total.add(point);
+      points.add(
+          MetricValues.exponentialHistogramPoint(
+              total.scale,
+              total.sum,
+              total.zeroCount,
+              total.hasMin,
+              total.min,
+              total.hasMax,
+              total.max,
+              total.positive.toBuckets(total.scale),
+              total.negative.toBuckets(total.scale),
+              total.startEpochNanos,
+              point.getEpochNanos(),
+              point.getAttributes(),
+              point.getExemplars()));
+    }
+    return MetricValues.exponentialHistogram(metric, AggregationTemporality.CUMULATIVE, points);
+  }
+
+  /** Identifies a series by its metric name, resource, instrumentation scope and attributes. */
+  private static final class SeriesKey {
+    private final String name;
+    private final Resource resource;
+    private final InstrumentationScopeInfo scope;
+    private final Attributes attributes;
+    private final int hashCode;
+
+    SeriesKey(MetricData metric, int metricHash, Attributes attributes) {
+      this.name = metric.getName();
+      this.resource = metric.getResource();
+      this.scope = metric.getInstrumentationScopeInfo();
+      this.attributes = attributes;
+      this.hashCode = 31 * metricHash + attributes.hashCode();
+    }
+
+    /** Hashes the parts of the key shared by all points of a metric, once per metric. */
+    static int metricHash(MetricData metric) {
+      return Objects.hash(
+          metric.getName(), metric.getResource(), metric.getInstrumentationScopeInfo());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SeriesKey)) {
+        return false;
+      }
+      SeriesKey that = (SeriesKey) o;
+      return hashCode == that.hashCode
+          && name.equals(that.name)
+          && attributes.equals(that.attributes)
+          && resource.equals(that.resource)
+          && scope.equals(that.scope);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  abstract static class SeriesState {
+    final long startEpochNanos;
+
+    SeriesState(long startEpochNanos) {
+      this.startEpochNanos = startEpochNanos;
+    }
+  }
+
+  private static final class LongState extends SeriesState {
+    long value;
+
+    LongState(long startEpochNanos) {
+      super(startEpochNanos);
+    }
+  }
+
+  private static final class DoubleState extends SeriesState {
+    double value;
+
+    DoubleState(long startEpochNanos) {
+      super(startEpochNanos);
+    }
+  }
+
+  /** The sum, min and max shared by both kinds of histograms. */
+  abstract static class DistributionState extends SeriesState {
+    double sum;
+    boolean hasMin;
+    double min;
+    boolean hasMax;
+    double max;
+
+    DistributionState(long startEpochNanos) {
+      super(startEpochNanos);
+    }
+
+    void addSummary(double sum, boolean hasMin, double min, boolean hasMax, double max) {
+      this.sum += sum;
+      if (hasMin) {
+        this.min = this.hasMin ? Math.min(this.min, min) : min;
+        this.hasMin = true;
+      }
+      if (hasMax) {
+        this.max = this.hasMax ? Math.max(this.max, max) : max;
+        this.hasMax = true;
+      }
+    }
+  }
+
+  /** The running total of an explicit bucket histogram, also used by {@link PointRollup}. */
+  static final class HistogramState extends DistributionState {
+    final List<Double> boundaries;
+    final long[] counts;
+
+    HistogramState(long startEpochNanos, List<Double> boundaries) {
+      super(startEpochNanos);
+      this.boundaries = boundaries;
+      this.counts = new long[boundaries.size() + 1];
+    }
+
+    void add(HistogramPointData point) {
+      List<Long> pointCounts = point.getCounts();
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += pointCounts.get(i);
+      }
+      addSummary(point.getSum(), point.hasMin(), point.getMin(), point.hasMax(), point.getMax());
+    }
+
+    /**
+     * Adds a point with other boundaries, each of its buckets into the bucket of these boundaries
+     * that holds its upper bound. Counts and sum stay exact, some values just move up a bucket.
+     */
+    void addRebucketed(HistogramPointData point) {
+      List<Double> pointBoundaries = point.getBoundaries();
+      List<Long> pointCounts = point.getCounts();
+      int bucket = 0;
+      for (int i = 0; i < pointCounts.size(); i++) {
+        if (i == pointBoundaries.size()) {
+          bucket = boundaries.size();
+        } else {
+          while (bucket < boundaries.size() && boundaries.get(bucket) < pointBoundaries.get(i)) {
+            bucket++;
+          }
+        }
+        counts[bucket] += pointCounts.get(i);
+      }
+      addSummary(point.getSum(), point.hasMin(), point.getMin(), point.hasMax(), point.getMax());
+    }
+  }
+
+  /** The running total of an exponential histogram, also used by {@link PointRollup}. */
+  static final class ExponentialHistogramState extends DistributionState {
+    int scale;
+    long zeroCount;
+    final ExponentialBucketCounts positive = new ExponentialBucketCounts();
+    final ExponentialBucketCounts negative = new ExponentialBucketCounts();
+
+    ExponentialHistogramState(long startEpochNanos, int scale) {
+      super(startEpochNanos);
+      this.scale = scale;
+    }
+
+    void add(ExponentialHistogramPointData point) {
+      // Merging needs a common scale, coarse enough for the merged buckets to stay bounded.
+      int newScale = Math.min(scale, point.getScale());
+      newScale = positive.fittingScale(scale, newScale, point.getPositiveBuckets());
+      newScale = negative.fittingScale(scale, newScale, point.getNegativeBuckets());
+      positive.downscale(scale - newScale);
+      negative.downscale(scale - newScale);
+      scale = newScale;
+      positive.add(point.getPositiveBuckets(), scale);
+      negative.add(point.getNegativeBuckets(), scale);
+      zeroCount += point.getZeroCount();
+      addSummary(point.getSum(), point.hasMin(), point.getMin(), point.hasMax(), point.getMax());
+    }
+  }
+
+  /**
+   * Dense counts of one side of an exponential histogram. Lowering the scale by one merges pairs
+   * of adjacent buckets, i.e. bucket {@code index} moves to {@code index >> 1}.
+   */
+  static final class ExponentialBucketCounts {
+    // Same limit as the SDK's default base-2 exponential histogram aggregation.
+    private static final int MAX_BUCKETS = 160;
+
+    private int offset;
+    private long[] counts = new long[0];
+
+    /**
+     * Returns the highest scale, at most {@code targetScale}, at which these counts (held at
+     * {@code currentScale}) and the given buckets fit into {@link #MAX_BUCKETS} together.
+     */
+    int fittingScale(int currentScale, int targetScale, ExponentialHistogramBuckets buckets) {
+      int size = buckets.getBucketCounts().size();
+      if (size == 0) {
+        return targetScale;
+      }
+      for (int scale = targetScale; ; scale--) {
+        int shift = buckets.getScale() - scale;
+        int low = buckets.getOffset() >> shift;
+        int high = (buckets.getOffset() + size - 1) >> shift;
+        if (counts.length > 0) {
+          low = Math.min(low, offset >> (currentScale - scale));
+          high = Math.max(high, (offset + counts.length - 1) >> (currentScale - scale));
+        }
+        if (high - low < MAX_BUCKETS) {
+          return scale;
+        }
+      }
+    }
+
+    void downscale(int by) {
+      if (by == 0 || counts.length == 0) {
+        return;
+      }
+      int newOffset = offset >> by;
+      long[] newCounts = new long[((offset + counts.length - 1) >> by) - newOffset + 1];
+      for (int i = 0; i < counts.length; i++) {
+        newCounts[((offset + i) >> by) - newOffset] += counts[i];
+      }
+      offset = newOffset;
+      counts = newCounts;
+    }
+
+    /** Adds the given buckets, which must have a scale no lower than {@code scale}. */
+    void add(ExponentialHistogramBuckets buckets, int scale) {
+      List<Long> bucketCounts = buckets.getBucketCounts();
+      if (bucketCounts.isEmpty()) {
+        return;
+      }
+      int shift = buckets.getScale() - scale;
+      int low = buckets.getOffset() >> shift;
+      int high = (buckets.getOffset() + bucketCounts.size() - 1) >> shift;
+      if (counts.length == 0) {
+        offset = low;
+        counts = new long[high - low + 1];
+      } else if (low < offset || high >= offset + counts.length) {
+        int newOffset = Math.min(low, offset);
+        long[] newCounts = new long[Math.max(high, offset + counts.length - 1) - newOffset + 1];
+        System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+        offset = newOffset;
+        counts = newCounts;
+      }
+      for (int i = 0; i < bucketCounts.size(); i++) {
+        counts[((buckets.getOffset() + i) >> shift) - offset] += bucketCounts.get(i);
+      }
+    }
+
+    ExponentialHistogramBuckets toBuckets(int scale) {
+      return MetricValues.exponentialBuckets(scale, offset, Longs.asList(counts.clone()));
+    }
+  }
+}
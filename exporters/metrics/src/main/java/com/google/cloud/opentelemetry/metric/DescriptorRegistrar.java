@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.MetricDescriptor;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers metric descriptors on a dedicated background thread, so that slow or failing {@code
+ * CreateMetricDescriptor} calls do not delay the time series of an export.
+ *
+ * <p>Descriptors are queued by type: a descriptor already queued or being registered is not queued
+ * again. Failed registrations are retried with exponential backoff, up to {@link #MAX_ATTEMPTS}
+ * attempts. At most {@link #MAX_PENDING} descriptors are pending at once, further ones are dropped
+ * and left to the auto-creation of metric descriptors. The result of each registration is returned
+ * to the {@link MetricDescriptorStrategy}, so that it only remembers the descriptors actually
+ * registered.
+ */
+final class DescriptorRegistrar {
+  private static final Logger logger = LoggerFactory.getLogger(DescriptorRegistrar.class);
+
+  static final int MAX_ATTEMPTS = 5;
+  static final int MAX_PENDING = 1_000;
+  static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+
+  private final Consumer<MetricDescriptor> createDescriptor;
+  private final Duration initialBackoff;
+  private final ScheduledExecutorService executor;
+  // Ends the waits for pending registrations, which must not queue behind a blocked registration.
+  private final ScheduledExecutorService timer;
+  // Metric type to the result of its pending registration.
+  private final ConcurrentMap<String, CompletableResultCode> pending = new ConcurrentHashMap<>();
+
+  DescriptorRegistrar(Consumer<MetricDescriptor> createDescriptor) {
+    this(createDescriptor, INITIAL_BACKOFF);
+  }
+
+  DescriptorRegistrar(Consumer<MetricDescriptor> createDescriptor, Duration initialBackoff) {
+    this.createDescriptor = createDescriptor;
+    this.initialBackoff = initialBackoff;
+    this.executor = newDaemonExecutor("gcm-metric-descriptor-registration");
+    this.timer = newDaemonExecutor("gcm-metric-descriptor-registration-timer");
+  }
+
+  private static ScheduledExecutorService newDaemonExecutor(String threadName) {
+    return Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, threadName);
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  /**
+   * Queues the registration of the given descriptor, unless one is already pending for its type.
+   * Never blocks.
+   *
+   * @return a result that succeeds once the descriptor is registered, and fails if it was dropped
+   *     or could not be registered in {@link #MAX_ATTEMPTS} attempts.
+   */
+  CompletableResultCode register(MetricDescriptor descriptor) {
+    CompletableResultCode existing = pending.get(descriptor.getType());
+    if (existing != null) {
+      return existing;
+    }
+    if (pending.size() >= MAX_PENDING) {
+      logger.warn("Too many pending metric descriptors, dropping {}", descriptor.getType());
+      return CompletableResultCode.ofFailure();
+    }
+    CompletableResultCode result = new CompletableResultCode();
+    existing = pending.putIfAbsent(descriptor.getType(), result);
+    if (existing != null) {
+      return existing;
+    }
+    schedule(descriptor, result, 1, 0);
+    return result;
+  }
+
+  /**
+   * Returns a result that completes once the registrations pending for the given descriptors have
+   * completed, or once the timeout has elapsed, whichever comes first. It always succeeds: a
+   * descriptor that could not be registered is left to auto-creation.
+   */
+  CompletableResultCode awaitRegistration(
+      Collection<MetricDescriptor> descriptors, Duration timeout) {
+    List<CompletableResultCode> results = new ArrayList<>();
+    for (MetricDescriptor descriptor : descriptors) {
+      CompletableResultCode result = pending.get(descriptor.getType());
+      if (result != null) {
+        results.add(result);
+      }
+    }
+    if (results.isEmpty() || timeout.isZero()) {
+      return CompletableResultCode.ofSuccess();
+    }
+    CompletableResultCode registered = new CompletableResultCode();
+    CompletableResultCode.ofAll(results).whenComplete(registered::succeed);
+    try {
+      timer.schedule(registered::succeed, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      registered.succeed();
+    }
+    return registered;
+  }
+
+  /** Stops registering descriptors. Pending registrations are abandoned. */
+  void shutdown() {
+    executor.shutdownNow();
+    timer.shutdownNow();
+    pending.values().forEach(CompletableResultCode::fail);
+    pending.clear();
+  }
+
+  private void schedule(
+      MetricDescriptor descriptor, CompletableResultCode result, int attempt, long delayNanos) {
+    try {
+      executor.schedule(
+          () -> attempt(descriptor, result, attempt), delayNanos, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      complete(descriptor, result, false);
+    }
+  }
+
+  private void attempt(MetricDescriptor descriptor, CompletableResultCode result, int attempt) {
+    try {
+      createDescriptor.accept(descriptor);
+      complete(descriptor, result, true);
+    } catch (RuntimeException e) {
+      if (attempt >= MAX_ATTEMPTS) {
+        logger.warn(
+            "Failed to create metric descriptor {} after {} attempts",
+            descriptor.getType(),
+            attempt,
+            e);
+        complete(descriptor, result, false);
+      } else {
+        logger.debug("Failed to create metric descriptor {}, retrying", descriptor.getType(), e);
+        schedule(descriptor, result, attempt + 1, initialBackoff.toNanos() << (attempt - 1));
+      }
+    }
+  }
+
+  private void complete(MetricDescriptor descriptor, CompletableResultCode result, boolean ok) {
+    pending.remove(descriptor.getType(), result);
+    if (ok) {
+      result.succeed();
+    } else {
+      result.fail();
+    }
+  }
+}
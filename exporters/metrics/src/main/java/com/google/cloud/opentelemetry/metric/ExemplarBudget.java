@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import io.opentelemetry.sdk.metrics.data.ExemplarData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Limits the exemplars attached to the distributions of an export, both per point and in total.
+ * The exemplars a point keeps are chosen according to an {@link ExemplarSelection}.
+ *
+ * <p>A budget is spent by the builder of a single export, and is not thread-safe.
+ */
+final class ExemplarBudget {
+  /** A budget that keeps every exemplar. It is never spent, so it can be shared. */
+  static final ExemplarBudget UNLIMITED = new ExemplarBudget(0, 0, ExemplarSelection.MOST_RECENT);
+
+  private static final Comparator<ExemplarData> MOST_RECENT_FIRST =
+      Comparator.comparingLong(ExemplarData::getEpochNanos).reversed();
+  private static final Comparator<ExemplarData> MAX_VALUE_FIRST =
+      Comparator.comparingDouble(MetricTranslator::exemplarValue).reversed();
+
+  // 0 if the number of exemplars per point is not limited.
+  private final int maxPerPoint;
+  private final Comparator<ExemplarData> preference;
+  // Negative if the number of exemplars per export is not limited.
+  private int remaining;
+
+  /**
+   * Creates a budget of {@code maxPerPoint} exemplars per point and {@code maxPerExport} in total,
+   * where 0 does not limit them.
+   */
+  ExemplarBudget(int maxPerPoint, int maxPerExport, ExemplarSelection selection) {
+    this.maxPerPoint = maxPerPoint;
+    this.remaining = maxPerExport == 0 ? -1 : maxPerExport;
+    this.preference =
+        selection == ExemplarSelection.MAX_VALUE ? MAX_VALUE_FIRST : MOST_RECENT_FIRST;
+  }
+
+  /**
+   * Returns the exemplars of a point that fit in the budget, and deducts them from it. The given
+   * list is returned as is when all of them fit.
+   */
+  <T extends ExemplarData> List<T> select(List<T> exemplars) {
+    int limit = exemplars.size();
+    if (maxPerPoint > 0) {
+      limit = Math.min(limit, maxPerPoint);
+    }
+    if (remaining >= 0) {
+      limit = Math.min(limit, remaining);
+      remaining -= limit;
+    }
+    if (limit == exemplars.size()) {
+      return exemplars;
+    }
+    if (limit == 0) {
+      return Collections.emptyList();
+    }
+    List<T> selected = new ArrayList<>(exemplars);
+    selected.sort(preference);
+    return selected.subList(0, limit);
+  }
+}
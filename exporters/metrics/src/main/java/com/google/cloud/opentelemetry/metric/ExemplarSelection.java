@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+/**
+ * Which exemplars of a point are kept when it has more than the exporter may attach.
+ *
+ * @see MetricConfiguration.Builder#setMaxExemplarsPerPoint(int)
+ * @see MetricConfiguration.Builder#setMaxExemplarsPerExport(int)
+ */
+public enum ExemplarSelection {
+  /** Keeps the most recently recorded exemplars. */
+  MOST_RECENT,
+  /** Keeps the exemplars with the largest values. */
+  MAX_VALUE
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.api.metrics.ObservableLongCounter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * The instruments through which the exporter reports on itself: how long translating metrics
+ * takes, how many time series each export produces, and the outcome and latency of the requests
+ * that send them.
+ *
+ * <p>Written and dropped points are observed from the counts the exporter keeps anyway, so they
+ * cost nothing on the export path.
+ */
+final class ExporterInstruments {
+  static final String INSTRUMENTATION_SCOPE = "com.google.cloud.opentelemetry.metric";
+
+  static final AttributeKey<String> RESULT_KEY = AttributeKey.stringKey("result");
+
+  private static final Attributes SUCCESS = Attributes.of(RESULT_KEY, "success");
+  private static final Attributes FAILURE = Attributes.of(RESULT_KEY, "failure");
+  private static final Attributes WRITTEN = Attributes.of(RESULT_KEY, "written");
+  private static final Attributes DROPPED = Attributes.of(RESULT_KEY, "dropped");
+
+  private static final List<Double> DURATION_BUCKETS =
+      Arrays.asList(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0);
+  private static final List<Long> TIME_SERIES_BUCKETS =
+      Arrays.asList(1L, 10L, 100L, 200L, 1_000L, 10_000L, 100_000L);
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final DoubleHistogram translationDuration;
+  private final LongHistogram exportTimeSeries;
+  private final DoubleHistogram requestDuration;
+  private final LongCounter descriptorRequests;
+  private final LongCounter overflowPoints;
+  private final ObservableLongCounter points;
+
+  /**
+   * Creates the instruments of an exporter.
+   *
+   * @param meterProvider The provider of the meter the instruments are created with.
+   * @param writtenPoints Supplies the number of points written so far.
+   * @param droppedPoints Supplies the number of points that could not be written so far.
+   */
+  ExporterInstruments(
+      MeterProvider meterProvider, LongSupplier writtenPoints, LongSupplier droppedPoints) {
+    Meter meter = meterProvider.get(INSTRUMENTATION_SCOPE);
+    this.translationDuration =
+        meter
+            .histogramBuilder("gcp.metric_exporter.translation.duration")
+            .setDescription("Time spent translating the metrics of an export into time series.")
+            .setUnit("s")
+            .setExplicitBucketBoundariesAdvice(DURATION_BUCKETS)
+            .build();
+    this.exportTimeSeries =
+        meter
+            .histogramBuilder("gcp.metric_exporter.export.time_series")
+            .setDescription("Number of time series sent by an export.")
+            .setUnit("{time_series}")
+            .ofLongs()
+            .setExplicitBucketBoundariesAdvice(TIME_SERIES_BUCKETS)
+            .build();
+    this.requestDuration =
+        meter
+            .histogramBuilder("gcp.metric_exporter.request.duration")
+            .setDescription("Latency of the requests sending batches of time series.")
+            .setUnit("s")
+            .setExplicitBucketBoundariesAdvice(DURATION_BUCKETS)
+            .build();
+    this.descriptorRequests =
+        meter
+            .counterBuilder("gcp.metric_exporter.descriptor.requests")
+            .setDescription("Number of requests creating metric descriptors.")
+            .setUnit("{request}")
+            .build();
+    this.overflowPoints =
+        meter
+            .counterBuilder("gcp.metric_exporter.overflow_points")
+            .setDescription("Number of points folded into overflow time series.")
+            .setUnit("{point}")
+            .build();
+    this.points =
+        meter
+            .counterBuilder("gcp.metric_exporter.points")
+            .setDescription("Number of points the exporter attempted to write.")
+            .setUnit("{point}")
+            .buildWithCallback(
+                measurement -> {
+                  measurement.record(writtenPoints.getAsLong(), WRITTEN);
+                  measurement.record(droppedPoints.getAsLong(), DROPPED);
+                });
+  }
+
+  void recordTranslation(long durationNanos, int timeSeries, int overflowPointCount) {
+    translationDuration.record(durationNanos / NANOS_PER_SECOND);
+    exportTimeSeries.record(timeSeries);
+    if (overflowPointCount > 0) {
+      overflowPoints.add(overflowPointCount);
+    }
+  }
+
+  void recordRequest(long durationNanos, boolean success) {
+    requestDuration.record(durationNanos / NANOS_PER_SECOND, success ? SUCCESS : FAILURE);
+  }
+
+  void recordDescriptorRequest(boolean success) {
+    descriptorRequests.add(1, success ? SUCCESS : FAILURE);
+  }
+
+  /** Stops observing the written and dropped points. */
+  void close() {
+    points.close();
+  }
+}
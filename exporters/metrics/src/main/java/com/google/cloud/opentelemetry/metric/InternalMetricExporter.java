@@ -18,6 +18,9 @@ package com.google.cloud.opentelemetry.metric;
 import static com.google.api.client.util.Preconditions.checkNotNull;
 
 import com.google.api.MetricDescriptor;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.api.gax.core.FixedCredentialsProvider;
 import com.google.api.gax.core.NoCredentialsProvider;
 import com.google.api.gax.grpc.GrpcTransportChannel;
@@ -27,27 +30,39 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.monitoring.v3.MetricServiceClient;
 import com.google.cloud.monitoring.v3.MetricServiceSettings;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.monitoring.v3.CreateMetricDescriptorRequest;
 import com.google.monitoring.v3.ProjectName;
 import com.google.monitoring.v3.TimeSeries;
 import io.grpc.ManagedChannelBuilder;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
-import io.opentelemetry.sdk.metrics.data.DoublePointData;
-import io.opentelemetry.sdk.metrics.data.HistogramPointData;
-import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.export.AggregationTemporalitySelector;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,54 +75,114 @@ class InternalMetricExporter implements MetricExporter {
   private static final Logger logger = LoggerFactory.getLogger(InternalMetricExporter.class);
 
   private static final String PROJECT_NAME_PREFIX = "projects/";
-  private static final int MAX_BATCH_SIZE = 200;
 
   private final CloudMetricClient metricServiceClient;
   private final String projectId;
-  private final String prefix;
   private final MetricDescriptorStrategy metricDescriptorStrategy;
-  private final Predicate<AttributeKey<?>> resourceAttributesFilter;
   private final boolean useCreateServiceTimeSeries;
-  private final MonitoredResourceDescription monitoredResourceDescription;
-  private final boolean instrumentationLibraryLabelsEnabled;
+  private final TimeSeriesBatchDispatcher batchDispatcher;
+  private final TimeSeriesBatcher batcher;
+  private final AggregationTemporalitySelector aggregationTemporalitySelector;
+  // Only set when delta temporality is enabled.
+  @Nullable private final CumulativeAccumulator cumulativeAccumulator;
+  // Only set when a minimum write interval or an unchanged series heartbeat is configured.
+  @Nullable private final SeriesWriteFilter seriesWriteFilter;
+  private final SharedLabelsCache sharedLabelsCache;
+  private final MetricDescriptorCache descriptorCache;
+  private final MonitoredResourceCache monitoredResourceCache;
+  private final TimeSeriesHeaderCache headerCache = new TimeSeriesHeaderCache();
+  private final int maxTimeSeriesPerMetric;
+  // Only set when the number of time series per metric is limited.
+  @Nullable private final SeriesLimiter seriesLimiter;
+  // Only set when time series are routed to projects by attribute.
+  @Nullable private final AttributeKey<String> projectIdAttributeKey;
+  // Only set when background descriptor registration is enabled.
+  @Nullable private final DescriptorRegistrar descriptorRegistrar;
+  private final Duration descriptorRegistrationWait;
+  private final Set<CompletableResultCode> pendingExports = ConcurrentHashMap.newKeySet();
+  private final ExporterInstruments instruments;
+  private final boolean streamingExportEnabled;
+  private final int maxExemplarsPerPoint;
+  private final int maxExemplarsPerExport;
+  private final ExemplarSelection exemplarSelection;
+  // Only set when metric or attribute rules are configured.
+  @Nullable private final MetricFilter metricFilter;
 
-  InternalMetricExporter(
-      String projectId,
-      String prefix,
-      CloudMetricClient client,
-      MetricDescriptorStrategy descriptorStrategy,
-      Predicate<AttributeKey<?>> resourceAttributesFilter,
-      boolean useCreateServiceTimeSeries,
-      MonitoredResourceDescription monitoredResourceDescription,
-      boolean instrumentationLibraryLabelsEnabled) {
-    this.projectId = projectId;
-    this.prefix = prefix;
-    this.metricServiceClient = client;
-    this.metricDescriptorStrategy = descriptorStrategy;
-    this.resourceAttributesFilter = resourceAttributesFilter;
-    this.useCreateServiceTimeSeries = useCreateServiceTimeSeries;
-    this.monitoredResourceDescription = monitoredResourceDescription;
-    this.instrumentationLibraryLabelsEnabled = instrumentationLibraryLabelsEnabled;
+  InternalMetricExporter(CloudMetricClient client, MetricConfiguration configuration) {
+    this.projectId = configuration.getProjectId();
+    this.metricServiceClient =
+        configuration.getTimeSeriesRetryTimeout().isZero()
+            ? client
+            : new RetryingCloudMetricClient(client, configuration.getTimeSeriesRetryTimeout());
+    this.metricDescriptorStrategy = configuration.getDescriptorStrategy();
+    this.useCreateServiceTimeSeries = configuration.getUseServiceTimeSeries();
+    this.batchDispatcher =
+        new TimeSeriesBatchDispatcher(configuration.getMaxConcurrentTimeSeriesRequests());
+    this.batcher =
+        new TimeSeriesBatcher(
+            configuration.getMaxTimeSeriesPerRequest(),
+            configuration.getMaxTimeSeriesRequestBytes());
+    if (configuration.getDeltaTemporalityEnabled()) {
+      this.aggregationTemporalitySelector = AggregationTemporalitySelector.lowMemory();
+      this.cumulativeAccumulator = new CumulativeAccumulator();
+    } else {
+      this.aggregationTemporalitySelector = AggregationTemporalitySelector.alwaysCumulative();
+      this.cumulativeAccumulator = null;
+    }
+    this.seriesWriteFilter =
+        configuration.getMinimumWriteInterval().isZero()
+                && configuration.getUnchangedSeriesHeartbeat().isZero()
+            ? null
+            : new SeriesWriteFilter(
+                configuration.getMinimumWriteInterval(),
+                configuration.getUnchangedSeriesHeartbeat());
+    this.sharedLabelsCache =
+        new SharedLabelsCache(
+            configuration.getResourceAttributesFilter(),
+            configuration.getInstrumentationLibraryLabelsEnabled());
+    this.descriptorCache = new MetricDescriptorCache(configuration.getPrefix());
+    this.monitoredResourceCache =
+        new MonitoredResourceCache(configuration.getMonitoredResourceDescription());
+    this.maxTimeSeriesPerMetric = configuration.getMaxTimeSeriesPerMetric();
+    this.seriesLimiter =
+        maxTimeSeriesPerMetric > 0 ? new SeriesLimiter(maxTimeSeriesPerMetric) : null;
+    this.projectIdAttributeKey =
+        configuration.getProjectIdAttributeKey() == null
+            ? null
+            : AttributeKey.stringKey(configuration.getProjectIdAttributeKey());
+    this.descriptorRegistrar =
+        configuration.getBackgroundDescriptorRegistrationEnabled()
+            ? new DescriptorRegistrar(this::exportDescriptor)
+            : null;
+    this.descriptorRegistrationWait = configuration.getDescriptorRegistrationWait();
+    this.instruments =
+        new ExporterInstruments(
+            configuration.getMeterProvider(),
+            batchDispatcher::getWrittenPointCount,
+            batchDispatcher::getDroppedPointCount);
+    this.streamingExportEnabled = configuration.getStreamingExportEnabled();
+    this.maxExemplarsPerPoint = configuration.getMaxExemplarsPerPoint();
+    this.maxExemplarsPerExport = configuration.getMaxExemplarsPerExport();
+    this.exemplarSelection = configuration.getExemplarSelection();
+    this.metricFilter = MetricFilter.create(configuration);
   }
 
   static InternalMetricExporter createWithConfiguration(MetricConfiguration configuration)
       throws IOException {
-    String projectId = configuration.getProjectId();
-    String prefix = configuration.getPrefix();
     MetricServiceSettings serviceClientSettings =
         configuration.getMetricServiceSettings() == null
             ? generateMetricServiceSettings(configuration)
             : configuration.getMetricServiceSettings();
 
     return new InternalMetricExporter(
-        projectId,
-        prefix,
         new CloudMetricClientImpl(MetricServiceClient.create(serviceClientSettings)),
-        configuration.getDescriptorStrategy(),
-        configuration.getResourceAttributesFilter(),
-        configuration.getUseServiceTimeSeries(),
-        configuration.getMonitoredResourceDescription(),
-        configuration.getInstrumentationLibraryLabelsEnabled());
+        configuration);
+  }
+
+  @VisibleForTesting
+  static InternalMetricExporter createWithClient(
+      CloudMetricClient metricServiceClient, MetricConfiguration configuration) {
+    return new InternalMetricExporter(metricServiceClient, configuration);
   }
 
   @VisibleForTesting
@@ -121,14 +196,16 @@ class InternalMetricExporter implements MetricExporter {
       MonitoredResourceDescription monitoredResourceDescription,
       boolean instrumentationLibraryLabelsEnabled) {
     return new InternalMetricExporter(
-        projectId,
-        prefix,
         metricServiceClient,
-        descriptorStrategy,
-        resourceAttributesFilter,
-        useCreateServiceTimeSeries,
-        monitoredResourceDescription,
-        instrumentationLibraryLabelsEnabled);
+        MetricConfiguration.builder()
+            .setProjectId(projectId)
+            .setPrefix(prefix)
+            .setDescriptorStrategy(descriptorStrategy)
+            .setResourceAttributesFilter(resourceAttributesFilter)
+            .setUseServiceTimeSeries(useCreateServiceTimeSeries)
+            .setMonitoredResourceDescription(monitoredResourceDescription)
+            .setInstrumentationLibraryLabelsEnabled(instrumentationLibraryLabelsEnabled)
+            .build());
   }
 
   private static MetricServiceSettings generateMetricServiceSettings(
@@ -163,134 +240,489 @@ class InternalMetricExporter implements MetricExporter {
 
   private void exportDescriptor(MetricDescriptor descriptor) {
     logger.trace("Creating metric descriptor: {}", descriptor);
-    metricServiceClient.createMetricDescriptor(
-        CreateMetricDescriptorRequest.newBuilder()
-            .setName(PROJECT_NAME_PREFIX + projectId)
-            .setMetricDescriptor(descriptor)
-            .build());
+    try {
+      metricServiceClient.createMetricDescriptor(
+          CreateMetricDescriptorRequest.newBuilder()
+              .setName(PROJECT_NAME_PREFIX + projectId)
+              .setMetricDescriptor(descriptor)
+              .build());
+    } catch (RuntimeException e) {
+      instruments.recordDescriptorRequest(false);
+      throw e;
+    }
+    instruments.recordDescriptorRequest(true);
   }
 
   @Override
   public AggregationTemporality getAggregationTemporality(@Nonnull InstrumentType instrumentType) {
-    return AggregationTemporality.CUMULATIVE;
+    return aggregationTemporalitySelector.getAggregationTemporality(instrumentType);
   }
 
   @Override
   public CompletableResultCode export(Collection<MetricData> metrics) {
     // General Algorithm for export:
-    // 1. Iterate over all points in the set of metrics to export
-    // 2. Attempt to register MetricDescriptors (using configured strategy)
-    // 3. Fire the set of time series off.
-    MetricTimeSeriesBuilder builder =
-        new AggregateByLabelMetricTimeSeriesBuilder(
-            projectId,
-            prefix,
-            resourceAttributesFilter,
-            monitoredResourceDescription,
-            instrumentationLibraryLabelsEnabled);
+    // 0. Drop the metrics and point attributes excluded by the configured rules
+    // 1. Turn delta points into cumulative ones, if delta temporality is enabled
+    // 2. Iterate over all points in the set of metrics to export, skipping the ones of series
+    //    written too recently or left unchanged
+    // 3. Attempt to register MetricDescriptors (using configured strategy)
+    // 4. Fire the set of time series off.
+    // With streaming export, 3 and 4 happen for each batch of time series as soon as it is full.
+    long translationStart = System.nanoTime();
+    Collection<MetricData> filteredMetrics =
+        metricFilter == null ? metrics : metricFilter.filter(metrics);
+    Collection<MetricData> cumulativeMetrics =
+        cumulativeAccumulator == null
+            ? filteredMetrics
+            : cumulativeAccumulator.accumulate(filteredMetrics);
+    SeriesWriteFilter.Journal writes =
+        seriesWriteFilter == null ? null : seriesWriteFilter.newJournal();
+    CompletableResultCode result =
+        streamingExportEnabled
+            ? exportStreaming(cumulativeMetrics, writes, translationStart)
+            : exportAll(cumulativeMetrics, writes, translationStart);
+    if (writes != null) {
+      // Points that were not written must not keep the next export from writing their series.
+      result.whenComplete(
+          () -> {
+            if (!result.isSuccess()) {
+              writes.rollBack();
+            }
+          });
+    }
+    trackPendingExport(result);
+    return result;
+  }
+
+  private CompletableResultCode exportAll(
+      Collection<MetricData> metrics,
+      @Nullable SeriesWriteFilter.Journal writes,
+      long translationStart) {
+    AggregateByLabelMetricTimeSeriesBuilder builder = newTimeSeriesBuilder();
+    int skippedMetrics = recordMetrics(metrics, writes, builder);
+    logOverflowPoints(builder.getOverflowPointCount());
+    List<Map<String, List<TimeSeries>>> waves = builder.getTimeSeriesWaves();
+    int seriesCount = 0;
+    for (Map<String, List<TimeSeries>> wave : waves) {
+      for (List<TimeSeries> projectSeries : wave.values()) {
+        seriesCount += projectSeries.size();
+      }
+    }
+    instruments.recordTranslation(
+        System.nanoTime() - translationStart, seriesCount, builder.getOverflowPointCount());
+
+    // Update metric descriptors based on configured strategy.
+    CompletableResultCode descriptorsRegistered = exportDescriptors(builder.getDescriptors());
+
+    CompletableResultCode result = createTimeSeriesWaves(descriptorsRegistered, waves);
+    return withTranslationResult(result, seriesCount, skippedMetrics, metrics.size());
+  }
+
+  private CompletableResultCode exportStreaming(
+      Collection<MetricData> metrics,
+      @Nullable SeriesWriteFilter.Journal writes,
+      long translationStart) {
+    StreamingExport export = new StreamingExport();
+    int skippedMetrics = recordMetrics(metrics, writes, export.sink);
+    export.sink.finish();
+    logOverflowPoints(export.sink.getOverflowPointCount());
+    int seriesCount = export.sink.getTimeSeriesCount();
+    // Includes the requests sent meanwhile, or all of them if they complete synchronously.
+    instruments.recordTranslation(
+        System.nanoTime() - translationStart, seriesCount, export.sink.getOverflowPointCount());
+    return withTranslationResult(export.close(), seriesCount, skippedMetrics, metrics.size());
+  }
+
+  private AggregateByLabelMetricTimeSeriesBuilder newTimeSeriesBuilder() {
+    return new AggregateByLabelMetricTimeSeriesBuilder(
+        projectId,
+        sharedLabelsCache,
+        descriptorCache,
+        monitoredResourceCache,
+        headerCache,
+        projectIdAttributeKey,
+        new ExemplarBudget(maxExemplarsPerPoint, maxExemplarsPerExport, exemplarSelection));
+  }
+
+  /**
+   * Records the points of the given metrics with the given recorder.
+   *
+   * @param writes The journal of the writes admitted by the series write filter, if any.
+   * @return the number of metrics whose points were all skipped by the series write filter.
+   */
+  private int recordMetrics(
+      Collection<MetricData> metrics,
+      @Nullable SeriesWriteFilter.Journal writes,
+      PointRecorder recorder) {
+    // Metrics whose points were all skipped by the series write filter.
+    int skippedMetrics = 0;
     for (final MetricData metricData : metrics) {
+      boolean skipped = false;
       // Extract all the underlying points.
       switch (metricData.getType()) {
         case LONG_GAUGE:
-          for (LongPointData point : metricData.getLongGaugeData().getPoints()) {
-            builder.recordPoint(metricData, point);
-          }
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getLongGaugeData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
           break;
         case LONG_SUM:
-          for (LongPointData point : metricData.getLongSumData().getPoints()) {
-            builder.recordPoint(metricData, point);
-          }
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getLongSumData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
           break;
         case DOUBLE_GAUGE:
-          for (DoublePointData point : metricData.getDoubleGaugeData().getPoints()) {
-            builder.recordPoint(metricData, point);
-          }
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getDoubleGaugeData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
           break;
         case DOUBLE_SUM:
-          for (DoublePointData point : metricData.getDoubleSumData().getPoints()) {
-            builder.recordPoint(metricData, point);
-          }
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getDoubleSumData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
           break;
         case HISTOGRAM:
-          for (HistogramPointData point : metricData.getHistogramData().getPoints()) {
-            builder.recordPoint(metricData, point);
-          }
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getHistogramData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
+          break;
+        case EXPONENTIAL_HISTOGRAM:
+          skipped =
+              recordPoints(
+                  metricData,
+                  writes,
+                  metricData.getExponentialHistogramData().getPoints(),
+                  SeriesWriteFilter::fingerprint,
+                  MetricFilter::withAttributes,
+                  recorder::recordPoint);
           break;
         default:
           logger.error("OpenTelemetry Metric type {} not supported.", metricData.getType());
       }
-      // TODO: Filter metrics by last updated time....
-      // MetricWithLabels updateKey =
-      // new MetricWithLabels(descriptor.getType(), metricPoint.getLabels());
-
-      // // Cloud Monitoring API allows, for any combination of labels and
-      // // metric name, one update per WRITE_INTERVAL seconds
-      // long pointCollectionTime = metricPoint.getEpochNanos();
-      // if (lastUpdatedTime.containsKey(updateKey)
-      // && pointCollectionTime
-      // <= lastUpdatedTime.get(updateKey) / NANO_PER_SECOND + WRITE_INTERVAL_SECOND)
-      // {
-      // continue;
-      // }
+      if (skipped) {
+        skippedMetrics++;
+      }
     }
-    // Update metric descriptors based on configured strategy.
-    exportDescriptors(builder);
-
-    List<TimeSeries> series = builder.getTimeSeries();
-    Consumer<List<TimeSeries>> timeSeriesGenerator =
-        timeSeries -> {
-          if (useCreateServiceTimeSeries) {
-            metricServiceClient.createServiceTimeSeries(ProjectName.of(projectId), timeSeries);
-          } else {
-            metricServiceClient.createTimeSeries(ProjectName.of(projectId), timeSeries);
-          }
-        };
-    createTimeSeriesBatch(series, timeSeriesGenerator);
-    // TODO: better error reporting.
-    if (series.size() < metrics.size()) {
-      return CompletableResultCode.ofFailure();
+    return skippedMetrics;
+  }
+
+  private void logOverflowPoints(int overflowPoints) {
+    if (overflowPoints > 0 && seriesLimiter != null) {
+      logger.warn(
+          "{} points of metrics over the limit of {} time series were folded into overflow series.",
+          overflowPoints,
+          maxTimeSeriesPerMetric);
     }
-    return CompletableResultCode.ofSuccess();
   }
 
-  private void exportDescriptors(MetricTimeSeriesBuilder timeSeriesBuilder) {
+  // Fails the export if some metrics yielded neither time series nor skipped points.
+  // TODO: better error reporting.
+  private static CompletableResultCode withTranslationResult(
+      CompletableResultCode result, int seriesCount, int skippedMetrics, int metrics) {
+    if (seriesCount + skippedMetrics < metrics) {
+      return CompletableResultCode.ofAll(Arrays.asList(result, CompletableResultCode.ofFailure()));
+    }
+    return result;
+  }
+
+  /**
+   * Records the points of the given metric, except for the ones skipped by the series write
+   * filter. The points of the series not admitted by the series limiter are recorded with the
+   * {@link AggregateByLabelMetricTimeSeriesBuilder#OVERFLOW_ATTRIBUTES overflow attributes}
+   * instead of their own, and never skipped: the overflow series they fold into must add all of
+   * them up in every export.
+   *
+   * @return true if the metric has points and all of them were skipped.
+   */
+  private <T extends PointData> boolean recordPoints(
+      MetricData metric,
+      @Nullable SeriesWriteFilter.Journal writes,
+      Collection<T> points,
+      ToLongFunction<T> fingerprint,
+      BiFunction<T, Attributes, T> withAttributes,
+      BiConsumer<MetricData, T> recorder) {
+    if (seriesWriteFilter == null && seriesLimiter == null) {
+      points.forEach(point -> recorder.accept(metric, point));
+      return false;
+    }
+    long metricHash = SeriesHash.metricHash(metric);
+    boolean cumulative = !MetricTranslator.isGauge(metric);
+    boolean needsFingerprint =
+        cumulative && seriesWriteFilter != null && seriesWriteFilter.skipsUnchangedSeries();
+    boolean allSkipped = !points.isEmpty();
+    for (T point : points) {
+      long seriesHash = SeriesHash.seriesHash(metricHash, point.getAttributes());
+      if (seriesLimiter != null
+          && !seriesLimiter.admit(metric.getName(), seriesHash, point.getEpochNanos())) {
+        recorder.accept(metric, withAttributes.apply(point, overflowAttributes(point)));
+        allSkipped = false;
+        continue;
+      }
+      long pointFingerprint = needsFingerprint ? fingerprint.applyAsLong(point) : 0;
+      if (seriesWriteFilter == null
+          || seriesWriteFilter.shouldWrite(
+              seriesHash, point.getEpochNanos(), cumulative, pointFingerprint, writes)) {
+        recorder.accept(metric, point);
+        allSkipped = false;
+      }
+    }
+    return allSkipped;
+  }
+
+  /** Returns the attributes of the given point once folded, keeping the project it is routed to. */
+  private Attributes overflowAttributes(PointData point) {
+    String routedProjectId =
+        projectIdAttributeKey == null ? null : point.getAttributes().get(projectIdAttributeKey);
+    return routedProjectId == null
+        ? AggregateByLabelMetricTimeSeriesBuilder.OVERFLOW_ATTRIBUTES
+        : AggregateByLabelMetricTimeSeriesBuilder.OVERFLOW_ATTRIBUTES.toBuilder()
+            .put(projectIdAttributeKey, routedProjectId)
+            .build();
+  }
+
+  private void trackPendingExport(CompletableResultCode result) {
+    if (result.isDone()) {
+      return;
+    }
+    pendingExports.add(result);
+    result.whenComplete(() -> pendingExports.remove(result));
+  }
+
+  /**
+   * Registers the given descriptors, following the configured strategy.
+   *
+   * @return a result that completes once the time series of the descriptors may be sent.
+   */
+  private CompletableResultCode exportDescriptors(Collection<MetricDescriptor> descriptors) {
     if (useCreateServiceTimeSeries) {
       // do not export metric descriptors when using createServiceTimeSeries
-      return;
+      return CompletableResultCode.ofSuccess();
     }
     try {
-      Collection<MetricDescriptor> descriptors = timeSeriesBuilder.getDescriptors();
       if (!descriptors.isEmpty()) {
-        metricDescriptorStrategy.exportDescriptors(descriptors, this::exportDescriptor);
+        if (descriptorRegistrar == null) {
+          metricDescriptorStrategy.exportDescriptors(descriptors, this::exportDescriptor);
+        } else {
+          metricDescriptorStrategy.exportDescriptorsAsync(
+              descriptors, descriptorRegistrar::register);
+          return descriptorRegistrar.awaitRegistration(descriptors, descriptorRegistrationWait);
+        }
       }
     } catch (Exception e) {
       logger.warn("Failed to create metric descriptors", e);
     }
+    return CompletableResultCode.ofSuccess();
+  }
+
+  /**
+   * Sends the given waves of time series one after the other, starting once {@code previous}
+   * has completed: each wave holds a single point of any time series, which Cloud Monitoring
+   * would reject in concurrent requests as well.
+   *
+   * @return a result that completes once all waves have been sent. It fails if {@code previous}
+   *     or any wave failed.
+   */
+  private CompletableResultCode createTimeSeriesWaves(
+      CompletableResultCode previous, List<Map<String, List<TimeSeries>>> waves) {
+    CompletableResultCode sent = previous;
+    for (Map<String, List<TimeSeries>> wave : waves) {
+      CompletableResultCode before = sent;
+      sent =
+          CompletableResultCode.ofAll(
+              Arrays.asList(before, afterCompletion(before, () -> createTimeSeriesBatches(wave))));
+    }
+    return sent;
+  }
+
+  /** Sends time series once the given result has completed, whatever its outcome. */
+  private static CompletableResultCode afterCompletion(
+      CompletableResultCode previous, Supplier<CompletableResultCode> send) {
+    if (previous.isDone()) {
+      return send.get();
+    }
+    CompletableResultCode result = new CompletableResultCode();
+    previous.whenComplete(
+        () -> {
+          CompletableResultCode sent = send.get();
+          sent.whenComplete(
+              () -> {
+                if (sent.isSuccess()) {
+                  result.succeed();
+                } else {
+                  result.fail();
+                }
+              });
+        });
+    return result;
+  }
+
+  // Send the time series of every project concurrently.
+  private CompletableResultCode createTimeSeriesBatches(
+      Map<String, List<TimeSeries>> seriesByProject) {
+    if (seriesByProject.size() == 1) {
+      Map.Entry<String, List<TimeSeries>> entry = seriesByProject.entrySet().iterator().next();
+      return createTimeSeriesBatch(entry.getValue(), timeSeriesGenerator(entry.getKey()));
+    }
+    List<CompletableResultCode> results = new ArrayList<>();
+    seriesByProject.forEach(
+        (project, series) ->
+            results.add(createTimeSeriesBatch(series, timeSeriesGenerator(project))));
+    return CompletableResultCode.ofAll(results);
+  }
+
+  private Function<List<TimeSeries>, ApiFuture<?>> timeSeriesGenerator(String project) {
+    ProjectName projectName = ProjectName.of(project);
+    return timeSeries -> {
+      if (useCreateServiceTimeSeries) {
+        return metricServiceClient.createServiceTimeSeriesAsync(projectName, timeSeries);
+      } else {
+        return metricServiceClient.createTimeSeriesAsync(projectName, timeSeries);
+      }
+    };
   }
 
   // Fragment metrics into batches and send to GCM.
-  private void createTimeSeriesBatch(
-      List<TimeSeries> allTimesSeries, Consumer<List<TimeSeries>> timeSeriesGenerator) {
-    List<List<TimeSeries>> batches = Lists.partition(allTimesSeries, MAX_BATCH_SIZE);
-    for (List<TimeSeries> timeSeries : batches) {
-      timeSeriesGenerator.accept(new ArrayList<>(timeSeries));
+  private CompletableResultCode createTimeSeriesBatch(
+      List<TimeSeries> allTimesSeries,
+      Function<List<TimeSeries>, ApiFuture<?>> timeSeriesGenerator) {
+    List<List<TimeSeries>> batches = batcher.partition(allTimesSeries);
+    return batchDispatcher.dispatch(batches, timedSender(timeSeriesGenerator));
+  }
+
+  // Reports the latency of every request to the batcher and the instruments.
+  private Function<List<TimeSeries>, ApiFuture<?>> timedSender(
+      Function<List<TimeSeries>, ApiFuture<?>> timeSeriesGenerator) {
+    return timeSeries -> {
+      long start = System.nanoTime();
+      ApiFuture<?> request = timeSeriesGenerator.apply(timeSeries);
+      ApiFutures.addCallback(
+          request,
+          new ApiFutureCallback<Object>() {
+            @Override
+            public void onFailure(Throwable t) {
+              onRequestCompleted(System.nanoTime() - start, false);
+            }
+
+            @Override
+            public void onSuccess(Object response) {
+              onRequestCompleted(System.nanoTime() - start, true);
+            }
+          },
+          MoreExecutors.directExecutor());
+      return request;
+    };
+  }
+
+  private void onRequestCompleted(long latencyNanos, boolean success) {
+    batcher.onRequestCompleted(latencyNanos);
+    instruments.recordRequest(latencyNanos, success);
+  }
+
+  /**
+   * The requests of an export whose batches of time series are sent as soon as they are full.
+   *
+   * <p>A batch is sent once all descriptors registered so far are, which include those of its own
+   * time series.
+   */
+  private final class StreamingExport {
+    final StreamingTimeSeriesSink sink =
+        new StreamingTimeSeriesSink(newTimeSeriesBuilder(), batcher, this::send);
+    // Destination project to the dispatch of its batches.
+    private final Map<String, TimeSeriesBatchDispatcher.Dispatch> dispatches = new HashMap<>();
+    private final Set<String> exportedDescriptorTypes = new HashSet<>();
+    private CompletableResultCode descriptorsRegistered = CompletableResultCode.ofSuccess();
+
+    private void send(String project, List<TimeSeries> batch) {
+      Collection<MetricDescriptor> descriptors = sink.getDescriptors();
+      if (descriptors.size() > exportedDescriptorTypes.size()) {
+        List<MetricDescriptor> newDescriptors = new ArrayList<>();
+        for (MetricDescriptor descriptor : descriptors) {
+          if (exportedDescriptorTypes.add(descriptor.getType())) {
+            newDescriptors.add(descriptor);
+          }
+        }
+        CompletableResultCode registered = exportDescriptors(newDescriptors);
+        if (!registered.isDone()) {
+          descriptorsRegistered =
+              CompletableResultCode.ofAll(Arrays.asList(descriptorsRegistered, registered));
+        }
+      }
+      TimeSeriesBatchDispatcher.Dispatch dispatch =
+          dispatches.computeIfAbsent(
+              project, p -> batchDispatcher.start(timedSender(timeSeriesGenerator(p))));
+      if (descriptorsRegistered.isDone()) {
+        dispatch.add(batch);
+      } else {
+        descriptorsRegistered.whenComplete(() -> dispatch.add(batch));
+      }
+    }
+
+    /**
+     * Returns a result that completes once every batch of this export has been attempted, followed
+     * by the waves of further points of its time series.
+     */
+    CompletableResultCode close() {
+      // Batches waiting for descriptors are added before the dispatches are closed.
+      CompletableResultCode streamed =
+          afterCompletion(
+              descriptorsRegistered,
+              () -> {
+                List<CompletableResultCode> results = new ArrayList<>();
+                dispatches.values().forEach(dispatch -> results.add(dispatch.close()));
+                return CompletableResultCode.ofAll(results);
+              });
+      return createTimeSeriesWaves(streamed, sink.getFollowingWaves());
     }
   }
 
   /**
-   * The exporter does not batch metrics, so this method will immediately return with success.
+   * The exporter does not batch metrics, so this method only waits for the time series requests of
+   * previous exports that are still in flight.
    *
-   * @return always Success
+   * @return a result that completes once all pending exports have completed.
    */
   @Override
   public CompletableResultCode flush() {
-    return CompletableResultCode.ofSuccess();
+    return CompletableResultCode.ofAll(new ArrayList<>(pendingExports));
   }
 
   @Override
   public CompletableResultCode shutdown() {
-    metricServiceClient.shutdown();
-
-    return CompletableResultCode.ofSuccess();
+    CompletableResultCode result = new CompletableResultCode();
+    flush()
+        .whenComplete(
+            () -> {
+              if (descriptorRegistrar != null) {
+                descriptorRegistrar.shutdown();
+              }
+              metricServiceClient.shutdown();
+              instruments.close();
+              result.succeed();
+            });
+    return result;
   }
 }
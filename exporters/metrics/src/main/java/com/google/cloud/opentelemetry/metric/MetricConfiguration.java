@@ -26,12 +26,18 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.semconv.ServiceAttributes;
 import io.opentelemetry.semconv.incubating.ServiceIncubatingAttributes;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
@@ -51,6 +57,15 @@ public abstract class MetricConfiguration {
   public static final Duration DEFAULT_DEADLINE =
       Duration.ofSeconds(12, 0); // Consistent with Cloud Monitoring's timeout
 
+  /** By default, batches of time series are sent one at a time. */
+  public static final int DEFAULT_MAX_CONCURRENT_TIME_SERIES_REQUESTS = 1;
+
+  /** Cloud Monitoring accepts at most 200 time series per request. */
+  public static final int MAX_TIME_SERIES_PER_REQUEST = 200;
+
+  /** By default, time series requests carry up to 1 MiB of time series. */
+  public static final int DEFAULT_MAX_TIME_SERIES_REQUEST_BYTES = 1024 * 1024;
+
   public static final String DEFAULT_METRIC_SERVICE_ENDPOINT =
       MetricServiceStubSettings.getDefaultEndpoint();
 
@@ -193,6 +208,213 @@ public abstract class MetricConfiguration {
    */
   public abstract boolean getInstrumentationLibraryLabelsEnabled();
 
+  /**
+   * Returns the maximum number of time series write requests that the exporter keeps in flight at
+   * the same time. Each request carries a batch of at most 200 time series.
+   *
+   * <p>Default value is {@link MetricConfiguration#DEFAULT_MAX_CONCURRENT_TIME_SERIES_REQUESTS}.
+   *
+   * @return the maximum number of concurrent time series requests.
+   */
+  public abstract int getMaxConcurrentTimeSeriesRequests();
+
+  /**
+   * Returns a boolean indicating if the exporter asks the SDK for delta sums and histograms and
+   * accumulates them into cumulative points itself.
+   *
+   * @return true if delta temporality is enabled, false otherwise.
+   * @see Builder#setDeltaTemporalityEnabled(boolean) for details.
+   */
+  public abstract boolean getDeltaTemporalityEnabled();
+
+  /**
+   * Returns the minimum interval between two points written to the same time series. Points of a
+   * series that arrive sooner are skipped.
+   *
+   * <p>Default value is {@link Duration#ZERO}, which disables this throttling.
+   *
+   * @return the minimum write interval.
+   * @see Builder#setMinimumWriteInterval(Duration) for details.
+   */
+  public abstract Duration getMinimumWriteInterval();
+
+  /**
+   * Returns the interval after which cumulative series whose value did not change are written
+   * again. Until then, their unchanged points are skipped.
+   *
+   * <p>Default value is {@link Duration#ZERO}, which disables the skipping of unchanged series.
+   *
+   * @return the heartbeat interval of unchanged series.
+   * @see Builder#setUnchangedSeriesHeartbeat(Duration) for details.
+   */
+  public abstract Duration getUnchangedSeriesHeartbeat();
+
+  /**
+   * Returns the maximum number of time series written per metric. The points of further series are
+   * folded into an overflow series.
+   *
+   * <p>Default value is 0, which does not limit the number of series.
+   *
+   * @return the maximum number of time series per metric.
+   * @see Builder#setMaxTimeSeriesPerMetric(int) for details.
+   */
+  public abstract int getMaxTimeSeriesPerMetric();
+
+  /**
+   * Returns whether metric descriptors are registered on a background thread instead of before the
+   * time series of each export.
+   *
+   * <p>Default value is false.
+   *
+   * @return true if descriptors are registered in the background.
+   * @see Builder#setBackgroundDescriptorRegistrationEnabled(boolean) for details.
+   */
+  public abstract boolean getBackgroundDescriptorRegistrationEnabled();
+
+  /**
+   * Returns how long the time series of metrics whose descriptor is being registered in the
+   * background are held back before being sent anyway.
+   *
+   * <p>Default value is {@link Duration#ZERO}, which sends them right away.
+   *
+   * @return the maximum time to wait for pending descriptor registrations.
+   * @see Builder#setDescriptorRegistrationWait(Duration) for details.
+   */
+  public abstract Duration getDescriptorRegistrationWait();
+
+  /**
+   * Returns how long failed time series requests are retried for, counted from their first
+   * attempt.
+   *
+   * <p>Default value is {@link Duration#ZERO}, which disables retries.
+   *
+   * @return the retry timeout of time series requests.
+   * @see Builder#setTimeSeriesRetryTimeout(Duration) for details.
+   */
+  public abstract Duration getTimeSeriesRetryTimeout();
+
+  /**
+   * Returns the maximum number of time series sent in a single request.
+   *
+   * <p>Default value is {@link MetricConfiguration#MAX_TIME_SERIES_PER_REQUEST}.
+   *
+   * @return the maximum number of time series per request.
+   * @see Builder#setMaxTimeSeriesPerRequest(int) for details.
+   */
+  public abstract int getMaxTimeSeriesPerRequest();
+
+  /**
+   * Returns the maximum serialized size of the time series sent in a single request.
+   *
+   * <p>Default value is {@link MetricConfiguration#DEFAULT_MAX_TIME_SERIES_REQUEST_BYTES}.
+   *
+   * @return the maximum size of the time series of a request, in bytes.
+   * @see Builder#setMaxTimeSeriesRequestBytes(int) for details.
+   */
+  public abstract int getMaxTimeSeriesRequestBytes();
+
+  /**
+   * Returns the key of the attribute naming the project that each time series is written to.
+   *
+   * <p>Default value is null, which writes all time series to the configured project.
+   *
+   * @return the key of the attribute naming the destination project of time series.
+   * @see Builder#setProjectIdAttributeKey(String) for details.
+   */
+  @Nullable
+  public abstract String getProjectIdAttributeKey();
+
+  /**
+   * Returns the {@link MeterProvider} the exporter reports its own metrics to.
+   *
+   * <p>Default value is {@link MeterProvider#noop()}, which disables them.
+   *
+   * @return the meter provider of the metrics of the exporter itself.
+   * @see Builder#setMeterProvider(MeterProvider) for details.
+   */
+  public abstract MeterProvider getMeterProvider();
+
+  /**
+   * Returns whether batches of time series are sent as soon as they are built.
+   *
+   * <p>Default value is false.
+   *
+   * @return whether streaming export is enabled.
+   * @see Builder#setStreamingExportEnabled(boolean) for details.
+   */
+  public abstract boolean getStreamingExportEnabled();
+
+  /**
+   * Returns the maximum number of exemplars attached to the distribution of a single point.
+   *
+   * <p>Default value is 0, which does not limit the number of exemplars.
+   *
+   * @return the maximum number of exemplars per point.
+   * @see Builder#setMaxExemplarsPerPoint(int) for details.
+   */
+  public abstract int getMaxExemplarsPerPoint();
+
+  /**
+   * Returns the maximum number of exemplars attached to the distributions of a single export.
+   *
+   * <p>Default value is 0, which does not limit the number of exemplars.
+   *
+   * @return the maximum number of exemplars per export.
+   * @see Builder#setMaxExemplarsPerExport(int) for details.
+   */
+  public abstract int getMaxExemplarsPerExport();
+
+  /**
+   * Returns which exemplars of a point are kept when it has more than allowed.
+   *
+   * <p>Default value is {@link ExemplarSelection#MOST_RECENT}.
+   *
+   * @return the selection policy of exemplars.
+   * @see Builder#setExemplarSelection(ExemplarSelection) for details.
+   */
+  public abstract ExemplarSelection getExemplarSelection();
+
+  /**
+   * Returns the glob patterns of the names of the metrics that are not exported.
+   *
+   * <p>Default value is an empty list, which drops no metric.
+   *
+   * @return the patterns of the names of dropped metrics.
+   * @see Builder#setDroppedMetrics(List) for details.
+   */
+  public abstract List<String> getDroppedMetrics();
+
+  /**
+   * Returns the glob patterns of the names of the instrumentation scopes whose metrics are not
+   * exported.
+   *
+   * <p>Default value is an empty list, which drops no metric.
+   *
+   * @return the patterns of the names of dropped instrumentation scopes.
+   * @see Builder#setDroppedInstrumentationScopes(List) for details.
+   */
+  public abstract List<String> getDroppedInstrumentationScopes();
+
+  /**
+   * Returns the point attribute keys kept by the metrics whose name matches each glob pattern.
+   *
+   * <p>Default value is an empty map, which keeps every attribute.
+   *
+   * @return the kept attribute keys, by pattern of metric names.
+   * @see Builder#setKeptAttributeKeys(Map) for details.
+   */
+  public abstract Map<String, Set<String>> getKeptAttributeKeys();
+
+  /**
+   * Returns the point attribute keys dropped by the metrics whose name matches each glob pattern.
+   *
+   * <p>Default value is an empty map, which drops no attribute.
+   *
+   * @return the dropped attribute keys, by pattern of metric names.
+   * @see Builder#setDroppedAttributeKeys(Map) for details.
+   */
+  public abstract Map<String, Set<String>> getDroppedAttributeKeys();
+
   @VisibleForTesting
   abstract boolean getInsecureEndpoint();
 
@@ -218,6 +440,25 @@ public abstract class MetricConfiguration {
         .setInsecureEndpoint(false)
         .setUseServiceTimeSeries(false)
         .setInstrumentationLibraryLabelsEnabled(true)
+        .setMaxConcurrentTimeSeriesRequests(DEFAULT_MAX_CONCURRENT_TIME_SERIES_REQUESTS)
+        .setDeltaTemporalityEnabled(false)
+        .setMinimumWriteInterval(ZERO)
+        .setUnchangedSeriesHeartbeat(ZERO)
+        .setMaxTimeSeriesPerMetric(0)
+        .setBackgroundDescriptorRegistrationEnabled(false)
+        .setDescriptorRegistrationWait(ZERO)
+        .setTimeSeriesRetryTimeout(ZERO)
+        .setMaxTimeSeriesPerRequest(MAX_TIME_SERIES_PER_REQUEST)
+        .setMaxTimeSeriesRequestBytes(DEFAULT_MAX_TIME_SERIES_REQUEST_BYTES)
+        .setMeterProvider(MeterProvider.noop())
+        .setStreamingExportEnabled(false)
+        .setMaxExemplarsPerPoint(0)
+        .setMaxExemplarsPerExport(0)
+        .setExemplarSelection(ExemplarSelection.MOST_RECENT)
+        .setDroppedMetrics(Collections.emptyList())
+        .setDroppedInstrumentationScopes(Collections.emptyList())
+        .setKeptAttributeKeys(Collections.emptyMap())
+        .setDroppedAttributeKeys(Collections.emptyMap())
         .setResourceAttributesFilter(DEFAULT_RESOURCE_ATTRIBUTES_FILTER)
         .setMonitoredResourceDescription(EMPTY_MONITORED_RESOURCE_DESCRIPTION)
         .setMetricServiceEndpoint(DEFAULT_METRIC_SERVICE_ENDPOINT);
@@ -232,6 +473,26 @@ public abstract class MetricConfiguration {
 
     abstract Duration getDeadline();
 
+    abstract int getMaxConcurrentTimeSeriesRequests();
+
+    abstract Duration getMinimumWriteInterval();
+
+    abstract Duration getUnchangedSeriesHeartbeat();
+
+    abstract int getMaxTimeSeriesPerMetric();
+
+    abstract Duration getDescriptorRegistrationWait();
+
+    abstract Duration getTimeSeriesRetryTimeout();
+
+    abstract int getMaxTimeSeriesPerRequest();
+
+    abstract int getMaxTimeSeriesRequestBytes();
+
+    abstract int getMaxExemplarsPerPoint();
+
+    abstract int getMaxExemplarsPerExport();
+
     /**
      * Package private method to set the {@link Supplier} that supplies the project ID. The project
      * ID value that is supplied depends on the value set using {@link
@@ -354,6 +615,337 @@ public abstract class MetricConfiguration {
     public abstract Builder setInstrumentationLibraryLabelsEnabled(
         boolean instrumentationLibraryLabelsEnabled);
 
+    /**
+     * Sets the maximum number of time series write requests that may be in flight at the same
+     * time. When an export contains more time series than fit into a single request, the batches
+     * are sent in parallel up to this limit, and the export only completes once every batch has
+     * been attempted.
+     *
+     * @param maxConcurrentTimeSeriesRequests the in-flight limit. Must be positive.
+     * @return this.
+     */
+    public abstract Builder setMaxConcurrentTimeSeriesRequests(
+        int maxConcurrentTimeSeriesRequests);
+
+    /**
+     * Sets the {@link MetricConfiguration} to configure the exporter to request delta temporality
+     * for counters and histograms. By default, this is false and the SDK keeps a cumulative total
+     * for every series it has ever seen.
+     *
+     * <p>When enabled, the SDK only reports what changed since the last collection and the
+     * exporter turns these deltas back into the cumulative points that Cloud Monitoring requires.
+     * The exporter bounds the number of series it keeps totals for, and forgets series that have
+     * not been reported for 10 minutes; such a series restarts from zero when it is reported
+     * again.
+     *
+     * @param deltaTemporalityEnabled boolean indicating whether to request delta temporality.
+     * @return this.
+     */
+    public abstract Builder setDeltaTemporalityEnabled(boolean deltaTemporalityEnabled);
+
+    /**
+     * Sets the minimum interval between two points written to the same time series. Cloud
+     * Monitoring rejects points that are written to a time series more often than once every few
+     * seconds, so when metrics are exported more frequently than that, the exporter can skip the
+     * points of series written less than this interval ago instead of sending them. Points are
+     * compared by their end time.
+     *
+     * <p>By default, this is {@link Duration#ZERO} and no point is skipped.
+     *
+     * @param minimumWriteInterval the minimum write interval. Must not be negative.
+     * @return this.
+     * @see <a href="https://cloud.google.com/monitoring/quotas#custom_metrics_quotas">Rate at which
+     *     data can be written to a single time series</a>
+     */
+    public abstract Builder setMinimumWriteInterval(Duration minimumWriteInterval);
+
+    /**
+     * Enables skipping of cumulative time series whose value has not changed since it was last
+     * written, e.g. counters of rare errors. Such series are only written again when they change,
+     * or once the given heartbeat interval has passed since their last write, so that they keep
+     * showing up in Cloud Monitoring.
+     *
+     * <p>Gauges are always written. By default, the heartbeat is {@link Duration#ZERO} and no
+     * point is skipped for being unchanged.
+     *
+     * @param unchangedSeriesHeartbeat the interval after which unchanged series are written again.
+     *     Must not be negative.
+     * @return this.
+     */
+    public abstract Builder setUnchangedSeriesHeartbeat(Duration unchangedSeriesHeartbeat);
+
+    /**
+     * Sets the maximum number of time series written per metric. This guards against attributes
+     * with unbounded values, e.g. request IDs, which would otherwise turn into as many time series.
+     * The first series of a metric up to the limit are written on their own, and the points of its
+     * further series are folded into an overflow series labelled {@code
+     * otel_metric_overflow=true}, which keeps the resource and instrumentation scope labels:
+     * cumulative values are added up and gauges keep their latest value. The number of folded
+     * points is logged. A series that goes unreported for 10 minutes frees its place for the next
+     * new series of its metric.
+     *
+     * <p>Folded points are never skipped by the {@link #setMinimumWriteInterval minimum write
+     * interval} or the {@link #setUnchangedSeriesHeartbeat unchanged series heartbeat}. Since the
+     * same series are folded from one export to the next, the cumulative values of the overflow
+     * series only decrease when one of them stops being reported or takes the place of an expired
+     * series.
+     *
+     * <p>By default, this is 0 and the number of series is not limited.
+     *
+     * @param maxTimeSeriesPerMetric the maximum number of time series per metric, or 0 for no
+     *     limit. Must not be negative.
+     * @return this.
+     */
+    public abstract Builder setMaxTimeSeriesPerMetric(int maxTimeSeriesPerMetric);
+
+    /**
+     * Moves the registration of metric descriptors to a dedicated background thread. By default,
+     * the descriptors selected by the {@link MetricDescriptorStrategy} are created synchronously
+     * before the time series of an export are sent, so a slow {@code CreateMetricDescriptor} call
+     * delays the data of the whole export. In the background, failed registrations are retried
+     * with exponential backoff.
+     *
+     * <p>The time series of metrics whose descriptor is still being registered are sent right
+     * away, relying on the auto-creation of metric descriptors, or held back for a while, see
+     * {@link #setDescriptorRegistrationWait(Duration)}.
+     *
+     * @param backgroundDescriptorRegistrationEnabled true to register descriptors in the
+     *     background.
+     * @return this.
+     */
+    public abstract Builder setBackgroundDescriptorRegistrationEnabled(
+        boolean backgroundDescriptorRegistrationEnabled);
+
+    /**
+     * Sets how long the time series of an export are held back while the descriptors of their
+     * metrics are being registered in the background. Once the registrations complete or this
+     * time elapses, the time series are sent. Only applies if background descriptor registration
+     * is enabled.
+     *
+     * <p>By default, this is {@link Duration#ZERO} and time series are sent right away.
+     *
+     * @param descriptorRegistrationWait the maximum time to wait for pending registrations. Must
+     *     not be negative.
+     * @return this.
+     */
+    public abstract Builder setDescriptorRegistrationWait(Duration descriptorRegistrationWait);
+
+    /**
+     * Enables retries of time series requests that fail for a transient reason, e.g. because
+     * Cloud Monitoring is unavailable or overloaded. Retries are spaced by a jittered exponential
+     * backoff, and stop once the given timeout has elapsed since the first attempt. To keep
+     * retries from overlapping with the next export, use a timeout shorter than the export
+     * interval.
+     *
+     * <p>Requests that Cloud Monitoring partially accepted are not retried, as the response does
+     * not tell which time series failed. Their written and dropped points are counted exactly. Nor
+     * are requests that timed out or failed with an internal error, whose points may have been
+     * written.
+     *
+     * <p>By default, this is {@link Duration#ZERO} and failed requests are not retried.
+     *
+     * @param timeSeriesRetryTimeout how long failed time series requests are retried for. Must not
+     *     be negative.
+     * @return this.
+     */
+    public abstract Builder setTimeSeriesRetryTimeout(Duration timeSeriesRetryTimeout);
+
+    /**
+     * Sets the maximum number of time series sent in a single request.
+     *
+     * <p>By default, this is {@link MetricConfiguration#MAX_TIME_SERIES_PER_REQUEST}, the most
+     * Cloud Monitoring accepts.
+     *
+     * @param maxTimeSeriesPerRequest the maximum number of time series per request. Must be
+     *     between 1 and {@link MetricConfiguration#MAX_TIME_SERIES_PER_REQUEST}.
+     * @return this.
+     */
+    public abstract Builder setMaxTimeSeriesPerRequest(int maxTimeSeriesPerRequest);
+
+    /**
+     * Sets the maximum serialized size of the time series sent in a single request. Time series
+     * vary widely in size, e.g. histograms with exemplars can be many times larger than gauges, so
+     * requests are filled up to this size as well as up to a number of series. A single time
+     * series larger than this is sent in a request of its own.
+     *
+     * <p>Within this bound, the size of requests adapts to their observed latency: it shrinks when
+     * requests get slow, and grows back as they speed up.
+     *
+     * <p>By default, this is {@link MetricConfiguration#DEFAULT_MAX_TIME_SERIES_REQUEST_BYTES}.
+     *
+     * @param maxTimeSeriesRequestBytes the maximum size of the time series of a request, in bytes.
+     *     Must be positive.
+     * @return this.
+     */
+    public abstract Builder setMaxTimeSeriesRequestBytes(int maxTimeSeriesRequestBytes);
+
+    /**
+     * Routes time series to projects by attribute, e.g. for a platform whose tenants each have
+     * their own project. Each time series is written to the project whose ID is the value of the
+     * given string attribute of its points, or else of its resource. Time series with neither are
+     * written to the configured project. The time series of each project are batched and sent
+     * concurrently over the same client.
+     *
+     * <p>Metric descriptors are only created in the configured project. Routed projects rely on
+     * the auto-creation of metric descriptors.
+     *
+     * <p>By default, this is null and all time series are written to the configured project.
+     *
+     * @param projectIdAttributeKey the key of the attribute naming the destination project.
+     * @return this.
+     */
+    public abstract Builder setProjectIdAttributeKey(@Nullable String projectIdAttributeKey);
+
+    /**
+     * Sets the {@link MeterProvider} the exporter reports its own metrics to, under the {@code
+     * com.google.cloud.opentelemetry.metric} instrumentation scope:
+     *
+     * <ul>
+     *   <li>{@code gcp.metric_exporter.translation.duration}: the time spent translating the
+     *       metrics of an export into time series.
+     *   <li>{@code gcp.metric_exporter.export.time_series}: the number of time series of an
+     *       export.
+     *   <li>{@code gcp.metric_exporter.request.duration}: the latency of the requests sending
+     *       time series, by {@code result}. Its count is the number of batches sent.
+     *   <li>{@code gcp.metric_exporter.points}: the points written and dropped, by {@code result}.
+     *   <li>{@code gcp.metric_exporter.overflow_points}: the points folded into overflow series.
+     *   <li>{@code gcp.metric_exporter.descriptor.requests}: the requests creating metric
+     *       descriptors, by {@code result}.
+     * </ul>
+     *
+     * <p>The provider may export through this exporter as well.
+     *
+     * <p>By default, this is {@link MeterProvider#noop()} and no metrics are reported.
+     *
+     * @param meterProvider the meter provider of the metrics of the exporter itself.
+     * @return this.
+     */
+    public abstract Builder setMeterProvider(MeterProvider meterProvider);
+
+    /**
+     * Sends each batch of time series as soon as it is full, while the following ones are still
+     * being built, instead of building every time series of an export before sending any. This
+     * overlaps translation with requests, and bounds the time series held in memory to a few
+     * batches rather than all of them.
+     *
+     * <p>A batch is sent once the metric descriptors of its time series have been registered.
+     * Points of the same series recorded by separate {@code MetricData} are sent in separate time
+     * series.
+     *
+     * <p>By default, this is false.
+     *
+     * @param streamingExportEnabled whether to send batches of time series as soon as they are
+     *     built.
+     * @return this.
+     */
+    public abstract Builder setStreamingExportEnabled(boolean streamingExportEnabled);
+
+    /**
+     * Limits the number of exemplars attached to the distribution of each histogram point. Each
+     * exemplar carries its own value, timestamp, span context and filtered attributes, so they can
+     * make up much of the size and translation time of histograms. The exemplars a point keeps
+     * are chosen according to {@link #setExemplarSelection(ExemplarSelection)}.
+     *
+     * <p>By default, this is 0 and the number of exemplars per point is not limited.
+     *
+     * @param maxExemplarsPerPoint the maximum number of exemplars per point, or 0 for no limit.
+     *     Must not be negative.
+     * @return this.
+     */
+    public abstract Builder setMaxExemplarsPerPoint(int maxExemplarsPerPoint);
+
+    /**
+     * Limits the number of exemplars attached to the distributions of a single export. Points
+     * translated once the limit is reached carry no exemplars.
+     *
+     * <p>By default, this is 0 and the number of exemplars per export is not limited.
+     *
+     * @param maxExemplarsPerExport the maximum number of exemplars per export, or 0 for no limit.
+     *     Must not be negative.
+     * @return this.
+     */
+    public abstract Builder setMaxExemplarsPerExport(int maxExemplarsPerExport);
+
+    /**
+     * Sets which exemplars of a point are kept when the limits set with {@link
+     * #setMaxExemplarsPerPoint(int)} or {@link #setMaxExemplarsPerExport(int)} do not allow all of
+     * them.
+     *
+     * <p>By default, this is {@link ExemplarSelection#MOST_RECENT}.
+     *
+     * @param exemplarSelection the selection policy of exemplars.
+     * @return this.
+     */
+    public abstract Builder setExemplarSelection(ExemplarSelection exemplarSelection);
+
+    /**
+     * Drops the metrics whose name matches one of the given glob patterns, in which {@code *}
+     * matches any sequence of characters and {@code ?} any single character. Dropped metrics are
+     * left out before anything is translated, so they cost nothing beyond matching their name once.
+     *
+     * <p>By default, this is an empty list and no metric is dropped.
+     *
+     * @param metricNamePatterns the glob patterns of the names of the metrics to drop.
+     * @return this.
+     */
+    public abstract Builder setDroppedMetrics(List<String> metricNamePatterns);
+
+    /**
+     * Drops the metrics of the instrumentation scopes whose name matches one of the given glob
+     * patterns, as {@link #setDroppedMetrics(List)} does.
+     *
+     * <p>By default, this is an empty list and no metric is dropped.
+     *
+     * @param scopeNamePatterns the glob patterns of the names of the instrumentation scopes whose
+     *     metrics to drop.
+     * @return this.
+     */
+    public abstract Builder setDroppedInstrumentationScopes(List<String> scopeNamePatterns);
+
+    /**
+     * Restricts the point attributes of the metrics whose name matches a glob pattern to the
+     * attribute keys it maps to, as labels. A metric matching several patterns keeps the keys all
+     * of them keep. Resource and instrumentation scope labels are not affected.
+     *
+     * <p>Points whose attributes become equal once filtered are rolled up into a single point:
+     * sums are added up, gauges keep the latest value and histograms are merged. Dropping a
+     * high-cardinality attribute thus reduces the number of time series without changing
+     * instrumentation.
+     *
+     * <p>Rolling up is only exact with {@link #setDeltaTemporalityEnabled(boolean) delta
+     * temporality}, where delta points are added up before they are accumulated. Rolled up
+     * cumulative points, e.g. of up-down counters, drop and restart whenever one of the series
+     * they add up stops reporting. A warning is logged when attribute rules are configured
+     * without delta temporality.
+     *
+     * <p>By default, this is an empty map and all attributes are kept.
+     *
+     * @param keptAttributeKeys the attribute keys to keep, by glob pattern of metric names.
+     * @return this.
+     */
+    public abstract Builder setKeptAttributeKeys(Map<String, Set<String>> keptAttributeKeys);
+
+    /**
+     * Removes the given attribute keys from the points of the metrics whose name matches a glob
+     * pattern. A metric matching several patterns drops the keys any of them drops, including the
+     * ones {@link #setKeptAttributeKeys(Map)} keeps. Points left with equal attributes are rolled
+     * up as described there.
+     *
+     * <p>By default, this is an empty map and no attribute is dropped.
+     *
+     * @param droppedAttributeKeys the attribute keys to drop, by glob pattern of metric names.
+     * @return this.
+     */
+    public abstract Builder setDroppedAttributeKeys(Map<String, Set<String>> droppedAttributeKeys);
+
+    abstract List<String> getDroppedMetrics();
+
+    abstract List<String> getDroppedInstrumentationScopes();
+
+    abstract Map<String, Set<String>> getKeptAttributeKeys();
+
+    abstract Map<String, Set<String>> getDroppedAttributeKeys();
+
     @VisibleForTesting
     abstract Builder setInsecureEndpoint(boolean value);
 
@@ -365,8 +957,50 @@ public abstract class MetricConfiguration {
      * @return a {@code MetricsConfiguration}.
      */
     public MetricConfiguration build() {
+      // Later changes to the given collections must not change the rules of a built exporter.
+      setDroppedMetrics(ImmutableList.copyOf(getDroppedMetrics()));
+      setDroppedInstrumentationScopes(ImmutableList.copyOf(getDroppedInstrumentationScopes()));
+      setKeptAttributeKeys(copyOf(getKeptAttributeKeys()));
+      setDroppedAttributeKeys(copyOf(getDroppedAttributeKeys()));
       Preconditions.checkArgument(getDeadline().compareTo(ZERO) > 0, "Deadline must be positive.");
+      Preconditions.checkArgument(
+          getMaxConcurrentTimeSeriesRequests() > 0,
+          "Maximum number of concurrent time series requests must be positive.");
+      Preconditions.checkArgument(
+          !getMinimumWriteInterval().isNegative(), "Minimum write interval must not be negative.");
+      Preconditions.checkArgument(
+          !getUnchangedSeriesHeartbeat().isNegative(),
+          "Unchanged series heartbeat must not be negative.");
+      Preconditions.checkArgument(
+          getMaxTimeSeriesPerMetric() >= 0,
+          "Maximum number of time series per metric must not be negative.");
+      Preconditions.checkArgument(
+          !getDescriptorRegistrationWait().isNegative(),
+          "Descriptor registration wait must not be negative.");
+      Preconditions.checkArgument(
+          !getTimeSeriesRetryTimeout().isNegative(),
+          "Time series retry timeout must not be negative.");
+      Preconditions.checkArgument(
+          getMaxTimeSeriesPerRequest() > 0
+              && getMaxTimeSeriesPerRequest() <= MAX_TIME_SERIES_PER_REQUEST,
+          "Maximum number of time series per request must be between 1 and %s.",
+          MAX_TIME_SERIES_PER_REQUEST);
+      Preconditions.checkArgument(
+          getMaxTimeSeriesRequestBytes() > 0,
+          "Maximum size of time series requests must be positive.");
+      Preconditions.checkArgument(
+          getMaxExemplarsPerPoint() >= 0,
+          "Maximum number of exemplars per point must not be negative.");
+      Preconditions.checkArgument(
+          getMaxExemplarsPerExport() >= 0,
+          "Maximum number of exemplars per export must not be negative.");
       return autoBuild();
     }
+
+    private static Map<String, Set<String>> copyOf(Map<String, Set<String>> attributeKeys) {
+      ImmutableMap.Builder<String, Set<String>> copy = ImmutableMap.builder();
+      attributeKeys.forEach((pattern, keys) -> copy.put(pattern, ImmutableSet.copyOf(keys)));
+      return copy.build();
+    }
   }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapMetricDescriptor;
+
+import com.google.api.MetricDescriptor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache of the {@link MetricDescriptor}s built by {@link
+ * MetricTranslator#mapMetricDescriptor}.
+ *
+ * <p>A descriptor only depends on the metric definition and on the set of label keys, so points
+ * that only differ in their label values share a single descriptor. The cache is meant to be shared
+ * by all export cycles of an exporter.
+ *
+ * <p>The points of a metric do not all have the same label keys, e.g. when some attributes are
+ * only set on errors. The descriptor of a metric therefore holds the union of the label keys of all
+ * its points seen so far, in the order of {@link MetricTranslator#mapMetricDescriptor}. It does not
+ * depend on which point comes first in an export, so that the same descriptor is built from one
+ * export to the next and after a restart, and is only sent again when new label keys show up.
+ */
+final class MetricDescriptorCache {
+  static final int DEFAULT_MAX_SIZE = 2000;
+
+  private final String prefix;
+  // The key of each set of label keys of a metric to the union of the label keys of the metric.
+  private final Cache<Key, LabelUnion> descriptors;
+  // The key of the metric definition, without any label keys, to the union of its label keys.
+  private final Cache<Key, LabelUnion> unions;
+
+  MetricDescriptorCache(String prefix) {
+    this(prefix, DEFAULT_MAX_SIZE);
+  }
+
+  MetricDescriptorCache(String prefix, long maxSize) {
+    this.prefix = prefix;
+    this.descriptors = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    this.unions = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the descriptor for the given metric and point, adding the label keys of the point to
+   * the ones of the metric on first use.
+   *
+   * @return the descriptor, or null if the metric type is not supported.
+   */
+  @Nullable
+  MetricDescriptor getDescriptor(MetricData metric, PointData point, Attributes extraLabels) {
+    Key key =
+        new Key(metric, extraLabels.asMap().keySet(), point.getAttributes().asMap().keySet());
+    LabelUnion union = descriptors.getIfPresent(key);
+    if (union == null) {
+      union =
+          unions
+              .asMap()
+              .computeIfAbsent(
+                  new Key(metric, Collections.emptySet(), Collections.emptySet()),
+                  definition -> new LabelUnion());
+      union.add(metric, point.getAttributes(), extraLabels);
+      descriptors.put(key, union);
+    }
+    return union.getDescriptor();
+  }
+
+  /** The union of the label keys of the points of a metric, and the descriptor holding them. */
+  private final class LabelUnion {
+    // Only the keys of these attributes matter, their values are the first ones seen.
+    private Attributes pointAttributes = Attributes.empty();
+    private Attributes extraLabels = Attributes.empty();
+    @Nullable private MetricDescriptor descriptor;
+
+    synchronized void add(MetricData metric, Attributes pointAttributes, Attributes extraLabels) {
+      Attributes mergedPointAttributes = merge(this.pointAttributes, pointAttributes);
+      Attributes mergedExtraLabels = merge(this.extraLabels, extraLabels);
+      if (descriptor == null
+          || mergedPointAttributes != this.pointAttributes
+          || mergedExtraLabels != this.extraLabels) {
+        this.pointAttributes = mergedPointAttributes;
+        this.extraLabels = mergedExtraLabels;
+        descriptor = mapMetricDescriptor(prefix, metric, mergedPointAttributes, mergedExtraLabels);
+      }
+    }
+
+    @Nullable
+    synchronized MetricDescriptor getDescriptor() {
+      return descriptor;
+    }
+
+    /** Returns the union of the given attributes, or the first ones if they hold all the keys. */
+    private Attributes merge(Attributes union, Attributes attributes) {
+      Set<AttributeKey<?>> keys = union.asMap().keySet();
+      for (AttributeKey<?> key : attributes.asMap().keySet()) {
+        if (!keys.contains(key)) {
+          return attributes.toBuilder().putAll(union).build();
+        }
+      }
+      return union;
+    }
+  }
+
+  /** Everything {@link MetricTranslator#mapMetricDescriptor} reads from its inputs. */
+  private static final class Key {
+    private final String name;
+    private final String description;
+    private final String unit;
+    private final MetricDataType type;
+    private final boolean monotonic;
+    @Nullable private final AggregationTemporality temporality;
+    private final Set<AttributeKey<?>> extraLabelKeys;
+    private final Set<AttributeKey<?>> pointLabelKeys;
+    private final int hashCode;
+
+    Key(
+        MetricData metric,
+        Set<AttributeKey<?>> extraLabelKeys,
+        Set<AttributeKey<?>> pointLabelKeys) {
+      this.name = metric.getName();
+      this.description = metric.getDescription();
+      this.unit = metric.getUnit();
+      this.type = metric.getType();
+      switch (type) {
+        case LONG_SUM:
+          this.monotonic = metric.getLongSumData().isMonotonic();
+          this.temporality = metric.getLongSumData().getAggregationTemporality();
+          break;
+        case DOUBLE_SUM:
+          this.monotonic = metric.getDoubleSumData().isMonotonic();
+          this.temporality = metric.getDoubleSumData().getAggregationTemporality();
+          break;
+        case HISTOGRAM:
+          this.monotonic = false;
+          this.temporality = metric.getHistogramData().getAggregationTemporality();
+          break;
+        case EXPONENTIAL_HISTOGRAM:
+          this.monotonic = false;
+          this.temporality = metric.getExponentialHistogramData().getAggregationTemporality();
+          break;
+        default:
+          this.monotonic = false;
+          this.temporality = null;
+      }
+      this.extraLabelKeys = extraLabelKeys;
+      this.pointLabelKeys = pointLabelKeys;
+      this.hashCode =
+          Objects.hash(
+              name,
+              description,
+              unit,
+              type,
+              monotonic,
+              temporality,
+              extraLabelKeys,
+              pointLabelKeys);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return hashCode == that.hashCode
+          && monotonic == that.monotonic
+          && type == that.type
+          && temporality == that.temporality
+          && name.equals(that.name)
+          && description.equals(that.description)
+          && unit.equals(that.unit)
+          && extraLabelKeys.equals(that.extraLabelKeys)
+          && pointLabelKeys.equals(that.pointLabelKeys);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -16,9 +16,10 @@
 package com.google.cloud.opentelemetry.metric;
 
 import com.google.api.MetricDescriptor;
-import java.util.HashSet;
-import java.util.Set;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.nio.file.Path;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /** The strategy for how to handle metric descriptors. */
 @Deprecated
@@ -33,6 +34,22 @@ public interface MetricDescriptorStrategy {
   void exportDescriptors(
       Iterable<MetricDescriptor> batchDescriptors, Consumer<MetricDescriptor> export);
 
+  /**
+   * Determines what to do with metric descriptors that are registered asynchronously. Strategies
+   * that remember the descriptors they sent must only do so once their registration succeeded.
+   *
+   * <p>By default, a descriptor is considered sent once the given function returns.
+   *
+   * @param batchDescriptors The set of metrics being exported in a batch.
+   * @param export A function queueing the registration of a metric descriptor to cloud
+   *     monitoring, and returning a result that fails if the descriptor could not be registered.
+   */
+  default void exportDescriptorsAsync(
+      Iterable<MetricDescriptor> batchDescriptors,
+      Function<MetricDescriptor, CompletableResultCode> export) {
+    exportDescriptors(batchDescriptors, export::apply);
+  }
+
   /**
    * A strategy that always sends metric descriptors.
    *
@@ -58,20 +75,27 @@ public interface MetricDescriptorStrategy {
             Iterable<MetricDescriptor> batchDescriptors, Consumer<MetricDescriptor> export) {}
       };
 
-  /** A strategy that sends descriptors once per classloader instance. */
-  public static MetricDescriptorStrategy SEND_ONCE =
-      new MetricDescriptorStrategy() {
-        private final Set<String> alreadySent = new HashSet<>();
+  /**
+   * A strategy that sends descriptors once per classloader instance.
+   *
+   * <p>Concurrent exports never wait for each other's descriptors to be sent. The number of
+   * remembered metric types is bounded, so that dynamic metric names do not grow it without limit.
+   */
+  public static MetricDescriptorStrategy SEND_ONCE = new SendOnceMetricDescriptorStrategy();
 
-        @Override
-        public synchronized void exportDescriptors(
-            Iterable<MetricDescriptor> batchDescriptors, Consumer<MetricDescriptor> export) {
-          for (MetricDescriptor descriptor : batchDescriptors) {
-            if (!alreadySent.contains(descriptor.getType())) {
-              export.accept(descriptor);
-              alreadySent.add(descriptor.getType());
-            }
-          }
-        }
-      };
+  /**
+   * Returns a strategy that sends each descriptor once, and again whenever it changes, persisting
+   * a hash of the descriptors it sent to the given file. Unlike {@link #SEND_ONCE}, descriptors
+   * sent before a restart are not sent again as long as they are unchanged.
+   *
+   * <p>The file is read when this method is called and rewritten atomically after every export
+   * that sent a descriptor. It must not be shared by several strategies, e.g. by several processes
+   * on a shared volume.
+   *
+   * @param file The file holding the hashes of the sent descriptors, created if missing.
+   * @return the strategy.
+   */
+  static MetricDescriptorStrategy sendOncePersisted(Path file) {
+    return new PersistentMetricDescriptorStrategy(file);
+  }
 }
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies the metric and attribute rules of a {@link MetricConfiguration} to the metrics of an
+ * export, before any of them is translated.
+ *
+ * <p>A metric is dropped when its name matches one of the dropped metric patterns, or the name of
+ * its instrumentation scope one of the dropped scope patterns. The attribute keys of the points of
+ * other metrics are restricted to the kept keys of every pattern their name matches, minus the
+ * dropped keys of every pattern their name matches. Patterns are globs, where {@code *} matches
+ * any sequence of characters and {@code ?} any single character.
+ *
+ * <p>Points left with equal attributes would make up several points of the same time series, so
+ * they are rolled up into a single point by {@link PointRollup}: dropping a high-cardinality
+ * attribute aggregates its series away. This is only exact for delta points, which are rolled up
+ * before they are accumulated: see {@link PointRollup}. A warning is logged when attribute rules
+ * are configured without delta temporality.
+ *
+ * <p>The patterns are compiled once, and what they decide for a metric is cached by scope and
+ * metric name, so the rules cost a cache lookup per metric. Points are only rebuilt when they lose
+ * attributes.
+ */
+final class MetricFilter {
+  private static final Logger logger = LoggerFactory.getLogger(MetricFilter.class);
+
+  static final int DEFAULT_MAX_SIZE = 2000;
+
+  private static final Rule UNCHANGED = new Rule(false, null);
+  private static final Rule DROPPED = new Rule(true, null);
+
+  private final List<Pattern> droppedMetrics;
+  private final List<Pattern> droppedScopes;
+  private final List<AttributeRule> keptAttributeKeys;
+  private final List<AttributeRule> droppedAttributeKeys;
+  private final Cache<Key, Rule> rules;
+
+  MetricFilter(
+      List<String> droppedMetrics,
+      List<String> droppedScopes,
+      Map<String, Set<String>> keptAttributeKeys,
+      Map<String, Set<String>> droppedAttributeKeys) {
+    this.droppedMetrics = compileAll(droppedMetrics);
+    this.droppedScopes = compileAll(droppedScopes);
+    this.keptAttributeKeys = compileAll(keptAttributeKeys);
+    this.droppedAttributeKeys = compileAll(droppedAttributeKeys);
+    this.rules = CacheBuilder.newBuilder().maximumSize(DEFAULT_MAX_SIZE).build();
+  }
+
+  /**
+   * Returns a filter applying the rules of the given configuration, or null if it has none.
+   *
+   * @param configuration the configuration of the exporter.
+   */
+  @Nullable
+  static MetricFilter create(MetricConfiguration configuration) {
+    if (configuration.getDroppedMetrics().isEmpty()
+        && configuration.getDroppedInstrumentationScopes().isEmpty()
+        && configuration.getKeptAttributeKeys().isEmpty()
+        && configuration.getDroppedAttributeKeys().isEmpty()) {
+      return null;
+    }
+    if (!configuration.getDeltaTemporalityEnabled()
+        && (!configuration.getKeptAttributeKeys().isEmpty()
+            || !configuration.getDroppedAttributeKeys().isEmpty())) {
+      logger.warn(
+          "Attribute rules are configured without delta temporality: the cumulative points they "
+              + "roll up drop whenever one of their series stops reporting. Enable delta "
+              + "temporality for them to be exact.");
+    }
+    return new MetricFilter(
+        configuration.getDroppedMetrics(),
+        configuration.getDroppedInstrumentationScopes(),
+        configuration.getKeptAttributeKeys(),
+        configuration.getDroppedAttributeKeys());
+  }
+
+  /** Returns the given metrics without the dropped ones, and without the dropped attributes. */
+  List<MetricData> filter(Collection<MetricData> metrics) {
+    List<MetricData> result = new ArrayList<>(metrics.size());
+    for (MetricData metric : metrics) {
+      Rule rule = getRule(metric);
+      if (rule.dropped) {
+        continue;
+      }
+      result.add(rule.keptAttributes == null ? metric : filter(metric, rule.keptAttributes));
+    }
+    return result;
+  }
+
+  private Rule getRule(MetricData metric) {
+    Key key = new Key(metric.getInstrumentationScopeInfo().getName(), metric.getName());
+    Rule rule = rules.getIfPresent(key);
+    if (rule == null) {
+      rule = resolve(key.scopeName, key.metricName);
+      rules.put(key, rule);
+    }
+    return rule;
+  }
+
+  private Rule resolve(String scopeName, String metricName) {
+    if (matchesAny(droppedMetrics, metricName) || matchesAny(droppedScopes, scopeName)) {
+      return DROPPED;
+    }
+    Set<String> kept = null;
+    for (AttributeRule rule : keptAttributeKeys) {
+      if (rule.pattern.matcher(metricName).matches()) {
+        if (kept == null) {
+          kept = new HashSet<>(rule.keys);
+        } else {
+          kept.retainAll(rule.keys);
+        }
+      }
+    }
+    Set<String> dropped = new HashSet<>();
+    for (AttributeRule rule : droppedAttributeKeys) {
+      if (rule.pattern.matcher(metricName).matches()) {
+        dropped.addAll(rule.keys);
+      }
+    }
+    if (kept == null && dropped.isEmpty()) {
+      return UNCHANGED;
+    }
+    Set<String> keptKeys = kept;
+    return new Rule(
+        false,
+        key ->
+            (keptKeys == null || keptKeys.contains(key.getKey()))
+                && !dropped.contains(key.getKey()));
+  }
+
+  private static MetricData filter(MetricData metric, Predicate<AttributeKey<?>> kept) {
+    switch (metric.getType()) {
+      case LONG_GAUGE:
+        {
+          List<LongPointData> points =
+              filterPoints(
+                  metric.getLongGaugeData().getPoints(),
+                  kept,
+                  MetricFilter::withAttributes,
+                  PointRollup::latest);
+          return points == null ? metric : MetricValues.longGauge(metric, points);
+        }
+      case DOUBLE_GAUGE:
+        {
+          List<DoublePointData> points =
+              filterPoints(
+                  metric.getDoubleGaugeData().getPoints(),
+                  kept,
+                  MetricFilter::withAttributes,
+                  PointRollup::latest);
+          return points == null ? metric : MetricValues.doubleGauge(metric, points);
+        }
+      case LONG_SUM:
+        {
+          SumData<LongPointData> sum = metric.getLongSumData();
+          List<LongPointData> points =
+              filterPoints(
+                  sum.getPoints(), kept, MetricFilter::withAttributes, PointRollup::sumLongs);
+          return points == null
+              ? metric
+              : MetricValues.longSum(
+                  metric, sum.isMonotonic(), sum.getAggregationTemporality(), points);
+        }
+      case DOUBLE_SUM:
+        {
+          SumData<DoublePointData> sum = metric.getDoubleSumData();
+          List<DoublePointData> points =
+              filterPoints(
+                  sum.getPoints(), kept, MetricFilter::withAttributes, PointRollup::sumDoubles);
+          return points == null
+              ? metric
+              : MetricValues.doubleSum(
+                  metric, sum.isMonotonic(), sum.getAggregationTemporality(), points);
+        }
+      case HISTOGRAM:
+        {
+          HistogramData histogram = metric.getHistogramData();
+          List<HistogramPointData> points =
+              filterPoints(
+                  histogram.getPoints(),
+                  kept,
+                  MetricFilter::withAttributes,
+                  PointRollup::mergeHistograms);
+          return points == null
+              ? metric
+              : MetricValues.histogram(metric, histogram.getAggregationTemporality(), points);
+        }
+      case EXPONENTIAL_HISTOGRAM:
+        {
+          ExponentialHistogramData histogram = metric.getExponentialHistogramData();
+          List<ExponentialHistogramPointData> points =
+              filterPoints(
+                  histogram.getPoints(),
+                  kept,
+                  MetricFilter::withAttributes,
+                  PointRollup::mergeExponentialHistograms);
+          return points == null
+              ? metric
+              : MetricValues.exponentialHistogram(
+                  metric, histogram.getAggregationTemporality(), points);
+        }
+      default:
+        // Summaries are not exported.
+        return metric;
+    }
+  }
+
+  /**
+   * Returns the given points with their attributes filtered, and the ones left with equal
+   * attributes rolled up into one by {@code merge}, or null if none of them loses any attribute.
+   */
+  @Nullable
+  private static <T extends PointData> List<T> filterPoints(
+      Collection<T> points,
+      Predicate<AttributeKey<?>> kept,
+      BiFunction<T, Attributes, T> withAttributes,
+      Function<List<T>, T> merge) {
+    List<T> result = null;
+    int index = 0;
+    for (T point : points) {
+      Attributes attributes = filterAttributes(point.getAttributes(), kept);
+      if (attributes != point.getAttributes()) {
+        if (result == null) {
+          // The points before this one kept all their attributes.
+          result = new ArrayList<>(points.size());
+          Iterator<T> previous = points.iterator();
+          for (int i = 0; i < index; i++) {
+            result.add(previous.next());
+          }
+        }
+        result.add(withAttributes.apply(point, attributes));
+      } else if (result != null) {
+        result.add(point);
+      }
+      index++;
+    }
+    return result == null ? null : PointRollup.rollUp(result, merge);
+  }
+
+  private static Attributes filterAttributes(
+      Attributes attributes, Predicate<AttributeKey<?>> kept) {
+    for (AttributeKey<?> key : attributes.asMap().keySet()) {
+      if (!kept.test(key)) {
+        return attributes.toBuilder().removeIf(k -> !kept.test(k)).build();
+      }
+    }
+    return attributes;
+  }
+
+  static LongPointData withAttributes(LongPointData point, Attributes attributes) {
+    return MetricValues.longPoint(
+        point.getStartEpochNanos(),
+        point.getEpochNanos(),
+        attributes,
+        point.getValue(),
+        point.getExemplars());
+  }
+
+  static DoublePointData withAttributes(DoublePointData point, Attributes attributes) {
+    return MetricValues.doublePoint(
+        point.getStartEpochNanos(),
+        point.getEpochNanos(),
+        attributes,
+        point.getValue(),
+        point.getExemplars());
+  }
+
+  static HistogramPointData withAttributes(
+      HistogramPointData point, Attributes attributes) {
+    return MetricValues.histogramPoint(
+        point.getStartEpochNanos(),
+        point.getEpochNanos(),
+        attributes,
+        point.getSum(),
+        point.hasMin(),
+        point.getMin(),
+        point.hasMax(),
+        point.getMax(),
+        point.getBoundaries(),
+        point.getCounts(),
+        point.getExemplars());
+  }
+
+  static ExponentialHistogramPointData withAttributes(
+      ExponentialHistogramPointData point, Attributes attributes) {
+    return MetricValues.exponentialHistogramPoint(
+        point.getScale(),
+        point.getSum(),
+        point.getZeroCount(),
+        point.hasMin(),
+        point.getMin(),
+        point.hasMax(),
+        point.getMax(),
+        point.getPositiveBuckets(),
+        point.getNegativeBuckets(),
+        point.getStartEpochNanos(),
+        point.getEpochNanos(),
+        attributes,
+        point.getExemplars());
+  }
+
+  private static boolean matchesAny(List<Pattern> patterns, String name) {
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(name).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Pattern> compileAll(List<String> globs) {
+    List<Pattern> patterns = new ArrayList<>(globs.size());
+    for (String glob : globs) {
+      patterns.add(compileGlob(glob));
+    }
+    return patterns;
+  }
+
+  private static List<AttributeRule> compileAll(Map<String, Set<String>> keysByGlob) {
+    List<AttributeRule> rules = new ArrayList<>(keysByGlob.size());
+    keysByGlob.forEach((glob, keys) -> rules.add(new AttributeRule(compileGlob(glob), keys)));
+    return rules;
+  }
+
+  static Pattern compileGlob(String glob) {
+    StringBuilder regex = new StringBuilder();
+    int literalStart = 0;
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      if (c == '*' || c == '?') {
+        if (i > literalStart) {
+          regex.append(Pattern.quote(glob.substring(literalStart, i)));
+        }
+        regex.append(c == '*' ? ".*" : ".");
+        literalStart = i + 1;
+      }
+    }
+    if (literalStart < glob.length()) {
+      regex.append(Pattern.quote(glob.substring(literalStart)));
+    }
+    return Pattern.compile(regex.toString(), Pattern.DOTALL);
+  }
+
+  /** The attribute keys a rule keeps or drops from the metrics whose name matches its pattern. */
+  private static final class AttributeRule {
+    final Pattern pattern;
+    final Set<String> keys;
+
+    AttributeRule(Pattern pattern, Set<String> keys) {
+      this.pattern = pattern;
+      this.keys = keys;
+    }
+  }
+
+  /** What the rules decide for a metric. */
+  private static final class Rule {
+    final boolean dropped;
+    // Null if the attributes of the points of the metric are left unchanged.
+    @Nullable final Predicate<AttributeKey<?>> keptAttributes;
+
+    Rule(boolean dropped, @Nullable Predicate<AttributeKey<?>> keptAttributes) {
+      this.dropped = dropped;
+      this.keptAttributes = keptAttributes;
+    }
+  }
+
+  private static final class Key {
+    final String scopeName;
+    final String metricName;
+
+    Key(String scopeName, String metricName) {
+      this.scopeName = scopeName;
+      this.metricName = metricName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return scopeName.equals(that.scopeName) && metricName.equals(that.metricName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(scopeName, metricName);
+    }
+  }
+}
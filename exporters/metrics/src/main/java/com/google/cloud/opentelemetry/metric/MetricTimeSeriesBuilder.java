@@ -18,11 +18,13 @@ package com.google.cloud.opentelemetry.metric;
 import com.google.api.MetricDescriptor;
 import com.google.monitoring.v3.TimeSeries;
 import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
 import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import java.util.Collection;
 import java.util.List;
+import org.slf4j.LoggerFactory;
 
 /** An interface that denotes how we build our API calls from metric data. */
 @Deprecated
@@ -33,6 +35,14 @@ public interface MetricTimeSeriesBuilder {
   void recordPoint(MetricData metric, DoublePointData point);
   /** Records a DoubleHistogramPointData for the given metric. */
   void recordPoint(MetricData metric, HistogramPointData point);
+  /**
+   * Records an ExponentialHistogramPointData for the given metric. Builders that do not support
+   * exponential histograms drop the point.
+   */
+  default void recordPoint(MetricData metric, ExponentialHistogramPointData point) {
+    LoggerFactory.getLogger(MetricTimeSeriesBuilder.class)
+        .error("OpenTelemetry Metric type {} not supported.", metric.getType());
+  }
 
   /** The set of descriptors associated with the current time series. */
   Collection<MetricDescriptor> getDescriptors();
@@ -18,6 +18,7 @@ package com.google.cloud.opentelemetry.metric;
 import com.google.api.Distribution;
 import com.google.api.Distribution.BucketOptions;
 import com.google.api.Distribution.BucketOptions.Explicit;
+import com.google.api.Distribution.BucketOptions.Exponential;
 import com.google.api.LabelDescriptor;
 import com.google.api.Metric;
 import com.google.api.MetricDescriptor;
@@ -32,15 +33,23 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
 import io.opentelemetry.sdk.metrics.data.ExemplarData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
 import io.opentelemetry.sdk.metrics.data.HistogramData;
 import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.LongExemplarData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricDataType;
 import io.opentelemetry.sdk.metrics.data.SumData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +66,23 @@ public final class MetricTranslator {
   static final long NANO_PER_SECOND = (long) 1e9;
   static final String METRIC_DESCRIPTOR_TIME_UNIT = "ns";
 
+  // The smallest scale whose exponential bucket growth factor 2^(2^-scale) fits in a double.
+  private static final int MIN_EXPONENTIAL_SCALE = -9;
+
+  private static final int MAX_CLEANED_ATTRIBUTE_KEYS = 10_000;
+  // Interning table from attribute key names to their GCM label names.
+  private static final ConcurrentMap<String, String> CLEANED_ATTRIBUTE_KEYS =
+      new ConcurrentHashMap<>();
+  private static final int MAX_EXPLICIT_BUCKET_OPTIONS = 1_000;
+  // Bucket options of the distinct explicit boundary lists, shared by all the points using them.
+  private static final ConcurrentMap<List<Double>, BucketOptions> EXPLICIT_BUCKET_OPTIONS =
+      new ConcurrentHashMap<>();
+  private static final int MAX_SPAN_NAME_PREFIXES = 1_000;
+  // Project IDs to the "projects/<project>/traces/" prefixes of the span names of exemplars.
+  private static final ConcurrentMap<String, String> SPAN_NAME_PREFIXES = new ConcurrentHashMap<>();
+  // The length of "<trace ID>/spans/<span ID>", with hexadecimal IDs of 32 and 16 characters.
+  private static final int SPAN_NAME_SUFFIX_LENGTH = 32 + "/spans/".length() + 16;
+
   static Metric mapMetric(Attributes attributes, String type) {
     Metric.Builder metricBuilder = Metric.newBuilder().setType(type);
     attributes.forEach(
@@ -69,6 +95,12 @@ public final class MetricTranslator {
       MetricData metric,
       io.opentelemetry.sdk.metrics.data.PointData metricPoint,
       Attributes extraLabels) {
+    return mapMetricDescriptor(prefix, metric, metricPoint.getAttributes(), extraLabels);
+  }
+
+  /** Same as above, with the labels of the points given by their attributes. */
+  static MetricDescriptor mapMetricDescriptor(
+      String prefix, MetricData metric, Attributes pointAttributes, Attributes extraLabels) {
     MetricDescriptor.Builder builder =
         MetricDescriptor.newBuilder()
             .setDisplayName(metric.getName())
@@ -77,9 +109,7 @@ public final class MetricTranslator {
             .setUnit(metric.getUnit());
     // add extra labels if any
     extraLabels.forEach((key, value) -> builder.addLabels(mapAttribute(key, prefix)));
-    metricPoint
-        .getAttributes()
-        .forEach((key, value) -> builder.addLabels(mapAttribute(key, prefix)));
+    pointAttributes.forEach((key, value) -> builder.addLabels(mapAttribute(key, prefix)));
 
     MetricDataType metricType = metric.getType();
     switch (metricType) {
@@ -99,6 +129,8 @@ public final class MetricTranslator {
         return fillSumType(metric.getDoubleSumData(), builder);
       case HISTOGRAM:
         return fillHistogramType(metric.getHistogramData(), builder);
+      case EXPONENTIAL_HISTOGRAM:
+        return fillExponentialHistogramType(metric.getExponentialHistogramData(), builder);
       default:
         logger.error(
             "Metric type {} not supported. Only gauge and cumulative types are supported.",
@@ -144,17 +176,105 @@ public final class MetricTranslator {
   }
 
   static Distribution.Builder mapDistribution(HistogramPointData point, String projectId) {
+    return mapDistribution(point, projectId, ExemplarBudget.UNLIMITED);
+  }
+
+  static Distribution.Builder mapDistribution(
+      HistogramPointData point, String projectId, ExemplarBudget exemplarBudget) {
+    return Distribution.newBuilder()
+        .setCount(point.getCount())
+        .setMean(point.getSum() / point.getCount())
+        .setBucketOptions(explicitBucketOptions(point.getBoundaries()))
+        .addAllBucketCounts(withoutTrailingZeros(point.getCounts()))
+        .addAllExemplars(mapExemplars(exemplarBudget.select(point.getExemplars()), projectId));
+  }
+
+  private static BucketOptions explicitBucketOptions(List<Double> boundaries) {
+    return intern(
+        EXPLICIT_BUCKET_OPTIONS,
+        boundaries,
+        b ->
+            BucketOptions.newBuilder()
+                .setExplicitBuckets(Explicit.newBuilder().addAllBounds(b))
+                .build(),
+        MAX_EXPLICIT_BUCKET_OPTIONS);
+  }
+
+  // Distributions may leave out trailing empty buckets, which histograms with many boundaries
+  // mostly end with.
+  private static List<Long> withoutTrailingZeros(List<Long> counts) {
+    int size = counts.size();
+    while (size > 0 && counts.get(size - 1) == 0) {
+      size--;
+    }
+    return size == counts.size() ? counts : counts.subList(0, size);
+  }
+
+  static Distribution.Builder mapDistribution(
+      ExponentialHistogramPointData point, String projectId) {
+    return mapDistribution(point, projectId, ExemplarBudget.UNLIMITED);
+  }
+
+  static Distribution.Builder mapDistribution(
+      ExponentialHistogramPointData point, String projectId, ExemplarBudget exemplarBudget) {
+    ExponentialHistogramBuckets positiveBuckets = point.getPositiveBuckets();
+    int scale = point.getScale();
+    int offset = positiveBuckets.getOffset();
+    List<Long> positiveCounts = positiveBuckets.getBucketCounts();
+    // Below the minimum scale the growth factor is beyond the range of a double. Bucket i then
+    // becomes bucket 2i of the next scale, which covers the lower half of its range.
+    while (scale < MIN_EXPONENTIAL_SCALE) {
+      positiveCounts = spreadBuckets(positiveCounts);
+      offset *= 2;
+      scale++;
+    }
+    // OpenTelemetry bucket i holds (base^i, base^(i+1)] with base = 2^(2^-scale), while finite
+    // bucket i of an exponential Distribution holds [scale * growth^(i-1), scale * growth^i). The
+    // positive buckets thus map one-to-one onto the finite buckets, with growth = base and
+    // scale = base^offset. Only values that fall exactly on a boundary move up one bucket.
+    double exponent = Math.pow(2, -scale);
+    double growthFactor = Math.pow(2, exponent);
+    // Distributions cannot bucket zero or negative values, so they go to the underflow bucket.
+    long underflowCount = point.getZeroCount() + point.getNegativeBuckets().getTotalCount();
+    // So do the lowest buckets of coarse scales, when their lower bound is too small for a double.
+    int firstBucket = 0;
+    double bucketScale = Math.pow(2, exponent * offset);
+    while (bucketScale == 0 && firstBucket < positiveCounts.size()) {
+      underflowCount += positiveCounts.get(firstBucket);
+      firstBucket++;
+      bucketScale = Math.pow(2, exponent * (offset + firstBucket));
+    }
+    if (bucketScale == 0 || Double.isInfinite(bucketScale)) {
+      // No finite bucket is left to place, any valid scale will do.
+      bucketScale = 1;
+    }
+    positiveCounts = positiveCounts.subList(firstBucket, positiveCounts.size());
     return Distribution.newBuilder()
         .setCount(point.getCount())
         .setMean(point.getSum() / point.getCount())
         .setBucketOptions(
             BucketOptions.newBuilder()
-                .setExplicitBuckets(Explicit.newBuilder().addAllBounds(point.getBoundaries())))
-        .addAllBucketCounts(point.getCounts())
-        .addAllExemplars(
-            point.getExemplars().stream()
-                .map(e -> mapExemplar(e, projectId))
-                .collect(Collectors.toList()));
+                .setExponentialBuckets(
+                    Exponential.newBuilder()
+                        .setNumFiniteBuckets(Math.max(positiveCounts.size(), 1))
+                        .setGrowthFactor(growthFactor)
+                        .setScale(bucketScale)))
+        // The overflow bucket is always empty and, being the last one, can be left out.
+        .addBucketCounts(underflowCount)
+        .addAllBucketCounts(positiveCounts)
+        .addAllExemplars(mapExemplars(exemplarBudget.select(point.getExemplars()), projectId));
+  }
+
+  // Bucket i of the given counts becomes bucket 2i of the returned ones, one scale up.
+  private static List<Long> spreadBuckets(List<Long> counts) {
+    List<Long> spread = new ArrayList<>(Math.max(2 * counts.size() - 1, 0));
+    for (int i = 0; i < counts.size(); i++) {
+      if (i > 0) {
+        spread.add(0L);
+      }
+      spread.add(counts.get(i));
+    }
+    return spread;
   }
 
   @VisibleForTesting
@@ -185,7 +305,30 @@ public final class MetricTranslator {
   private static String cleanAttributeKey(String key) {
     // . is commonly used in OTel but disallowed in GCM label names,
     // https://cloud.google.com/monitoring/api/ref_v3/rest/v3/LabelDescriptor#:~:text=Matches%20the%20following%20regular%20expression%3A
-    return key.replace('.', '_');
+    return intern(
+        CLEANED_ATTRIBUTE_KEYS, key, k -> k.replace('.', '_'), MAX_CLEANED_ATTRIBUTE_KEYS);
+  }
+
+  /**
+   * Returns the value interned for {@code key} in {@code table}, computing it on first use. The
+   * table only grows while it holds fewer than {@code maxSize} entries: the keys of these tables
+   * are normally few and stable, and past that size values are computed on every call instead.
+   */
+  @VisibleForTesting
+  static <K, V> V intern(
+      ConcurrentMap<K, V> table, K key, Function<? super K, ? extends V> compute, int maxSize) {
+    V value = table.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = compute.apply(key);
+    if (table.size() < maxSize) {
+      V previous = table.putIfAbsent(key, value);
+      if (previous != null) {
+        return previous;
+      }
+    }
+    return value;
   }
 
   private static Timestamp mapTimestamp(long epochNanos) {
@@ -209,6 +352,21 @@ public final class MetricTranslator {
     }
   }
 
+  private static MetricDescriptor fillExponentialHistogramType(
+      ExponentialHistogramData histogram, MetricDescriptor.Builder builder) {
+    builder.setValueType(MetricDescriptor.ValueType.DISTRIBUTION);
+    switch (histogram.getAggregationTemporality()) {
+      case CUMULATIVE:
+        builder.setMetricKind(MetricDescriptor.MetricKind.CUMULATIVE);
+        return builder.build();
+      default:
+        logger.error(
+            "Exponential histogram type {} not supported. Only cumulative types are supported.",
+            histogram);
+        return null;
+    }
+  }
+
   private static MetricDescriptor fillSumType(SumData<?> sum, MetricDescriptor.Builder builder) {
     // Treat non-monotonic sums as gauges.
     if (!sum.isMonotonic()) {
@@ -234,17 +392,31 @@ public final class MetricTranslator {
     return String.join("/", prefix, instrumentName);
   }
 
-  private static Distribution.Exemplar mapExemplar(ExemplarData exemplar, String projectId) {
-    double value = 0;
+  private static List<Distribution.Exemplar> mapExemplars(
+      List<? extends ExemplarData> exemplars, String projectId) {
+    if (exemplars.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Distribution.Exemplar> mapped = new ArrayList<>(exemplars.size());
+    for (ExemplarData exemplar : exemplars) {
+      mapped.add(mapExemplar(exemplar, projectId));
+    }
+    return mapped;
+  }
+
+  static double exemplarValue(ExemplarData exemplar) {
     if (exemplar instanceof DoubleExemplarData) {
-      value = ((DoubleExemplarData) exemplar).getValue();
+      return ((DoubleExemplarData) exemplar).getValue();
     } else if (exemplar instanceof LongExemplarData) {
-      value = ((LongExemplarData) exemplar).getValue();
+      return ((LongExemplarData) exemplar).getValue();
     }
+    return 0;
+  }
 
+  private static Distribution.Exemplar mapExemplar(ExemplarData exemplar, String projectId) {
     Distribution.Exemplar.Builder exemplarBuilder =
         Distribution.Exemplar.newBuilder()
-            .setValue(value)
+            .setValue(exemplarValue(exemplar))
             .setTimestamp(mapTimestamp(exemplar.getEpochNanos()));
     if (exemplar.getSpanContext().isValid()) {
       exemplarBuilder.addAttachments(
@@ -265,7 +437,18 @@ public final class MetricTranslator {
   }
 
   private static String makeSpanName(String projectId, String traceId, String spanId) {
-    return String.format("projects/%s/traces/%s/spans/%s", projectId, traceId, spanId);
+    String prefix = spanNamePrefix(projectId);
+    return new StringBuilder(prefix.length() + SPAN_NAME_SUFFIX_LENGTH)
+        .append(prefix)
+        .append(traceId)
+        .append("/spans/")
+        .append(spanId)
+        .toString();
+  }
+
+  private static String spanNamePrefix(String projectId) {
+    return intern(
+        SPAN_NAME_PREFIXES, projectId, p -> "projects/" + p + "/traces/", MAX_SPAN_NAME_PREFIXES);
   }
 
   private static DroppedLabels mapFilteredAttributes(Attributes attributes) {
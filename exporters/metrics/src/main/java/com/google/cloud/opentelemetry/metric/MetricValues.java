@@ -0,0 +1,414 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.Data;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.GaugeData;
+import io.opentelemetry.sdk.metrics.data.HistogramData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongExemplarData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import io.opentelemetry.sdk.metrics.data.SumData;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Immutable implementations of the public {@link MetricData} and {@link PointData} interfaces, for
+ * the metrics the exporter rewrites before translating them.
+ *
+ * <p>The SDK has its own implementations, but they live in an internal package without any
+ * compatibility guarantee.
+ *
+ * <p>Each class redeclares the methods of its interface, since AutoValue takes the order of its
+ * constructor parameters from the order of the abstract methods.
+ */
+final class MetricValues {
+
+  private MetricValues() {}
+
+  static LongPointData longPoint(
+      long startEpochNanos,
+      long epochNanos,
+      Attributes attributes,
+      long value,
+      List<LongExemplarData> exemplars) {
+    return new AutoValue_MetricValues_LongPoint(
+        startEpochNanos, epochNanos, attributes, value, exemplars);
+  }
+
+  static DoublePointData doublePoint(
+      long startEpochNanos,
+      long epochNanos,
+      Attributes attributes,
+      double value,
+      List<DoubleExemplarData> exemplars) {
+    return new AutoValue_MetricValues_DoublePoint(
+        startEpochNanos, epochNanos, attributes, value, exemplars);
+  }
+
+  static HistogramPointData histogramPoint(
+      long startEpochNanos,
+      long epochNanos,
+      Attributes attributes,
+      double sum,
+      boolean hasMin,
+      double min,
+      boolean hasMax,
+      double max,
+      List<Double> boundaries,
+      List<Long> counts,
+      List<DoubleExemplarData> exemplars) {
+    return new AutoValue_MetricValues_HistogramPoint(
+        startEpochNanos,
+        epochNanos,
+        attributes,
+        sum,
+        totalCount(counts),
+        hasMin,
+        min,
+        hasMax,
+        max,
+        boundaries,
+        counts,
+        exemplars);
+  }
+
+  static ExponentialHistogramPointData exponentialHistogramPoint(
+      int scale,
+      double sum,
+      long zeroCount,
+      boolean hasMin,
+      double min,
+      boolean hasMax,
+      double max,
+      ExponentialHistogramBuckets positiveBuckets,
+      ExponentialHistogramBuckets negativeBuckets,
+      long startEpochNanos,
+      long epochNanos,
+      Attributes attributes,
+      List<DoubleExemplarData> exemplars) {
+    return new AutoValue_MetricValues_ExponentialHistogramPoint(
+        startEpochNanos,
+        epochNanos,
+        attributes,
+        scale,
+        sum,
+        zeroCount + positiveBuckets.getTotalCount() + negativeBuckets.getTotalCount(),
+        zeroCount,
+        hasMin,
+        min,
+        hasMax,
+        max,
+        positiveBuckets,
+        negativeBuckets,
+        exemplars);
+  }
+
+  static ExponentialHistogramBuckets exponentialBuckets(
+      int scale, int offset, List<Long> bucketCounts) {
+    return new AutoValue_MetricValues_ExponentialBuckets(
+        scale, offset, bucketCounts, totalCount(bucketCounts));
+  }
+
+  static MetricData longGauge(MetricData metric, Collection<LongPointData> points) {
+    return metric(metric, MetricDataType.LONG_GAUGE, new AutoValue_MetricValues_Gauge<>(points));
+  }
+
+  static MetricData doubleGauge(MetricData metric, Collection<DoublePointData> points) {
+    return metric(metric, MetricDataType.DOUBLE_GAUGE, new AutoValue_MetricValues_Gauge<>(points));
+  }
+
+  static MetricData longSum(
+      MetricData metric,
+      boolean monotonic,
+      AggregationTemporality temporality,
+      Collection<LongPointData> points) {
+    return metric(
+        metric,
+        MetricDataType.LONG_SUM,
+        new AutoValue_MetricValues_Sum<>(monotonic, temporality, points));
+  }
+
+  static MetricData doubleSum(
+      MetricData metric,
+      boolean monotonic,
+      AggregationTemporality temporality,
+      Collection<DoublePointData> points) {
+    return metric(
+        metric,
+        MetricDataType.DOUBLE_SUM,
+        new AutoValue_MetricValues_Sum<>(monotonic, temporality, points));
+  }
+
+  static MetricData histogram(
+      MetricData metric,
+      AggregationTemporality temporality,
+      Collection<HistogramPointData> points) {
+    return metric(
+        metric,
+        MetricDataType.HISTOGRAM,
+        new AutoValue_MetricValues_Histogram(temporality, points));
+  }
+
+  static MetricData exponentialHistogram(
+      MetricData metric,
+      AggregationTemporality temporality,
+      Collection<ExponentialHistogramPointData> points) {
+    return metric(
+        metric,
+        MetricDataType.EXPONENTIAL_HISTOGRAM,
+        new AutoValue_MetricValues_ExponentialHistogram(temporality, points));
+  }
+
+  /** Returns a metric with the definition of the given one, and the given data. */
+  private static MetricData metric(MetricData definition, MetricDataType type, Data<?> data) {
+    return new AutoValue_MetricValues_Metric(
+        definition.getResource(),
+        definition.getInstrumentationScopeInfo(),
+        definition.getName(),
+        definition.getDescription(),
+        definition.getUnit(),
+        type,
+        data);
+  }
+
+  private static long totalCount(List<Long> counts) {
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    return total;
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class LongPoint implements LongPointData {
+    @Override
+    public abstract long getStartEpochNanos();
+
+    @Override
+    public abstract long getEpochNanos();
+
+    @Override
+    public abstract Attributes getAttributes();
+
+    @Override
+    public abstract long getValue();
+
+    @Override
+    public abstract List<LongExemplarData> getExemplars();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class DoublePoint implements DoublePointData {
+    @Override
+    public abstract long getStartEpochNanos();
+
+    @Override
+    public abstract long getEpochNanos();
+
+    @Override
+    public abstract Attributes getAttributes();
+
+    @Override
+    public abstract double getValue();
+
+    @Override
+    public abstract List<DoubleExemplarData> getExemplars();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class HistogramPoint implements HistogramPointData {
+    @Override
+    public abstract long getStartEpochNanos();
+
+    @Override
+    public abstract long getEpochNanos();
+
+    @Override
+    public abstract Attributes getAttributes();
+
+    @Override
+    public abstract double getSum();
+
+    @Override
+    public abstract long getCount();
+
+    @Override
+    public abstract boolean hasMin();
+
+    @Override
+    public abstract double getMin();
+
+    @Override
+    public abstract boolean hasMax();
+
+    @Override
+    public abstract double getMax();
+
+    @Override
+    public abstract List<Double> getBoundaries();
+
+    @Override
+    public abstract List<Long> getCounts();
+
+    @Override
+    public abstract List<DoubleExemplarData> getExemplars();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class ExponentialHistogramPoint implements ExponentialHistogramPointData {
+    @Override
+    public abstract long getStartEpochNanos();
+
+    @Override
+    public abstract long getEpochNanos();
+
+    @Override
+    public abstract Attributes getAttributes();
+
+    @Override
+    public abstract int getScale();
+
+    @Override
+    public abstract double getSum();
+
+    @Override
+    public abstract long getCount();
+
+    @Override
+    public abstract long getZeroCount();
+
+    @Override
+    public abstract boolean hasMin();
+
+    @Override
+    public abstract double getMin();
+
+    @Override
+    public abstract boolean hasMax();
+
+    @Override
+    public abstract double getMax();
+
+    @Override
+    public abstract ExponentialHistogramBuckets getPositiveBuckets();
+
+    @Override
+    public abstract ExponentialHistogramBuckets getNegativeBuckets();
+
+    @Override
+    public abstract List<DoubleExemplarData> getExemplars();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class ExponentialBuckets implements ExponentialHistogramBuckets {
+    @Override
+    public abstract int getScale();
+
+    @Override
+    public abstract int getOffset();
+
+    @Override
+    public abstract List<Long> getBucketCounts();
+
+    @Override
+    public abstract long getTotalCount();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class Gauge<T extends PointData> implements GaugeData<T> {
+    @Override
+    public abstract Collection<T> getPoints();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class Sum<T extends PointData> implements SumData<T> {
+    @Override
+    public abstract boolean isMonotonic();
+
+    @Override
+    public abstract AggregationTemporality getAggregationTemporality();
+
+    @Override
+    public abstract Collection<T> getPoints();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class Histogram implements HistogramData {
+    @Override
+    public abstract AggregationTemporality getAggregationTemporality();
+
+    @Override
+    public abstract Collection<HistogramPointData> getPoints();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class ExponentialHistogram implements ExponentialHistogramData {
+    @Override
+    public abstract AggregationTemporality getAggregationTemporality();
+
+    @Override
+    public abstract Collection<ExponentialHistogramPointData> getPoints();
+  }
+
+  @AutoValue
+  @Immutable
+  abstract static class Metric implements MetricData {
+    @Override
+    public abstract Resource getResource();
+
+    @Override
+    public abstract InstrumentationScopeInfo getInstrumentationScopeInfo();
+
+    @Override
+    public abstract String getName();
+
+    @Override
+    public abstract String getDescription();
+
+    @Override
+    public abstract String getUnit();
+
+    @Override
+    public abstract MetricDataType getType();
+
+    @Override
+    public abstract Data<?> getData();
+  }
+}
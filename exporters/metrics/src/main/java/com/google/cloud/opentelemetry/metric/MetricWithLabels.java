@@ -15,16 +15,24 @@
  */
 package com.google.cloud.opentelemetry.metric;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import java.util.Objects;
 
 class MetricWithLabels {
   private final String metricType;
   private final Attributes attributes;
+  // Keys are hashed by both the per-export and the cross-export series maps.
+  private final int hashCode;
 
   MetricWithLabels(String metricType, Attributes attributes) {
     this.metricType = metricType;
     this.attributes = attributes;
+    this.hashCode = Objects.hash(metricType, attributes);
+  }
+
+  boolean hasAttribute(AttributeKey<?> key) {
+    return attributes.get(key) != null;
   }
 
   @Override
@@ -36,12 +44,13 @@ class MetricWithLabels {
       return false;
     }
     MetricWithLabels that = (MetricWithLabels) o;
-    return Objects.equals(metricType, that.metricType)
+    return hashCode == that.hashCode
+        && Objects.equals(metricType, that.metricType)
         && Objects.equals(attributes, that.attributes);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(metricType, attributes);
+    return hashCode;
   }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.ResourceTranslator.mapResource;
+
+import com.google.api.MonitoredResource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.opentelemetry.sdk.resources.Resource;
+
+/**
+ * A bounded cache of the {@link MonitoredResource} that each OpenTelemetry {@link Resource} maps
+ * to.
+ *
+ * <p>The SDK hands the same {@link Resource} instance to every export, so entries are keyed by
+ * identity and only weakly referenced. The cache is meant to be shared by all export cycles of an
+ * exporter.
+ */
+final class MonitoredResourceCache {
+  static final int DEFAULT_MAX_SIZE = 64;
+
+  private final MonitoredResourceDescription monitoredResourceDescription;
+  private final Cache<Resource, MonitoredResource> monitoredResources;
+
+  MonitoredResourceCache(MonitoredResourceDescription monitoredResourceDescription) {
+    this.monitoredResourceDescription = monitoredResourceDescription;
+    // weakKeys() makes the cache compare keys by identity.
+    this.monitoredResources =
+        CacheBuilder.newBuilder().weakKeys().maximumSize(DEFAULT_MAX_SIZE).build();
+  }
+
+  /** Returns the {@link MonitoredResource} for the given resource, translating it on first use. */
+  MonitoredResource getMonitoredResource(Resource resource) {
+    MonitoredResource monitoredResource = monitoredResources.getIfPresent(resource);
+    if (monitoredResource == null) {
+      monitoredResource = mapResource(resource, monitoredResourceDescription);
+      monitoredResources.put(resource, monitoredResource);
+    }
+    return monitoredResource;
+  }
+}
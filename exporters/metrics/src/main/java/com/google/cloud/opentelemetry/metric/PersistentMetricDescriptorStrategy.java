@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.MetricDescriptor;
+import com.google.common.hash.Hashing;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link MetricDescriptorStrategy} that sends each descriptor once, and again whenever its
+ * content changes, remembering what it sent in a local file so that restarts do not send the same
+ * descriptors again.
+ *
+ * <p>The file holds one line per metric type, with the type and a hash of the last descriptor sent
+ * for it. It is read once when the strategy is created, and rewritten after every export that sent
+ * a descriptor. Rewrites go through a temporary file in the same directory that is then moved over
+ * the previous one, so that a crash never leaves a truncated file behind. A missing or unreadable
+ * file only means that descriptors are sent again.
+ *
+ * <p>Each metric type is claimed before its descriptor is sent, so that concurrent exports do not
+ * send it twice. Neither the call sending a descriptor nor the file write is made under the lock
+ * guarding the claims. A descriptor registered asynchronously is only recorded, and written to the
+ * file, once its registration succeeded.
+ *
+ * <p>Each file must be used by a single strategy instance: instances do not see each other's
+ * writes.
+ */
+final class PersistentMetricDescriptorStrategy implements MetricDescriptorStrategy {
+  private static final Logger logger =
+      LoggerFactory.getLogger(PersistentMetricDescriptorStrategy.class);
+
+  private final Path file;
+  // Metric type to the hash of the last descriptor sent for it. Guarded by this.
+  private final Map<String, String> sentHashes = new HashMap<>();
+  // Metric types whose descriptor is being sent. Guarded by this.
+  private final Set<String> claimedTypes = new HashSet<>();
+  // Incremented whenever sentHashes changes. Guarded by this.
+  private long version;
+  // Serializes the writes of the file.
+  private final Object storeLock = new Object();
+  // The version of the last content written to the file. Guarded by storeLock.
+  private long storedVersion;
+
+  PersistentMetricDescriptorStrategy(Path file) {
+    this.file = file;
+    load();
+  }
+
+  @Override
+  public void exportDescriptors(
+      Iterable<MetricDescriptor> batchDescriptors, Consumer<MetricDescriptor> export) {
+    exportDescriptorsAsync(
+        batchDescriptors,
+        descriptor -> {
+          export.accept(descriptor);
+          return CompletableResultCode.ofSuccess();
+        });
+  }
+
+  @Override
+  public void exportDescriptorsAsync(
+      Iterable<MetricDescriptor> batchDescriptors,
+      Function<MetricDescriptor, CompletableResultCode> export) {
+    boolean changed = false;
+    try {
+      for (MetricDescriptor descriptor : batchDescriptors) {
+        String type = descriptor.getType();
+        String hash = hash(descriptor);
+        if (claim(type, hash)) {
+          CompletableResultCode result = null;
+          try {
+            result = export.apply(descriptor);
+          } finally {
+            if (result == null) {
+              release(type, null);
+            }
+          }
+          if (result.isDone()) {
+            changed |= release(type, result.isSuccess() ? hash : null);
+          } else {
+            // Written on its own once registered, since this export may be long over by then.
+            CompletableResultCode registered = result;
+            registered.whenComplete(
+                () -> {
+                  if (release(type, registered.isSuccess() ? hash : null)) {
+                    store();
+                  }
+                });
+          }
+        }
+      }
+    } finally {
+      // Keep the descriptors sent before a failed one.
+      if (changed) {
+        store();
+      }
+    }
+  }
+
+  /** Claims the given type, unless this descriptor of it was sent already or is being sent. */
+  private synchronized boolean claim(String type, String hash) {
+    return !hash.equals(sentHashes.get(type)) && claimedTypes.add(type);
+  }
+
+  /**
+   * Releases the claim on the given type, recording the hash of its descriptor if it was sent.
+   *
+   * @return whether a hash was recorded.
+   */
+  private synchronized boolean release(String type, @Nullable String sentHash) {
+    claimedTypes.remove(type);
+    if (sentHash == null) {
+      return false;
+    }
+    sentHashes.put(type, sentHash);
+    version++;
+    return true;
+  }
+
+  private static String hash(MetricDescriptor descriptor) {
+    return Hashing.sha256().hashBytes(descriptor.toByteArray()).toString();
+  }
+
+  private void load() {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      return;
+    } catch (IOException e) {
+      logger.warn("Failed to read sent metric descriptors from {}", file, e);
+      return;
+    }
+    for (String line : lines) {
+      int separator = line.indexOf(' ');
+      if (separator > 0) {
+        sentHashes.put(line.substring(0, separator), line.substring(separator + 1));
+      }
+    }
+  }
+
+  private void store() {
+    Map<String, String> snapshot;
+    long snapshotVersion;
+    synchronized (this) {
+      snapshot = new HashMap<>(sentHashes);
+      snapshotVersion = version;
+    }
+    synchronized (storeLock) {
+      // A concurrent export may have written a later snapshot already.
+      if (snapshotVersion > storedVersion && write(snapshot)) {
+        storedVersion = snapshotVersion;
+      }
+    }
+  }
+
+  /** Writes the given hashes to the file, and returns whether it succeeded. */
+  private boolean write(Map<String, String> hashes) {
+    Path temporaryFile = null;
+    try {
+      Path directory = file.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+          writer.write(entry.getKey());
+          writer.write(' ');
+          writer.write(entry.getValue());
+          writer.newLine();
+        }
+      }
+      try {
+        Files.move(
+            temporaryFile,
+            file,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return true;
+    } catch (IOException e) {
+      logger.warn("Failed to write sent metric descriptors to {}", file, e);
+      if (temporaryFile != null) {
+        try {
+          Files.deleteIfExists(temporaryFile);
+        } catch (IOException ignored) {
+          // Nothing more to do.
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.cloud.opentelemetry.metric.CumulativeAccumulator.ExponentialHistogramState;
+import com.google.cloud.opentelemetry.metric.CumulativeAccumulator.HistogramState;
+import com.google.common.primitives.Longs;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongExemplarData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.PointData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the points of a metric that have the same attributes, as happens once some of their
+ * attributes are dropped, into a single point per set of attributes.
+ *
+ * <p>Sums are added up over the union of the intervals of their points, while gauges keep the
+ * latest value. Histograms are merged bucket by bucket, exponential ones at the highest scale that
+ * fits all of them. Explicit bucket histograms with other boundaries than the first one are
+ * merged into its buckets, each of their buckets into the one that holds its upper bound: counts
+ * and sums stay exact and keep growing across exports, but the distribution is approximated. This
+ * is logged once. The exemplars of all merged points are kept.
+ *
+ * <p>Points are rolled up before delta points are accumulated into cumulative ones by {@link
+ * CumulativeAccumulator}, so rolled up delta points are exact: the accumulated series keeps growing
+ * whichever of its series report. Cumulative points, as exported without delta temporality or by
+ * instruments that stay cumulative, are added up as reported instead. A rolled up cumulative point
+ * then drops when one of the series it adds up stops reporting, and its start time, the earliest
+ * one of these series, changes as they come and go, which Cloud Monitoring takes as a reset.
+ */
+final class PointRollup {
+  private static final Logger logger = LoggerFactory.getLogger(PointRollup.class);
+  private static final AtomicBoolean loggedRebucketing = new AtomicBoolean();
+
+  private PointRollup() {}
+
+  /**
+   * Returns the given points with the ones of equal attributes merged by {@code merge}, in the
+   * order their attributes first appear. The given list is returned as is if no attributes repeat.
+   */
+  static <T extends PointData> List<T> rollUp(List<T> points, Function<List<T>, T> merge) {
+    Map<Attributes, List<T>> pointsByAttributes = new LinkedHashMap<>();
+    for (T point : points) {
+      pointsByAttributes.computeIfAbsent(point.getAttributes(), a -> new ArrayList<>(1)).add(point);
+    }
+    if (pointsByAttributes.size() == points.size()) {
+      return points;
+    }
+    List<T> result = new ArrayList<>(pointsByAttributes.size());
+    for (List<T> group : pointsByAttributes.values()) {
+      result.add(group.size() == 1 ? group.get(0) : merge.apply(group));
+    }
+    return result;
+  }
+
+  static LongPointData sumLongs(List<LongPointData> points) {
+    long value = 0;
+    List<LongExemplarData> exemplars = new ArrayList<>();
+    for (LongPointData point : points) {
+      value += point.getValue();
+      exemplars.addAll(point.getExemplars());
+    }
+    return MetricValues.longPoint(
+        startEpochNanos(points),
+        epochNanos(points),
+        points.get(0).getAttributes(),
+        value,
+        exemplars);
+  }
+
+  static DoublePointData sumDoubles(List<DoublePointData> points) {
+    double value = 0;
+    List<DoubleExemplarData> exemplars = new ArrayList<>();
+    for (DoublePointData point : points) {
+      value += point.getValue();
+      exemplars.addAll(point.getExemplars());
+    }
+    return MetricValues.doublePoint(
+        startEpochNanos(points),
+        epochNanos(points),
+        points.get(0).getAttributes(),
+        value,
+        exemplars);
+  }
+
+  static <T extends PointData> T latest(List<T> points) {
+    T latest = points.get(0);
+    for (T point : points) {
+      if (point.getEpochNanos() >= latest.getEpochNanos()) {
+        latest = point;
+      }
+    }
+    return latest;
+  }
+
+  static HistogramPointData mergeHistograms(List<HistogramPointData> points) {
+    List<Double> boundaries = points.get(0).getBoundaries();
+    HistogramState total = new HistogramState(startEpochNanos(points), boundaries);
+    List<DoubleExemplarData> exemplars = new ArrayList<>();
+    for (HistogramPointData point : points) {
+      if (point.getBoundaries().equals(boundaries)) {
+        total.add(point);
+      } else {
+        if (loggedRebucketing.compareAndSet(false, true)) {
+          logger.warn(
+              "Rolling up histograms with boundaries {} and {} into the former, the distribution "
+                  + "of the rolled up series is approximated.",
+              boundaries,
+              point.getBoundaries());
+        }
+        total.addRebucketed(point);
+      }
+      exemplars.addAll(point.getExemplars());
+    }
+    return MetricValues.histogramPoint(
+        total.startEpochNanos,
+        epochNanos(points),
+        points.get(0).getAttributes(),
+        total.sum,
+        total.hasMin,
+        total.min,
+        total.hasMax,
+        total.max,
+        boundaries,
+        Longs.asList(total.counts),
+        exemplars);
+  }
+
+  static ExponentialHistogramPointData mergeExponentialHistograms(
+      List<ExponentialHistogramPointData> points) {
+    ExponentialHistogramState total =
+        new ExponentialHistogramState(startEpochNanos(points), points.get(0).getScale());
+    List<DoubleExemplarData> exemplars = new ArrayList<>();
+    for (ExponentialHistogramPointData point : points) {
+      total.add(point);
+      exemplars.addAll(point.getExemplars());
+    }
+    return MetricValues.exponentialHistogramPoint(
+        total.scale,
+        total.sum,
+        total.zeroCount,
+        total.hasMin,
+        total.min,
+        total.hasMax,
+        total.max,
+        total.positive.toBuckets(total.scale),
+        total.negative.toBuckets(total.scale),
+        total.startEpochNanos,
+        epochNanos(points),
+        points.get(0).getAttributes(),
+        exemplars);
+  }
+
+  private static long startEpochNanos(List<? extends PointData> points) {
+    long start = Long.MAX_VALUE;
+    for (PointData point : points) {
+      start = Math.min(start, point.getStartEpochNanos());
+    }
+    return start;
+  }
+
+  private static long epochNanos(List<? extends PointData> points) {
+    long end = Long.MIN_VALUE;
+    for (PointData point : points) {
+      end = Math.max(end, point.getEpochNanos());
+    }
+    return end;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.MetricDescriptor;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.monitoring.v3.CreateMetricDescriptorRequest;
+import com.google.monitoring.v3.ProjectName;
+import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.Empty;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloudMetricClient} that retries the asynchronous time series requests of another client
+ * when they fail for a transient reason, as told by {@link TimeSeriesWriteFailures}.
+ *
+ * <p>Retries are spaced by an exponential backoff with full jitter, so that exporters failing at
+ * the same time do not retry in lockstep. A request is given up as soon as its next attempt would
+ * start after the retry timeout, counted from its first attempt, so that it never overlaps with
+ * the next export. Descriptor and synchronous requests are not retried.
+ */
+final class RetryingCloudMetricClient implements CloudMetricClient {
+  private static final Logger logger = LoggerFactory.getLogger(RetryingCloudMetricClient.class);
+
+  static final Duration INITIAL_BACKOFF = Duration.ofMillis(250);
+  static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
+
+  private final CloudMetricClient delegate;
+  private final long timeoutNanos;
+  private final long initialBackoffNanos;
+  private final ScheduledExecutorService scheduler;
+
+  RetryingCloudMetricClient(CloudMetricClient delegate, Duration timeout) {
+    this(delegate, timeout, INITIAL_BACKOFF);
+  }
+
+  RetryingCloudMetricClient(CloudMetricClient delegate, Duration timeout, Duration initialBackoff) {
+    this.delegate = delegate;
+    this.timeoutNanos = timeout.toNanos();
+    this.initialBackoffNanos = initialBackoff.toNanos();
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "gcm-time-series-retry");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @Override
+  public MetricDescriptor createMetricDescriptor(CreateMetricDescriptorRequest request) {
+    return delegate.createMetricDescriptor(request);
+  }
+
+  @Override
+  public void createTimeSeries(ProjectName name, List<TimeSeries> timeSeries) {
+    delegate.createTimeSeries(name, timeSeries);
+  }
+
+  @Override
+  public void createServiceTimeSeries(ProjectName name, List<TimeSeries> timeSeries) {
+    delegate.createServiceTimeSeries(name, timeSeries);
+  }
+
+  @Override
+  public ApiFuture<Empty> createTimeSeriesAsync(ProjectName name, List<TimeSeries> timeSeries) {
+    return withRetries(() -> delegate.createTimeSeriesAsync(name, timeSeries));
+  }
+
+  @Override
+  public ApiFuture<Empty> createServiceTimeSeriesAsync(
+      ProjectName name, List<TimeSeries> timeSeries) {
+    return withRetries(() -> delegate.createServiceTimeSeriesAsync(name, timeSeries));
+  }
+
+  @Override
+  public void shutdown() {
+    scheduler.shutdownNow();
+    delegate.shutdown();
+  }
+
+  private ApiFuture<Empty> withRetries(Supplier<ApiFuture<Empty>> request) {
+    SettableApiFuture<Empty> result = SettableApiFuture.create();
+    attempt(request, result, System.nanoTime() + timeoutNanos, 0);
+    return result;
+  }
+
+  private void attempt(
+      Supplier<ApiFuture<Empty>> request,
+      SettableApiFuture<Empty> result,
+      long deadlineNanos,
+      int retries) {
+    ApiFuture<Empty> future;
+    try {
+      future = request.get();
+    } catch (RuntimeException e) {
+      future = ApiFutures.immediateFailedFuture(e);
+    }
+    ApiFutures.addCallback(
+        future,
+        new ApiFutureCallback<Empty>() {
+          @Override
+          public void onFailure(Throwable t) {
+            long delayNanos = backoffNanos(retries);
+            if (!TimeSeriesWriteFailures.isRetryable(t)
+                || System.nanoTime() + delayNanos > deadlineNanos) {
+              result.setException(t);
+              return;
+            }
+            logger.debug("Retrying time series request in {} ms", delayNanos / 1_000_000, t);
+            try {
+              scheduler.schedule(
+                  () -> attempt(request, result, deadlineNanos, retries + 1),
+                  delayNanos,
+                  TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+              result.setException(t);
+            }
+          }
+
+          @Override
+          public void onSuccess(Empty response) {
+            result.set(response);
+          }
+        },
+        MoreExecutors.directExecutor());
+  }
+
+  /** Returns a random delay of up to the exponential backoff of the given retry. */
+  private long backoffNanos(int retries) {
+    long backoff = Math.min(MAX_BACKOFF.toNanos(), initialBackoffNanos << Math.min(retries, 20));
+    return ThreadLocalRandom.current().nextLong(backoff + 1);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.MetricDescriptor;
+import com.google.common.cache.CacheBuilder;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The {@link MetricDescriptorStrategy#SEND_ONCE} strategy.
+ *
+ * <p>Each metric type is claimed atomically before its descriptor is sent, so concurrent exports
+ * never send the same descriptor twice, and the (blocking) call sending it is made without holding
+ * any lock shared with other exports. A claim is released if sending fails, including when a
+ * descriptor registered asynchronously is dropped or fails for good, so that a later export retries
+ * it.
+ *
+ * <p>The claimed types are bounded by an LRU cache. A type evicted from it is sent again the next
+ * time it is seen, which only costs an extra, idempotent call.
+ */
+final class SendOnceMetricDescriptorStrategy implements MetricDescriptorStrategy {
+  static final long DEFAULT_MAX_SIZE = 10_000;
+
+  private final ConcurrentMap<String, Boolean> sentTypes;
+
+  SendOnceMetricDescriptorStrategy() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  SendOnceMetricDescriptorStrategy(long maxSize) {
+    this.sentTypes =
+        CacheBuilder.newBuilder().maximumSize(maxSize).<String, Boolean>build().asMap();
+  }
+
+  @Override
+  public void exportDescriptors(
+      Iterable<MetricDescriptor> batchDescriptors, Consumer<MetricDescriptor> export) {
+    exportDescriptorsAsync(
+        batchDescriptors,
+        descriptor -> {
+          export.accept(descriptor);
+          return CompletableResultCode.ofSuccess();
+        });
+  }
+
+  @Override
+  public void exportDescriptorsAsync(
+      Iterable<MetricDescriptor> batchDescriptors,
+      Function<MetricDescriptor, CompletableResultCode> export) {
+    for (MetricDescriptor descriptor : batchDescriptors) {
+      String type = descriptor.getType();
+      if (sentTypes.putIfAbsent(type, Boolean.TRUE) == null) {
+        CompletableResultCode result = null;
+        try {
+          result = export.apply(descriptor);
+        } finally {
+          if (result == null) {
+            sentTypes.remove(type);
+          }
+        }
+        CompletableResultCode sent = result;
+        sent.whenComplete(
+            () -> {
+              if (!sent.isSuccess()) {
+                sentTypes.remove(type);
+              }
+            });
+      }
+    }
+  }
+}
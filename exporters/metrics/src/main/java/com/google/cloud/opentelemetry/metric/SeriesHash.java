@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+
+/**
+ * 64-bit hashes identifying a series by its metric name, resource, instrumentation scope and point
+ * attributes.
+ *
+ * <p>These hashes stand in for the series itself in {@link SeriesIndex}, so that the index does not
+ * have to hold on to any objects. With 64 bits, collisions are negligible even for millions of
+ * series.
+ */
+final class SeriesHash {
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private SeriesHash() {}
+
+  /** Hashes the parts of a series shared by all points of the given metric. */
+  static long metricHash(MetricData metric) {
+    long hash = hashString(FNV_OFFSET_BASIS, metric.getName());
+    hash = hashLong(hash, metric.getResource().hashCode());
+    return hashLong(hash, metric.getInstrumentationScopeInfo().hashCode());
+  }
+
+  /** Hashes the series with the given point attributes of the metric hashed to metricHash. */
+  static long seriesHash(long metricHash, Attributes attributes) {
+    long[] hash = {metricHash};
+    attributes.forEach(
+        (key, value) -> {
+          hash[0] = hashString(hash[0], key.getKey());
+          hash[0] = hashValue(hash[0], value);
+        });
+    return mix(hash[0]);
+  }
+
+  /** Combines two values into a well-distributed 64-bit hash. */
+  static long combine(long first, long second) {
+    return mix(hashLong(hashLong(FNV_OFFSET_BASIS, first), second));
+  }
+
+  private static long hashValue(long hash, Object value) {
+    if (value instanceof String) {
+      return hashString(hash, (String) value);
+    } else if (value instanceof Long) {
+      return hashLong(hash, (Long) value);
+    } else if (value instanceof Double) {
+      return hashLong(hash, Double.doubleToLongBits((Double) value));
+    } else if (value instanceof Boolean) {
+      return hashLong(hash, (Boolean) value ? 1 : 0);
+    }
+    // Array attributes are rare, hash them through their string form.
+    return hashString(hash, String.valueOf(value));
+  }
+
+  private static long hashString(long hash, String value) {
+    // Include the length so that adjacent strings cannot run into each other.
+    hash = hashLong(hash, value.length());
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  private static long hashLong(long hash, long value) {
+    return (hash ^ mix(value)) * FNV_PRIME;
+  }
+
+  /** The finalizer of MurmurHash3, which spreads every input bit over the whole hash. */
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
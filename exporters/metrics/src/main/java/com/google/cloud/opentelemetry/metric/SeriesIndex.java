@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+/**
+ * A compact, concurrent table holding a fixed number of {@code long} values per series, keyed by
+ * {@link SeriesHash series hashes}.
+ *
+ * <p>Entries live in primitive arrays, so each series costs a few dozen bytes whatever its number
+ * of attributes. The table is split into independently locked segments. Entries that have not been
+ * touched for the expiry time are dropped whenever a segment needs to grow, and a segment that
+ * would still exceed its share of the maximum size is cleared. Callers must therefore treat the
+ * table as a best-effort memory: a forgotten series simply shows up as a new one.
+ */
+final class SeriesIndex {
+  /** Reads and writes the values of an entry. */
+  interface EntryUpdater {
+    /**
+     * Updates the values of an entry, which are {@code values[offset]} and the ones after it.
+     *
+     * @param values The values of all entries of the segment.
+     * @param offset The index of the first value of the entry.
+     * @param created Whether the entry was just created, in which case its values are all zero.
+     * @return the result passed back to the caller of {@link #update}.
+     */
+    boolean update(long[] values, int offset, boolean created);
+  }
+
+  private static final int SEGMENT_BITS = 4;
+  private static final int INITIAL_CAPACITY = 16;
+  // 0 marks free slots, so the rare series hashed to 0 is stored under this key instead.
+  private static final long ZERO_KEY = 1;
+
+  private final int width;
+  private final long expiryNanos;
+  private final int maxSegmentSize;
+  private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+  /**
+   * Creates an empty index.
+   *
+   * @param width The number of values held per series.
+   * @param maxSize The maximum number of series held.
+   * @param expiryNanos How long entries are kept after they were last touched.
+   */
+  SeriesIndex(int width, long maxSize, long expiryNanos) {
+    this.width = width;
+    this.expiryNanos = expiryNanos;
+    this.maxSegmentSize =
+        (int) Math.max(1, Math.min(Integer.MAX_VALUE / 4, maxSize >> SEGMENT_BITS));
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = new Segment();
+    }
+  }
+
+  /**
+   * Finds or creates the entry of the given series and passes its values to the updater, under
+   * the lock of the entry's segment.
+   *
+   * @param seriesHash The hash of the series.
+   * @param nowNanos The current time, on any clock that the caller uses consistently.
+   * @param updater The code reading and writing the values of the entry.
+   * @return the result of the updater.
+   */
+  boolean update(long seriesHash, long nowNanos, EntryUpdater updater) {
+    long key = seriesHash == 0 ? ZERO_KEY : seriesHash;
+    Segment segment = segments[(int) (key >>> (Long.SIZE - SEGMENT_BITS))];
+    synchronized (segment) {
+      return segment.update(key, nowNanos, updater);
+    }
+  }
+
+  /** Returns the number of series currently held. */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size;
+      }
+    }
+    return size;
+  }
+
+  private final class Segment {
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] touched = new long[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY * width];
+    private int size;
+
+    boolean update(long key, long nowNanos, EntryUpdater updater) {
+      int slot = find(key);
+      boolean created = keys[slot] == 0;
+      if (created) {
+        if (size >= maxSegmentSize || (size + 1) * 4L > keys.length * 3L) {
+          rebuild(nowNanos);
+          slot = find(key);
+        }
+        keys[slot] = key;
+        size++;
+      }
+      touched[slot] = nowNanos;
+      return updater.update(values, slot * width, created);
+    }
+
+    /** Returns the slot holding the key, or the free slot where it belongs. */
+    private int find(long key) {
+      int mask = keys.length - 1;
+      // The top bits picked the segment, so probe from the bottom ones.
+      int slot = (int) key & mask;
+      while (keys[slot] != 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    /** Drops expired entries and resizes the arrays to leave room for as many new ones. */
+    private void rebuild(long nowNanos) {
+      long[] oldKeys = keys;
+      long[] oldTouched = touched;
+      long[] oldValues = values;
+      int live = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0 && nowNanos - oldTouched[i] < expiryNanos) {
+          live++;
+        }
+      }
+      boolean clear = live >= maxSegmentSize;
+      int capacity = INITIAL_CAPACITY;
+      while (!clear && (live * 2L + 1) * 4 > capacity * 3L) {
+        capacity *= 2;
+      }
+      keys = new long[capacity];
+      touched = new long[capacity];
+      values = new long[capacity * width];
+      size = 0;
+      if (clear) {
+        return;
+      }
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0 && nowNanos - oldTouched[i] < expiryNanos) {
+          int slot = find(oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          touched[slot] = oldTouched[i];
+          System.arraycopy(oldValues, i * width, values, slot * width, width);
+          size++;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of time series written per metric, by admitting the first series of each
+ * metric up to the limit. The points of the series that are not admitted are folded into an
+ * overflow series.
+ *
+ * <p>Admitted series keep their slot as long as they are reported. A series that has not been
+ * reported for {@link #DEFAULT_EXPIRY_MINUTES} minutes frees its slot for the next new series, so
+ * that the series left behind by, say, a bad deploy do not hold the slots until a restart. A
+ * series is thus written on its own or folded into the overflow series from one export to the
+ * next, until it is left unreported for that long.
+ *
+ * <p>Series are held as their {@link SeriesHash series hashes} in primitive arrays, and the
+ * metrics that have not been reported for the expiry time are dropped, up to {@link
+ * #DEFAULT_MAX_METRICS} of them being held at once.
+ */
+final class SeriesLimiter {
+  static final long DEFAULT_MAX_METRICS = 2_000;
+  static final long DEFAULT_EXPIRY_MINUTES = 10;
+
+  private static final int INITIAL_CAPACITY = 16;
+  // 0 marks free slots, so the rare series hashed to 0 is stored under this key instead.
+  private static final long ZERO_KEY = 1;
+
+  private final int maxTimeSeriesPerMetric;
+  private final long expiryNanos;
+  // Metric name to its admitted series.
+  private final Cache<String, AdmittedSeries> admittedSeries;
+
+  SeriesLimiter(int maxTimeSeriesPerMetric) {
+    this(maxTimeSeriesPerMetric, TimeUnit.MINUTES.toNanos(DEFAULT_EXPIRY_MINUTES));
+  }
+
+  SeriesLimiter(int maxTimeSeriesPerMetric, long expiryNanos) {
+    this.maxTimeSeriesPerMetric = maxTimeSeriesPerMetric;
+    this.expiryNanos = expiryNanos;
+    this.admittedSeries =
+        CacheBuilder.newBuilder()
+            .maximumSize(DEFAULT_MAX_METRICS)
+            .expireAfterAccess(expiryNanos, TimeUnit.NANOSECONDS)
+            .build();
+  }
+
+  /**
+   * Returns whether the given series of the given metric is written on its own, admitting it if
+   * the metric has fewer live series than the limit.
+   *
+   * @param metricName The name of the metric.
+   * @param seriesHash The {@link SeriesHash#seriesHash hash} of the series.
+   * @param epochNanos The time of the point, which keeps the series alive.
+   */
+  boolean admit(String metricName, long seriesHash, long epochNanos) {
+    AdmittedSeries admitted =
+        admittedSeries.asMap().computeIfAbsent(metricName, name -> new AdmittedSeries());
+    synchronized (admitted) {
+      return admitted.admit(seriesHash == 0 ? ZERO_KEY : seriesHash, epochNanos);
+    }
+  }
+
+  /** An open addressing table of the admitted series of a metric and when they were last seen. */
+  private final class AdmittedSeries {
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] touched = new long[INITIAL_CAPACITY];
+    private int size;
+    // When expired series were last dropped, to do so at most once per tenth of the expiry time.
+    private boolean swept;
+    private long lastSweepNanos;
+
+    boolean admit(long key, long epochNanos) {
+      int slot = find(key);
+      if (keys[slot] != key) {
+        if (size >= maxTimeSeriesPerMetric) {
+          if (swept && epochNanos - lastSweepNanos < expiryNanos / 10) {
+            return false;
+          }
+          swept = true;
+          lastSweepNanos = epochNanos;
+          rebuild(epochNanos, keys.length);
+          if (size >= maxTimeSeriesPerMetric) {
+            return false;
+          }
+        } else if ((size + 1) * 4L > keys.length * 3L) {
+          rebuild(epochNanos, keys.length * 2);
+        }
+        slot = find(key);
+        keys[slot] = key;
+        size++;
+      }
+      touched[slot] = Math.max(touched[slot], epochNanos);
+      return true;
+    }
+
+    /** Returns the slot holding the key, or the free slot where it belongs. */
+    private int find(long key) {
+      int mask = keys.length - 1;
+      int slot = (int) key & mask;
+      while (keys[slot] != 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    /** Drops the expired series, moving the others to arrays of the given capacity. */
+    private void rebuild(long nowNanos, int capacity) {
+      long[] oldKeys = keys;
+      long[] oldTouched = touched;
+      keys = new long[capacity];
+      touched = new long[capacity];
+      size = 0;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0 && nowNanos - oldTouched[i] < expiryNanos) {
+          int slot = find(oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          touched[slot] = oldTouched[i];
+          size++;
+        }
+      }
+    }
+  }
+}
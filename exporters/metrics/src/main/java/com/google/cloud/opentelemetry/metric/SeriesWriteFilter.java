@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import java.time.Duration;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * Decides which points are worth writing, based on the last point written to their series.
+ *
+ * <ul>
+ *   <li>Cloud Monitoring rejects points written to the same time series more often than its
+ *       minimum write interval, so points of series written less than a minimum interval ago are
+ *       skipped.
+ *   <li>Optionally, points of cumulative series whose value did not change since the last write are
+ *       skipped too, until a heartbeat interval has passed since that write.
+ * </ul>
+ *
+ * <p>The time and a fingerprint of the value of the last written point of each series are held in
+ * a {@link SeriesIndex}. Entries older than both intervals can no longer cause a point to be
+ * skipped and are evicted.
+ *
+ * <p>Points are recorded as written when they are admitted, so that an export still in flight keeps
+ * the next one from writing the same series too soon. The writes of an export that fails are
+ * rolled back through its {@link Journal}.
+ */
+final class SeriesWriteFilter {
+  static final long DEFAULT_MAX_SIZE = 1_000_000;
+
+  private final long minimumWriteIntervalNanos;
+  private final long unchangedSeriesHeartbeatNanos;
+  // How long after a write it can no longer cause a point to be skipped.
+  private final long retentionNanos;
+  private final SeriesIndex lastWrites;
+
+  /**
+   * Creates a filter.
+   *
+   * @param minimumWriteInterval The minimum interval between two written points of a series, or
+   *     zero to disable it.
+   * @param unchangedSeriesHeartbeat The interval after which unchanged cumulative series are
+   *     written again, or zero to always write them.
+   */
+  SeriesWriteFilter(Duration minimumWriteInterval, Duration unchangedSeriesHeartbeat) {
+    this(minimumWriteInterval, unchangedSeriesHeartbeat, DEFAULT_MAX_SIZE);
+  }
+
+  SeriesWriteFilter(
+      Duration minimumWriteInterval, Duration unchangedSeriesHeartbeat, long maxSize) {
+    this.minimumWriteIntervalNanos = minimumWriteInterval.toNanos();
+    this.unchangedSeriesHeartbeatNanos = unchangedSeriesHeartbeat.toNanos();
+    this.retentionNanos = Math.max(minimumWriteIntervalNanos, unchangedSeriesHeartbeatNanos);
+    this.lastWrites = new SeriesIndex(2, maxSize, retentionNanos);
+  }
+
+  /** Returns an empty journal, to record the writes of one export in. */
+  Journal newJournal() {
+    return new Journal();
+  }
+
+  /** Returns whether unchanged cumulative series are skipped, i.e. fingerprints are needed. */
+  boolean skipsUnchangedSeries() {
+    return unchangedSeriesHeartbeatNanos > 0;
+  }
+
+  /**
+   * Returns whether a point of the given series should be written, and if so, records it as the
+   * last write of the series.
+   *
+   * @param seriesHash The {@link SeriesHash#seriesHash hash} of the series.
+   * @param epochNanos The time of the point.
+   * @param cumulative Whether the series is cumulative and may be skipped when unchanged.
+   * @param fingerprint The fingerprint of the value of the point, only used if cumulative.
+   * @return true if the point should be written, false if it should be skipped.
+   */
+  boolean shouldWrite(long seriesHash, long epochNanos, boolean cumulative, long fingerprint) {
+    return shouldWrite(seriesHash, epochNanos, cumulative, fingerprint, null);
+  }
+
+  /**
+   * Same as {@link #shouldWrite(long, long, boolean, long)}, also adding the recorded write to the
+   * given journal.
+   */
+  boolean shouldWrite(
+      long seriesHash,
+      long epochNanos,
+      boolean cumulative,
+      long fingerprint,
+      @Nullable Journal journal) {
+    boolean compareFingerprints = cumulative && skipsUnchangedSeries();
+    return lastWrites.update(
+        seriesHash,
+        epochNanos,
+        (values, offset, created) -> {
+          if (!created) {
+            long sinceLastWrite = epochNanos - values[offset];
+            if (sinceLastWrite < minimumWriteIntervalNanos) {
+              return false;
+            }
+            if (compareFingerprints
+                && values[offset + 1] == fingerprint
+                && sinceLastWrite < unchangedSeriesHeartbeatNanos) {
+              return false;
+            }
+          }
+          if (journal != null) {
+            // A series without a last write is restored to one that skips no point.
+            journal.add(
+                seriesHash,
+                epochNanos,
+                fingerprint,
+                created ? epochNanos - retentionNanos : values[offset],
+                created ? 0 : values[offset + 1]);
+          }
+          values[offset] = epochNanos;
+          values[offset + 1] = fingerprint;
+          return true;
+        });
+  }
+
+  /** The writes recorded for the points of one export, to roll back if the export fails. */
+  final class Journal {
+    // Per write: the series hash, the time and fingerprint of the recorded point, and the time and
+    // fingerprint of the last write it replaced.
+    private static final int WIDTH = 5;
+
+    private long[] writes = new long[WIDTH * 16];
+    private int size;
+
+    private Journal() {}
+
+    private synchronized void add(
+        long seriesHash,
+        long epochNanos,
+        long fingerprint,
+        long previousEpochNanos,
+        long previousFingerprint) {
+      if (size == writes.length) {
+        writes = Arrays.copyOf(writes, 2 * writes.length);
+      }
+      writes[size] = seriesHash;
+      writes[size + 1] = epochNanos;
+      writes[size + 2] = fingerprint;
+      writes[size + 3] = previousEpochNanos;
+      writes[size + 4] = previousFingerprint;
+      size += WIDTH;
+    }
+
+    /**
+     * Restores the last writes that the recorded ones replaced, so that the points of the next
+     * export are not skipped for points that were never written. Series written again since are
+     * left alone.
+     */
+    synchronized void rollBack() {
+      for (int i = 0; i < size; i += WIDTH) {
+        long epochNanos = writes[i + 1];
+        long fingerprint = writes[i + 2];
+        long previousEpochNanos = writes[i + 3];
+        long previousFingerprint = writes[i + 4];
+        lastWrites.update(
+            writes[i],
+            epochNanos,
+            (values, offset, created) -> {
+              if (!created && values[offset] == epochNanos && values[offset + 1] == fingerprint) {
+                values[offset] = previousEpochNanos;
+                values[offset + 1] = previousFingerprint;
+              }
+              return true;
+            });
+      }
+      size = 0;
+    }
+  }
+
+  // The start time is part of every fingerprint, so that a reset is never taken for no change.
+
+  static long fingerprint(LongPointData point) {
+    return SeriesHash.combine(point.getStartEpochNanos(), point.getValue());
+  }
+
+  static long fingerprint(DoublePointData point) {
+    return SeriesHash.combine(
+        point.getStartEpochNanos(), Double.doubleToLongBits(point.getValue()));
+  }
+
+  // A cumulative histogram only changes if new values were recorded, i.e. if its count changed.
+
+  static long fingerprint(HistogramPointData point) {
+    return SeriesHash.combine(point.getStartEpochNanos(), point.getCount());
+  }
+
+  static long fingerprint(ExponentialHistogramPointData point) {
+    return SeriesHash.combine(point.getStartEpochNanos(), point.getCount());
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.AggregateByLabelMetricTimeSeriesBuilder.LABEL_INSTRUMENTATION_SOURCE;
+import static com.google.cloud.opentelemetry.metric.AggregateByLabelMetricTimeSeriesBuilder.LABEL_INSTRUMENTATION_VERSION;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Caches the labels that are shared by all points of a {@link Resource} or of an {@link
+ * InstrumentationScopeInfo}, and merges them into the attributes of each point.
+ *
+ * <p>The SDK hands the same resource and scope instances to every export, so entries are keyed by
+ * identity and only weakly referenced. The cache is meant to be shared by all export cycles of an
+ * exporter.
+ */
+final class SharedLabelsCache {
+  static final int DEFAULT_MAX_SIZE = 1024;
+
+  private static final AttributeKey<String> INSTRUMENTATION_SOURCE_KEY =
+      AttributeKey.stringKey(LABEL_INSTRUMENTATION_SOURCE);
+  private static final AttributeKey<String> INSTRUMENTATION_VERSION_KEY =
+      AttributeKey.stringKey(LABEL_INSTRUMENTATION_VERSION);
+
+  private final Predicate<AttributeKey<?>> resourceAttributeFilter;
+  private final boolean instrumentationLibraryLabelsEnabled;
+  // weakKeys() makes both caches compare keys by identity.
+  private final Cache<Resource, Attributes> resourceLabels =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(DEFAULT_MAX_SIZE).build();
+  private final Cache<InstrumentationScopeInfo, Attributes> scopeLabels =
+      CacheBuilder.newBuilder().weakKeys().maximumSize(DEFAULT_MAX_SIZE).build();
+
+  SharedLabelsCache(
+      Predicate<AttributeKey<?>> resourceAttributeFilter,
+      boolean instrumentationLibraryLabelsEnabled) {
+    this.resourceAttributeFilter = resourceAttributeFilter;
+    this.instrumentationLibraryLabelsEnabled = instrumentationLibraryLabelsEnabled;
+  }
+
+  /** Returns the resource attributes that pass the resource attribute filter. */
+  Attributes getResourceLabels(Resource resource) {
+    Attributes labels = resourceLabels.getIfPresent(resource);
+    if (labels == null) {
+      AttributesBuilder attrBuilder = resource.getAttributes().toBuilder();
+      attrBuilder.removeIf(resourceAttributeFilter.negate());
+      labels = attrBuilder.build();
+      resourceLabels.put(resource, labels);
+    }
+    return labels;
+  }
+
+  /**
+   * Returns the instrumentation library labels of the given scope, or empty attributes if they are
+   * disabled.
+   */
+  Attributes getScopeLabels(InstrumentationScopeInfo instrumentationScopeInfo) {
+    if (!instrumentationLibraryLabelsEnabled) {
+      return Attributes.empty();
+    }
+    Attributes labels = scopeLabels.getIfPresent(instrumentationScopeInfo);
+    if (labels == null) {
+      labels =
+          Attributes.of(
+              INSTRUMENTATION_SOURCE_KEY,
+              instrumentationScopeInfo.getName(),
+              INSTRUMENTATION_VERSION_KEY,
+              Optional.ofNullable(instrumentationScopeInfo.getVersion()).orElse(""));
+      scopeLabels.put(instrumentationScopeInfo, labels);
+    }
+    return labels;
+  }
+
+  /**
+   * Merges the point attributes with the scope and resource labels. Scope labels take precedence
+   * over point attributes, and resource labels take precedence over both.
+   */
+  static Attributes mergeLabels(
+      Attributes pointAttributes, Attributes scopeLabels, Attributes resourceLabels) {
+    if (scopeLabels.isEmpty() && resourceLabels.isEmpty()) {
+      return pointAttributes;
+    }
+    return pointAttributes.toBuilder().putAll(scopeLabels).putAll(resourceLabels).build();
+  }
+}
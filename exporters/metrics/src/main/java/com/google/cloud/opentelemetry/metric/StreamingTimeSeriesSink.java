@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.MetricDescriptor;
+import com.google.monitoring.v3.TimeSeries;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * Builds time series from the recorded points like {@link AggregateByLabelMetricTimeSeriesBuilder},
+ * but hands batches of them to a consumer as soon as they are full, instead of holding every time
+ * series of an export until the end.
+ *
+ * <p>The time series of a metric are built once the points of the next metric are recorded, and
+ * added to the batch of their project. Only the points of a single metric, one partial batch per
+ * project and the overflow series are held at any time, and requests are sent while later metrics
+ * are still being translated. Overflow series are only built by {@link #finish()}, as points may
+ * fold into them until the end.
+ *
+ * <p>Further points of a series, whether it was built already or not, make up the following waves
+ * of time series, returned by {@link #getFollowingWaves()}: a built series may still be waiting in
+ * a partial batch.
+ */
+final class StreamingTimeSeriesSink implements PointRecorder {
+  private final AggregateByLabelMetricTimeSeriesBuilder delegate;
+  private final TimeSeriesBatcher batcher;
+  // Receives the ID of the destination project and a full batch of its time series.
+  private final BiConsumer<String, List<TimeSeries>> consumer;
+  private final Map<String, TimeSeriesBatcher.Accumulator> accumulators = new HashMap<>();
+  @Nullable private MetricData currentMetric;
+  private int timeSeriesCount;
+  private List<Map<String, List<TimeSeries>>> followingWaves = Collections.emptyList();
+
+  StreamingTimeSeriesSink(
+      AggregateByLabelMetricTimeSeriesBuilder delegate,
+      TimeSeriesBatcher batcher,
+      BiConsumer<String, List<TimeSeries>> consumer) {
+    this.delegate = delegate;
+    this.batcher = batcher;
+    this.consumer = consumer;
+  }
+
+  @Override
+  public void recordPoint(MetricData metric, LongPointData point) {
+    startMetric(metric);
+    delegate.recordPoint(metric, point);
+  }
+
+  @Override
+  public void recordPoint(MetricData metric, DoublePointData point) {
+    startMetric(metric);
+    delegate.recordPoint(metric, point);
+  }
+
+  @Override
+  public void recordPoint(MetricData metric, HistogramPointData point) {
+    startMetric(metric);
+    delegate.recordPoint(metric, point);
+  }
+
+  @Override
+  public void recordPoint(MetricData metric, ExponentialHistogramPointData point) {
+    startMetric(metric);
+    delegate.recordPoint(metric, point);
+  }
+
+  private void startMetric(MetricData metric) {
+    if (metric != currentMetric) {
+      accumulate(delegate.drainTimeSeriesByProject(false));
+      currentMetric = metric;
+    }
+  }
+
+  /**
+   * Builds the remaining time series, hands all partial batches to the consumer, and builds the
+   * following waves.
+   */
+  void finish() {
+    accumulate(delegate.drainTimeSeriesByProject(true));
+    accumulators.values().forEach(TimeSeriesBatcher.Accumulator::flush);
+    currentMetric = null;
+    followingWaves = delegate.getTimeSeriesWaves();
+    for (Map<String, List<TimeSeries>> wave : followingWaves) {
+      wave.values().forEach(timeSeries -> timeSeriesCount += timeSeries.size());
+    }
+  }
+
+  private void accumulate(Map<String, List<TimeSeries>> timeSeriesByProject) {
+    timeSeriesByProject.forEach(
+        (project, timeSeries) -> {
+          TimeSeriesBatcher.Accumulator accumulator =
+              accumulators.computeIfAbsent(
+                  project, p -> batcher.newAccumulator(batch -> consumer.accept(p, batch)));
+          timeSeries.forEach(accumulator::add);
+          timeSeriesCount += timeSeries.size();
+        });
+  }
+
+  /** Returns the descriptors of the metrics recorded so far. */
+  Collection<MetricDescriptor> getDescriptors() {
+    return delegate.getDescriptors();
+  }
+
+  /**
+   * Returns the waves of time series to send once all batches handed to the consumer have been,
+   * as built by {@link AggregateByLabelMetricTimeSeriesBuilder#getTimeSeriesWaves()}. Empty until
+   * {@link #finish()} is called.
+   */
+  List<Map<String, List<TimeSeries>>> getFollowingWaves() {
+    return followingWaves;
+  }
+
+  /**
+   * Returns the number of time series handed to the consumer so far, or held in its batches and
+   * following waves.
+   */
+  int getTimeSeriesCount() {
+    return timeSeriesCount;
+  }
+
+  /** Returns the number of points folded into overflow series by this builder. */
+  int getOverflowPointCount() {
+    return delegate.getOverflowPointCount();
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.monitoring.v3.TimeSeries;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends batches of {@link TimeSeries} to Cloud Monitoring while keeping at most a configured
+ * number of requests in flight.
+ *
+ * <p>Requests are issued asynchronously: a new batch is only sent when a previous request
+ * completes, so the calling thread never waits on the network.
+ *
+ * <p>Every time series holds a single point. The points written and dropped are counted exactly,
+ * including those of requests that Cloud Monitoring only partially rejected.
+ */
+final class TimeSeriesBatchDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(TimeSeriesBatchDispatcher.class);
+
+  private final int maxConcurrentRequests;
+  private final AtomicLong writtenPoints = new AtomicLong();
+  private final AtomicLong droppedPoints = new AtomicLong();
+
+  TimeSeriesBatchDispatcher(int maxConcurrentRequests) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  /**
+   * Sends every batch using the given sender.
+   *
+   * @param batches The batches of time series to send.
+   * @param sender Issues the request for a single batch and returns its pending result.
+   * @return A result that completes once every batch has been attempted. It fails if any batch
+   *     could not be sent.
+   */
+  CompletableResultCode dispatch(
+      List<List<TimeSeries>> batches, Function<List<TimeSeries>, ApiFuture<?>> sender) {
+    if (batches.isEmpty()) {
+      return CompletableResultCode.ofSuccess();
+    }
+    Dispatch dispatch = start(sender);
+    batches.forEach(dispatch::add);
+    return dispatch.close();
+  }
+
+  /**
+   * Starts a dispatch to which batches are added as they become ready, e.g. while the following
+   * ones are still being built.
+   *
+   * @param sender Issues the request for a single batch and returns its pending result.
+   * @return The dispatch, which must be closed once all its batches have been added.
+   */
+  Dispatch start(Function<List<TimeSeries>, ApiFuture<?>> sender) {
+    return new Dispatch(sender);
+  }
+
+  /** Returns the number of points written by all dispatches so far. */
+  long getWrittenPointCount() {
+    return writtenPoints.get();
+  }
+
+  /** Returns the number of points that all dispatches so far failed to write. */
+  long getDroppedPointCount() {
+    return droppedPoints.get();
+  }
+
+  /** The batches sent by a single call to {@link #dispatch(List, Function)} or {@link #start}. */
+  final class Dispatch {
+    private final Queue<List<TimeSeries>> pending = new ConcurrentLinkedQueue<>();
+    private final Function<List<TimeSeries>, ApiFuture<?>> sender;
+    private final CompletableResultCode result = new CompletableResultCode();
+    // The batches added but not completed yet, plus one until the dispatch is closed.
+    private final AtomicInteger remaining = new AtomicInteger(1);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Number of outstanding drain requests. Only the caller that moves it away from zero drains,
+    // which keeps requests that complete synchronously from recursing into drain().
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private final AtomicInteger dispatchedPoints = new AtomicInteger();
+    private final AtomicInteger dispatchDroppedPoints = new AtomicInteger();
+    private volatile boolean failed;
+
+    private Dispatch(Function<List<TimeSeries>, ApiFuture<?>> sender) {
+      this.sender = sender;
+    }
+
+    /** Sends the given batch once fewer than the maximum number of requests are in flight. */
+    void add(List<TimeSeries> batch) {
+      remaining.incrementAndGet();
+      pending.add(batch);
+      drain();
+    }
+
+    /**
+     * Marks the end of the batches of this dispatch.
+     *
+     * @return A result that completes once every batch has been attempted. It fails if any batch
+     *     could not be sent.
+     */
+    CompletableResultCode close() {
+      onCompleted();
+      return result;
+    }
+
+    private void drain() {
+      if (drainRequests.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        while (inFlight.get() < maxConcurrentRequests) {
+          List<TimeSeries> batch = pending.poll();
+          if (batch == null) {
+            break;
+          }
+          inFlight.incrementAndGet();
+          send(batch);
+        }
+      } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private void send(List<TimeSeries> batch) {
+      ApiFuture<?> future;
+      try {
+        future = sender.apply(batch);
+      } catch (RuntimeException e) {
+        future = ApiFutures.immediateFailedFuture(e);
+      }
+      ApiFutures.addCallback(
+          future,
+          new ApiFutureCallback<Object>() {
+            @Override
+            public void onFailure(Throwable t) {
+              logger.warn("Failed to send a batch of {} time series", batch.size(), t);
+              failed = true;
+              int written = Math.min(batch.size(), TimeSeriesWriteFailures.getWrittenPointCount(t));
+              onBatchCompleted(written, batch.size() - written);
+            }
+
+            @Override
+            public void onSuccess(Object response) {
+              onBatchCompleted(batch.size(), 0);
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    private void onBatchCompleted(int written, int dropped) {
+      writtenPoints.addAndGet(written);
+      droppedPoints.addAndGet(dropped);
+      dispatchedPoints.addAndGet(written + dropped);
+      dispatchDroppedPoints.addAndGet(dropped);
+      inFlight.decrementAndGet();
+      onCompleted();
+    }
+
+    private void onCompleted() {
+      if (remaining.decrementAndGet() == 0) {
+        if (failed) {
+          logger.warn(
+              "Failed to write {} of {} points",
+              dispatchDroppedPoints.get(),
+              dispatchedPoints.get());
+          result.fail();
+        } else {
+          result.succeed();
+        }
+      } else {
+        drain();
+      }
+    }
+  }
+}
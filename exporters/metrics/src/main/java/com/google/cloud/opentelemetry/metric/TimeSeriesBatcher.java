@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.monitoring.v3.CreateTimeSeriesRequest;
+import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.CodedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Splits time series into the batches sent by each request, bounded both by a number of series and
+ * by their serialized size.
+ *
+ * <p>The size bound adapts to the observed latency of requests, in the manner of TCP congestion
+ * control: it is halved whenever a request takes longer than {@link #TARGET_LATENCY_NANOS}, and
+ * grows back by a quarter whenever one completes in less than half of it, up to the configured
+ * maximum. Small series thus still share large requests, while requests slowed down by the size of
+ * their payload get smaller.
+ */
+final class TimeSeriesBatcher {
+  static final long TARGET_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+  static final int MIN_BATCH_BYTES = 64 * 1024;
+
+  private final int maxBatchSize;
+  private final int maxBatchBytes;
+  private volatile int batchBytes;
+
+  /**
+   * Creates a batcher.
+   *
+   * @param maxBatchSize The maximum number of time series in a batch.
+   * @param maxBatchBytes The maximum serialized size of a batch, which is also its initial size.
+   */
+  TimeSeriesBatcher(int maxBatchSize, int maxBatchBytes) {
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchBytes = maxBatchBytes;
+    this.batchBytes = maxBatchBytes;
+  }
+
+  /**
+   * Splits the given time series into batches. A single time series larger than the size bound
+   * makes up a batch of its own.
+   */
+  List<List<TimeSeries>> partition(List<TimeSeries> timeSeries) {
+    List<List<TimeSeries>> batches = new ArrayList<>();
+    Accumulator accumulator = newAccumulator(batches::add);
+    timeSeries.forEach(accumulator::add);
+    accumulator.flush();
+    return batches;
+  }
+
+  /**
+   * Returns an accumulator that fills batches with the time series added to it, and hands each
+   * batch to the given consumer as soon as it is full.
+   */
+  Accumulator newAccumulator(Consumer<List<TimeSeries>> consumer) {
+    return new Accumulator(consumer);
+  }
+
+  /** Adapts the size bound of batches to the latency of a completed request. */
+  void onRequestCompleted(long latencyNanos) {
+    // Races between concurrent requests only lose an adjustment, which the next request makes up.
+    int bytes = batchBytes;
+    if (latencyNanos > TARGET_LATENCY_NANOS) {
+      batchBytes = Math.max(Math.min(MIN_BATCH_BYTES, maxBatchBytes), bytes / 2);
+    } else if (latencyNanos < TARGET_LATENCY_NANOS / 2 && bytes < maxBatchBytes) {
+      batchBytes = (int) Math.min(maxBatchBytes, bytes + bytes / 4L);
+    }
+  }
+
+  /** Returns the current size bound of batches. */
+  int getBatchBytes() {
+    return batchBytes;
+  }
+
+  /**
+   * Fills batches one time series at a time. Each batch is bounded by the size bound of batches
+   * when it is started, so that batches follow the latency of the requests completed meanwhile.
+   */
+  final class Accumulator {
+    private final Consumer<List<TimeSeries>> consumer;
+    private List<TimeSeries> batch = new ArrayList<>();
+    private long bytes;
+    private int bytesBound;
+
+    private Accumulator(Consumer<List<TimeSeries>> consumer) {
+      this.consumer = consumer;
+    }
+
+    void add(TimeSeries series) {
+      int size = serializedSizeInRequest(series);
+      if (!batch.isEmpty() && bytes + size > bytesBound) {
+        flush();
+      }
+      if (batch.isEmpty()) {
+        bytesBound = batchBytes;
+      }
+      batch.add(series);
+      bytes += size;
+      if (batch.size() >= maxBatchSize || bytes >= bytesBound) {
+        flush();
+      }
+    }
+
+    /** Hands the batch being filled to the consumer, unless it is empty. */
+    void flush() {
+      if (!batch.isEmpty()) {
+        consumer.accept(batch);
+        batch = new ArrayList<>();
+        bytes = 0;
+      }
+    }
+  }
+
+  private static int serializedSizeInRequest(TimeSeries series) {
+    // The repeated field of CreateTimeSeriesRequest adds a tag and a length to each series.
+    return CodedOutputStream.computeMessageSize(
+        CreateTimeSeriesRequest.TIME_SERIES_FIELD_NUMBER, series);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.MetricTranslator.mapMetric;
+
+import com.google.api.MetricDescriptor;
+import com.google.api.MonitoredResource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.monitoring.v3.TimeSeries;
+import io.opentelemetry.api.common.Attributes;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of {@link TimeSeries} headers, i.e. time series holding the metric, metric kind and
+ * monitored resource but no points.
+ *
+ * <p>Cumulative series show up in every export with identical headers, so the headers are kept
+ * across export cycles and each export only attaches its new points to them. Series that have not
+ * been exported for {@link #DEFAULT_EXPIRY_MINUTES} minutes are evicted.
+ */
+final class TimeSeriesHeaderCache {
+  static final long DEFAULT_MAX_SIZE = 50_000;
+  static final long DEFAULT_EXPIRY_MINUTES = 10;
+
+  private final Cache<MetricWithLabels, TimeSeries> headers;
+
+  TimeSeriesHeaderCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  TimeSeriesHeaderCache(long maxSize) {
+    this.headers =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(DEFAULT_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+  }
+
+  /**
+   * Returns the header of the series identified by the given key, building it if it is not cached
+   * or if the cached header no longer matches the descriptor or monitored resource.
+   *
+   * @param key The series key, made of the metric type and the metric attributes.
+   * @param attributes The metric attributes, used to build the metric labels.
+   * @param descriptor The descriptor of the metric.
+   * @param monitoredResource The monitored resource the series is written against.
+   * @return the header of the series.
+   */
+  TimeSeries getHeader(
+      MetricWithLabels key,
+      Attributes attributes,
+      MetricDescriptor descriptor,
+      MonitoredResource monitoredResource) {
+    TimeSeries header = headers.getIfPresent(key);
+    if (header == null
+        || header.getMetricKind() != descriptor.getMetricKind()
+        || !header.getResource().equals(monitoredResource)) {
+      header =
+          TimeSeries.newBuilder()
+              .setMetric(mapMetric(attributes, descriptor.getType()))
+              .setMetricKind(descriptor.getMetricKind())
+              .setResource(monitoredResource)
+              .build();
+      headers.put(key, header);
+    }
+    return header;
+  }
+}
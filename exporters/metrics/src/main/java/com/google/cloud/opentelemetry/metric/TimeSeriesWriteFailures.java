@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ErrorDetails;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.monitoring.v3.CreateTimeSeriesError;
+import com.google.monitoring.v3.CreateTimeSeriesSummary;
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.rpc.Code;
+import javax.annotation.Nullable;
+
+/**
+ * Interprets the failures of {@code CreateTimeSeries} requests.
+ *
+ * <p>When only some points of a request cannot be written, Cloud Monitoring fails the request with
+ * a {@link CreateTimeSeriesSummary} among the error details, which counts the written points and
+ * the failed ones by error status. The summary does not tell which series failed, so a request is
+ * only worth retrying if none of its points were written and all of them failed for a transient
+ * reason.
+ *
+ * <p>Only the statuses returned before any point is written are transient here: {@code
+ * UNAVAILABLE} and {@code RESOURCE_EXHAUSTED}. After {@code DEADLINE_EXCEEDED}, {@code ABORTED} or
+ * {@code INTERNAL}, the points may have been written, and sending them again would fail them as
+ * duplicates.
+ */
+final class TimeSeriesWriteFailures {
+  private TimeSeriesWriteFailures() {}
+
+  /** Returns the summary of the failed request, or null if the failure does not carry one. */
+  @Nullable
+  static CreateTimeSeriesSummary getSummary(Throwable failure) {
+    ApiException exception = findApiException(failure);
+    if (exception == null) {
+      return null;
+    }
+    ErrorDetails details = exception.getErrorDetails();
+    if (details == null) {
+      return null;
+    }
+    for (Any detail : details.getRawErrorMessages()) {
+      if (detail.is(CreateTimeSeriesSummary.class)) {
+        try {
+          return detail.unpack(CreateTimeSeriesSummary.class);
+        } catch (InvalidProtocolBufferException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the number of points of the failed request that were written anyway.
+   *
+   * @param failure The failure of the request.
+   * @return the number of written points, 0 if the failure does not tell.
+   */
+  static int getWrittenPointCount(Throwable failure) {
+    CreateTimeSeriesSummary summary = getSummary(failure);
+    return summary == null ? 0 : summary.getSuccessPointCount();
+  }
+
+  /** Returns whether the whole failed request can be sent again. */
+  static boolean isRetryable(Throwable failure) {
+    ApiException exception = findApiException(failure);
+    if (exception == null || !isRetryable(exception.getStatusCode().getCode())) {
+      return false;
+    }
+    CreateTimeSeriesSummary summary = getSummary(exception);
+    if (summary == null) {
+      return true;
+    }
+    if (summary.getSuccessPointCount() > 0) {
+      // Sending the written points again would fail them as duplicates.
+      return false;
+    }
+    for (CreateTimeSeriesError error : summary.getErrorsList()) {
+      Code code = Code.forNumber(error.getStatus().getCode());
+      if (code == null || !isRetryable(StatusCode.Code.valueOf(code.name()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isRetryable(StatusCode.Code code) {
+    switch (code) {
+      case UNAVAILABLE:
+      case RESOURCE_EXHAUSTED:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Nullable
+  private static ApiException findApiException(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ApiException) {
+        return (ApiException) cause;
+      }
+    }
+    return null;
+  }
+}
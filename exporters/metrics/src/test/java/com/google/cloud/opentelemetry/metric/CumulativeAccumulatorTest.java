@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
+import static com.google.cloud.opentelemetry.metric.FakeData.aHistogramPoint;
+import static com.google.cloud.opentelemetry.metric.FakeData.aLongPoint;
+import static com.google.cloud.opentelemetry.metric.FakeData.aMetricData;
+import static com.google.cloud.opentelemetry.metric.FakeData.anExponentialHistogramPoint;
+import static com.google.cloud.opentelemetry.metric.FakeData.anInstrumentationLibraryInfo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.common.collect.ImmutableList;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CumulativeAccumulatorTest {
+
+  @Test
+  public void testCumulativeMetricsArePassedThrough() {
+    CumulativeAccumulator accumulator = new CumulativeAccumulator();
+
+    assertSame(aMetricData, accumulator.accumulate(ImmutableList.of(aMetricData)).get(0));
+  }
+
+  @Test
+  public void testDeltaSumsAreAccumulated() {
+    CumulativeAccumulator accumulator = new CumulativeAccumulator();
+    LongPointData nextPoint =
+        ImmutableLongPointData.create(
+            aLongPoint.getEpochNanos(),
+            aLongPoint.getEpochNanos() + 10,
+            aLongPoint.getAttributes(),
+            8L);
+
+    accumulator.accumulate(ImmutableList.of(deltaSum(aLongPoint)));
+    MetricData result = accumulator.accumulate(ImmutableList.of(deltaSum(nextPoint))).get(0);
+
+    assertEquals(
+        AggregationTemporality.CUMULATIVE, result.getLongSumData().getAggregationTemporality());
+    LongPointData point = result.getLongSumData().getPoints().iterator().next();
+    assertEquals(40L, point.getValue());
+    assertEquals(aLongPoint.getStartEpochNanos(), point.getStartEpochNanos());
+    assertEquals(nextPoint.getEpochNanos(), point.getEpochNanos());
+  }
+
+  @Test
+  public void testDeltaHistogramsAreAccumulated() {
+    CumulativeAccumulator accumulator = new CumulativeAccumulator();
+
+    accumulator.accumulate(ImmutableList.of(deltaHistogram(aHistogramPoint)));
+    MetricData result =
+        accumulator.accumulate(ImmutableList.of(deltaHistogram(aHistogramPoint))).get(0);
+
+    HistogramPointData point = result.getHistogramData().getPoints().iterator().next();
+    assertEquals(Arrays.asList(2L, 4L), point.getCounts());
+    assertEquals(6L, point.getCount());
+    assertEquals(6d, point.getSum(), 0);
+    assertEquals(1d, point.getMin(), 0);
+    assertEquals(2d, point.getMax(), 0);
+  }
+
+  @Test
+  public void testHistogramRestartsWhenBoundariesChange() {
+    CumulativeAccumulator accumulator = new CumulativeAccumulator();
+    HistogramPointData rebucketed =
+        ImmutableHistogramPointData.create(
+            aHistogramPoint.getEpochNanos(),
+            aHistogramPoint.getEpochNanos() + 1,
+            aHistogramPoint.getAttributes(),
+            3d,
+            false,
+            0,
+            false,
+            0,
+            Arrays.asList(1.0, 5.0),
+            Arrays.asList(1L, 1L, 0L),
+            Collections.emptyList());
+
+    accumulator.accumulate(ImmutableList.of(deltaHistogram(aHistogramPoint)));
+    MetricData result = accumulator.accumulate(ImmutableList.of(deltaHistogram(rebucketed))).get(0);
+
+    HistogramPointData point = result.getHistogramData().getPoints().iterator().next();
+    assertEquals(Arrays.asList(1L, 1L, 0L), point.getCounts());
+    assertEquals(rebucketed.getStartEpochNanos(), point.getStartEpochNanos());
+  }
+
+  @Test
+  public void testDeltaExponentialHistogramsAreMergedAtTheLowerScale() {
+    CumulativeAccumulator accumulator = new CumulativeAccumulator();
+    // A single bucket (2, 4] at scale 0, which spans the first two buckets of the first point.
+    ExponentialHistogramPointData coarser =
+        ImmutableExponentialHistogramPointData.create(
+            0,
+            10d,
+            0,
+            false,
+            0,
+            false,
+            0,
+            ImmutableExponentialHistogramBuckets.create(0, 1, Arrays.asList(4L)),
+            ImmutableExponentialHistogramBuckets.create(0, 0, Collections.emptyList()),
+            anExponentialHistogramPoint.getEpochNanos(),
+            anExponentialHistogramPoint.getEpochNanos() + 1,
+            anExponentialHistogramPoint.getAttributes(),
+            Collections.emptyList());
+
+    accumulator.accumulate(
+        ImmutableList.of(deltaExponentialHistogram(anExponentialHistogramPoint)));
+    MetricData result =
+        accumulator.accumulate(ImmutableList.of(deltaExponentialHistogram(coarser))).get(0);
+
+    ExponentialHistogramPointData point =
+        result.getExponentialHistogramData().getPoints().iterator().next();
+    assertEquals(0, point.getScale());
+    assertEquals(1, point.getPositiveBuckets().getOffset());
+    assertEquals(Arrays.asList(9L, 1L), point.getPositiveBuckets().getBucketCounts());
+    assertEquals(Arrays.asList(1L), point.getNegativeBuckets().getBucketCounts());
+    assertEquals(1, point.getZeroCount());
+    assertEquals(30d, point.getSum(), 0);
+    assertEquals(anExponentialHistogramPoint.getStartEpochNanos(), point.getStartEpochNanos());
+  }
+
+  private static MetricData deltaSum(LongPointData point) {
+    return ImmutableMetricData.createLongSum(
+        aGceResource,
+        anInstrumentationLibraryInfo,
+        "opentelemetry/name",
+        "description",
+        "ns",
+        ImmutableSumData.create(true, AggregationTemporality.DELTA, ImmutableList.of(point)));
+  }
+
+  private static MetricData deltaHistogram(HistogramPointData point) {
+    return ImmutableMetricData.createDoubleHistogram(
+        aGceResource,
+        anInstrumentationLibraryInfo,
+        "histogram",
+        "description",
+        "ms",
+        ImmutableHistogramData.create(AggregationTemporality.DELTA, ImmutableList.of(point)));
+  }
+
+  private static MetricData deltaExponentialHistogram(ExponentialHistogramPointData point) {
+    return ImmutableMetricData.createExponentialHistogram(
+        aGceResource,
+        anInstrumentationLibraryInfo,
+        "exponential_histogram",
+        "description",
+        "ms",
+        ImmutableExponentialHistogramData.create(
+            AggregationTemporality.DELTA, ImmutableList.of(point)));
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.MetricDescriptor;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DescriptorRegistrarTest {
+  private static final MetricDescriptor DESCRIPTOR =
+      MetricDescriptor.newBuilder().setType("custom/test").build();
+
+  @Test
+  public void testFailedRegistrationsAreRetried() throws InterruptedException {
+    AtomicInteger attempts = new AtomicInteger();
+    CountDownLatch registered = new CountDownLatch(1);
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("unavailable");
+              }
+              registered.countDown();
+            },
+            Duration.ofMillis(1));
+
+    registrar.register(DESCRIPTOR);
+
+    assertTrue(registered.await(10, TimeUnit.SECONDS));
+    assertEquals(3, attempts.get());
+    registrar.shutdown();
+  }
+
+  @Test
+  public void testRegistrationFailsAfterMaxAttempts() {
+    AtomicInteger attempts = new AtomicInteger();
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              attempts.incrementAndGet();
+              throw new IllegalStateException("unavailable");
+            },
+            Duration.ofMillis(1));
+
+    CompletableResultCode result = registrar.register(DESCRIPTOR);
+
+    assertFalse(result.join(10, TimeUnit.SECONDS).isSuccess());
+    assertEquals(DescriptorRegistrar.MAX_ATTEMPTS, attempts.get());
+    registrar.shutdown();
+  }
+
+  @Test
+  public void testRegistrationFailsWhenTooManyArePending() {
+    CountDownLatch release = new CountDownLatch(1);
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    for (int i = 0; i < DescriptorRegistrar.MAX_PENDING; i++) {
+      registrar.register(MetricDescriptor.newBuilder().setType("custom/test" + i).build());
+    }
+
+    CompletableResultCode dropped = registrar.register(DESCRIPTOR);
+
+    assertTrue(dropped.isDone());
+    assertFalse(dropped.isSuccess());
+    release.countDown();
+    registrar.shutdown();
+  }
+
+  @Test
+  public void testPendingDescriptorsAreNotQueuedAgain() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger attempts = new AtomicInteger();
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              attempts.incrementAndGet();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    registrar.register(DESCRIPTOR);
+    registrar.register(DESCRIPTOR);
+    CompletableResultCode done =
+        registrar.awaitRegistration(Collections.singleton(DESCRIPTOR), Duration.ofMinutes(1));
+    release.countDown();
+
+    assertTrue(done.join(10, TimeUnit.SECONDS).isSuccess());
+    assertEquals(1, attempts.get());
+    registrar.shutdown();
+  }
+
+  @Test
+  public void testAwaitRegistrationTimesOut() {
+    CountDownLatch release = new CountDownLatch(1);
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    registrar.register(DESCRIPTOR);
+    CompletableResultCode done =
+        registrar.awaitRegistration(Collections.singleton(DESCRIPTOR), Duration.ofMillis(10));
+
+    // The registration is still blocked, yet the wait is over.
+    assertTrue(done.join(10, TimeUnit.SECONDS).isSuccess());
+    release.countDown();
+    registrar.shutdown();
+  }
+
+  @Test
+  public void testAwaitRegistrationWithoutWaitCompletesImmediately() {
+    CountDownLatch release = new CountDownLatch(1);
+    DescriptorRegistrar registrar =
+        new DescriptorRegistrar(
+            descriptor -> {
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    registrar.register(DESCRIPTOR);
+
+    assertTrue(
+        registrar.awaitRegistration(Collections.singleton(DESCRIPTOR), Duration.ZERO).isDone());
+    assertFalse(
+        registrar
+            .awaitRegistration(Collections.singleton(DESCRIPTOR), Duration.ofMinutes(1))
+            .isDone());
+    release.countDown();
+    registrar.shutdown();
+  }
+}
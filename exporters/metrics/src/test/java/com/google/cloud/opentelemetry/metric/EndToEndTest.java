@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import com.google.common.collect.ImmutableList;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -68,7 +69,8 @@ public class EndToEndTest {
                 .setDescriptorStrategy(MetricDescriptorStrategy.ALWAYS_SEND)
                 .setProjectId(aProjectId)
                 .build());
-    assertTrue(exporter.export(ImmutableList.of(aMetricData)).isSuccess());
+    assertTrue(
+        exporter.export(ImmutableList.of(aMetricData)).join(10, TimeUnit.SECONDS).isSuccess());
   }
 
   @Test
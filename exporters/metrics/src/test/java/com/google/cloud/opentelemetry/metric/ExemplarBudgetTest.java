@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.sdk.metrics.data.DoubleExemplarData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoubleExemplarData;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ExemplarBudgetTest {
+  private static final DoubleExemplarData OLD_LARGE = exemplar(1, 30.0);
+  private static final DoubleExemplarData MIDDLE_SMALL = exemplar(2, 10.0);
+  private static final DoubleExemplarData RECENT_MEDIUM = exemplar(3, 20.0);
+  private static final List<DoubleExemplarData> EXEMPLARS =
+      Arrays.asList(OLD_LARGE, MIDDLE_SMALL, RECENT_MEDIUM);
+
+  @Test
+  public void testUnlimitedBudgetKeepsAllExemplars() {
+    for (int i = 0; i < 10; i++) {
+      assertSame(EXEMPLARS, ExemplarBudget.UNLIMITED.select(EXEMPLARS));
+    }
+  }
+
+  @Test
+  public void testKeepsMostRecentExemplarsOfPoint() {
+    ExemplarBudget budget = new ExemplarBudget(2, 0, ExemplarSelection.MOST_RECENT);
+
+    assertEquals(Arrays.asList(RECENT_MEDIUM, MIDDLE_SMALL), budget.select(EXEMPLARS));
+  }
+
+  @Test
+  public void testKeepsLargestExemplarsOfPoint() {
+    ExemplarBudget budget = new ExemplarBudget(2, 0, ExemplarSelection.MAX_VALUE);
+
+    assertEquals(Arrays.asList(OLD_LARGE, RECENT_MEDIUM), budget.select(EXEMPLARS));
+  }
+
+  @Test
+  public void testStopsAttachingExemplarsOnceExportBudgetIsSpent() {
+    ExemplarBudget budget = new ExemplarBudget(2, 3, ExemplarSelection.MAX_VALUE);
+
+    assertEquals(2, budget.select(EXEMPLARS).size());
+    assertEquals(Arrays.asList(OLD_LARGE), budget.select(EXEMPLARS));
+    assertTrue(budget.select(EXEMPLARS).isEmpty());
+  }
+
+  private static DoubleExemplarData exemplar(long epochNanos, double value) {
+    return ImmutableDoubleExemplarData.create(
+        Attributes.empty(), epochNanos, SpanContext.getInvalid(), value);
+  }
+}
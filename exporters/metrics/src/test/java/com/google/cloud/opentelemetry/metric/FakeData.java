@@ -29,12 +29,16 @@ import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
 import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.SummaryPointData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoubleExemplarData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoublePointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramPointData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramPointData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
@@ -195,4 +199,31 @@ public class FakeData {
           "ms",
           ImmutableHistogramData.create(
               AggregationTemporality.CUMULATIVE, ImmutableList.of(aHistogramPoint)));
+
+  static final ExponentialHistogramPointData anExponentialHistogramPoint =
+      ImmutableExponentialHistogramPointData.create(
+          1, // scale, i.e. buckets grow by a factor of sqrt(2)
+          20d,
+          1, // zero count
+          true,
+          -1d, // min
+          true,
+          4d, // max
+          // Buckets (2, 2.83], (2.83, 4] and (4, 5.66].
+          ImmutableExponentialHistogramBuckets.create(1, 2, Arrays.asList(2L, 3L, 1L)),
+          ImmutableExponentialHistogramBuckets.create(1, 0, Arrays.asList(1L)),
+          0,
+          1,
+          Attributes.builder().put("test", "one").build(),
+          Collections.emptyList());
+
+  static final MetricData anExponentialHistogram =
+      ImmutableMetricData.createExponentialHistogram(
+          aGceResource,
+          anInstrumentationLibraryInfo,
+          "exponential_histogram",
+          "description",
+          "ms",
+          ImmutableExponentialHistogramData.create(
+              AggregationTemporality.CUMULATIVE, ImmutableList.of(anExponentialHistogramPoint)));
 }
@@ -43,6 +43,7 @@ import static com.google.cloud.opentelemetry.metric.MetricTranslator.METRIC_DESC
 import static com.google.cloud.opentelemetry.metric.MetricTranslator.NANO_PER_SECOND;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -62,13 +63,17 @@ import com.google.api.Metric;
 import com.google.api.MetricDescriptor;
 import com.google.api.MetricDescriptor.MetricKind;
 import com.google.api.MonitoredResource;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.rpc.UnaryCallable;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.ServiceOptions;
 import com.google.cloud.monitoring.v3.MetricServiceClient;
 import com.google.cloud.monitoring.v3.MetricServiceSettings;
 import com.google.common.collect.ImmutableList;
 import com.google.monitoring.v3.CreateMetricDescriptorRequest;
+import com.google.monitoring.v3.CreateTimeSeriesRequest;
 import com.google.monitoring.v3.DroppedLabels;
 import com.google.monitoring.v3.Point;
 import com.google.monitoring.v3.ProjectName;
@@ -77,20 +82,32 @@ import com.google.monitoring.v3.TimeInterval;
 import com.google.monitoring.v3.TimeSeries;
 import com.google.monitoring.v3.TypedValue;
 import com.google.protobuf.Any;
+import com.google.protobuf.Empty;
 import com.google.protobuf.Timestamp;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -99,6 +116,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -120,9 +138,24 @@ public class GoogleCloudMetricExporterTest {
 
   @Captor private ArgumentCaptor<ProjectName> projectNameArgCaptor;
 
+  @Mock private UnaryCallable<CreateTimeSeriesRequest, Empty> mockCreateTimeSeriesCallable;
+
+  @Captor private ArgumentCaptor<CreateTimeSeriesRequest> createTimeSeriesRequestCaptor;
+
   @Before
   public void setUp() {
     when(mockClient.createMetricDescriptor(any())).thenReturn(null);
+    // The exporter writes through the asynchronous methods, whose default implementations delegate
+    // to the synchronous ones verified by these tests.
+    when(mockClient.createTimeSeriesAsync(any(), any())).thenCallRealMethod();
+    when(mockClient.createServiceTimeSeriesAsync(any(), any())).thenCallRealMethod();
+  }
+
+  private void stubCreateTimeSeriesCallable() {
+    when(mockMetricServiceClient.createTimeSeriesCallable())
+        .thenReturn(mockCreateTimeSeriesCallable);
+    when(mockCreateTimeSeriesCallable.futureCall(any()))
+        .thenReturn(ApiFutures.immediateFuture(Empty.getDefaultInstance()));
   }
 
   @Test
@@ -164,6 +197,7 @@ public class GoogleCloudMetricExporterTest {
       mockedServiceClientClass
           .when(() -> MetricServiceClient.create(eq(configuration.getMetricServiceSettings())))
           .thenReturn(mockMetricServiceClient);
+      stubCreateTimeSeriesCallable();
 
       MetricExporter exporter = InternalMetricExporter.createWithConfiguration(configuration);
       assertNotNull(exporter);
@@ -179,8 +213,12 @@ public class GoogleCloudMetricExporterTest {
 
       // verify that the CreateTimeseries call was invoked on the client generated from the supplied
       // MetricServiceSettings object
-      verify(mockMetricServiceClient, times(1))
-          .createTimeSeries(projectNameArgCaptor.capture(), timeSeriesArgCaptor.capture());
+      verify(mockMetricServiceClient, times(1)).createTimeSeriesCallable();
+      verify(mockCreateTimeSeriesCallable, times(1))
+          .futureCall(createTimeSeriesRequestCaptor.capture());
+      assertEquals(
+          ProjectName.of(aProjectId).toString(),
+          createTimeSeriesRequestCaptor.getValue().getName());
     }
   }
 
@@ -211,6 +249,53 @@ public class GoogleCloudMetricExporterTest {
     assertFalse(configuration.getUseServiceTimeSeries());
   }
 
+  @Test
+  public void testDescriptorDoesNotDependOnFirstPoint() {
+    LongPointData get =
+        ImmutableLongPointData.create(
+            aLongPoint.getStartEpochNanos(),
+            aLongPoint.getEpochNanos(),
+            Attributes.of(AttributeKey.stringKey("method"), "GET"),
+            1);
+    LongPointData error =
+        ImmutableLongPointData.create(
+            aLongPoint.getStartEpochNanos(),
+            aLongPoint.getEpochNanos(),
+            Attributes.of(
+                AttributeKey.stringKey("method"), "POST", AttributeKey.stringKey("error"), "x"),
+            2);
+
+    // Two exporters, as before and after a restart, seeing the points in different orders.
+    for (List<LongPointData> points :
+        Arrays.asList(Arrays.asList(get, error), Arrays.asList(error, get))) {
+      MetricExporter exporter =
+          InternalMetricExporter.createWithClient(
+              mockClient,
+              MetricConfiguration.builder()
+                  .setProjectId(aProjectId)
+                  .setDescriptorStrategy(MetricDescriptorStrategy.ALWAYS_SEND)
+                  .build());
+      MetricData metric =
+          ImmutableMetricData.createLongSum(
+              aGceResource,
+              anInstrumentationLibraryInfo,
+              "opentelemetry/name",
+              "description",
+              "ns",
+              ImmutableSumData.create(true, AggregationTemporality.CUMULATIVE, points));
+      assertTrue(exporter.export(ImmutableList.of(metric)).isSuccess());
+    }
+
+    verify(mockClient, times(2)).createMetricDescriptor(metricDescriptorCaptor.capture());
+    MetricDescriptor first = metricDescriptorCaptor.getAllValues().get(0).getMetricDescriptor();
+    MetricDescriptor second = metricDescriptorCaptor.getAllValues().get(1).getMetricDescriptor();
+    assertEquals(first, second);
+    Set<String> labelKeys =
+        first.getLabelsList().stream().map(LabelDescriptor::getKey).collect(Collectors.toSet());
+    assertTrue(labelKeys.contains("method"));
+    assertTrue(labelKeys.contains("error"));
+  }
+
   @Test
   public void testExportSendsAllDescriptorsOnce() {
     MetricExporter exporter =
@@ -806,6 +891,7 @@ public class GoogleCloudMetricExporterTest {
       mockedMetricServiceClient
           .when(() -> MetricServiceClient.create(Mockito.any(MetricServiceSettings.class)))
           .thenReturn(this.mockMetricServiceClient);
+      stubCreateTimeSeriesCallable();
       mockedGoogleCredentials
           .when(GoogleCredentials::getApplicationDefault)
           .thenReturn(Mockito.mock(GoogleCredentials.class));
@@ -819,8 +905,8 @@ public class GoogleCloudMetricExporterTest {
           () -> MetricServiceClient.create((MetricServiceSettings) Mockito.any()),
           Mockito.times(1));
       mockedServiceOptions.verify(ServiceOptions::getDefaultProjectId, Mockito.times(1));
-      Mockito.verify(this.mockMetricServiceClient)
-          .createTimeSeries((ProjectName) Mockito.any(), Mockito.anyList());
+      Mockito.verify(this.mockCreateTimeSeriesCallable)
+          .futureCall(Mockito.any(CreateTimeSeriesRequest.class));
     } finally {
       GlobalOpenTelemetry.resetForTest();
     }
@@ -868,6 +954,560 @@ public class GoogleCloudMetricExporterTest {
     assertTrue(result.isSuccess());
   }
 
+  @Test
+  public void testExportWithDeltaTemporalityAccumulatesPoints() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setDeltaTemporalityEnabled(true)
+                .build());
+    MetricData deltaSum =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/name",
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true, AggregationTemporality.DELTA, ImmutableList.of(aLongPoint)));
+
+    assertEquals(
+        AggregationTemporality.DELTA, exporter.getAggregationTemporality(InstrumentType.COUNTER));
+    assertTrue(exporter.export(ImmutableList.of(deltaSum)).isSuccess());
+    assertTrue(exporter.export(ImmutableList.of(deltaSum)).isSuccess());
+
+    verify(mockClient, times(2))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<ArrayList<TimeSeries>> requests = timeSeriesArgCaptor.getAllValues();
+    assertEquals(32L, requests.get(0).get(0).getPoints(0).getValue().getInt64Value());
+    assertEquals(64L, requests.get(1).get(0).getPoints(0).getValue().getInt64Value());
+    assertEquals(MetricKind.CUMULATIVE, requests.get(1).get(0).getMetricKind());
+  }
+
+  @Test
+  public void testExportRollsUpDeltaPointsBeforeAccumulatingThem() {
+    MetricExporter exporter = createRollupExporter(true);
+    long start = aLongPoint.getStartEpochNanos();
+    long end = aLongPoint.getEpochNanos();
+
+    assertTrue(
+        exporter
+            .export(
+                ImmutableList.of(
+                    rollupSum(
+                        AggregationTemporality.DELTA,
+                        requestPoint(start, end, "request-1", 3),
+                        requestPoint(start, end, "request-2", 4))))
+            .isSuccess());
+    // request-2 stops reporting: the accumulated series keeps growing from the same start.
+    assertTrue(
+        exporter
+            .export(
+                ImmutableList.of(
+                    rollupSum(
+                        AggregationTemporality.DELTA,
+                        requestPoint(end, end + 60 * NANO_PER_SECOND, "request-1", 5))))
+            .isSuccess());
+
+    verify(mockClient, times(2))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<ArrayList<TimeSeries>> requests = timeSeriesArgCaptor.getAllValues();
+    Point first = requests.get(0).get(0).getPoints(0);
+    Point second = requests.get(1).get(0).getPoints(0);
+    assertEquals(7L, first.getValue().getInt64Value());
+    assertEquals(12L, second.getValue().getInt64Value());
+    assertEquals(first.getInterval().getStartTime(), second.getInterval().getStartTime());
+  }
+
+  @Test
+  public void testExportRollsUpCumulativePointsAsReported() {
+    MetricExporter exporter = createRollupExporter(false);
+    long start = aLongPoint.getStartEpochNanos();
+    long end = aLongPoint.getEpochNanos();
+
+    assertTrue(
+        exporter
+            .export(
+                ImmutableList.of(
+                    rollupSum(
+                        AggregationTemporality.CUMULATIVE,
+                        requestPoint(start, end, "request-1", 3),
+                        requestPoint(start - NANO_PER_SECOND, end, "request-2", 4))))
+            .isSuccess());
+    // request-2 stops reporting: the rolled up point drops and starts later, as after a reset.
+    assertTrue(
+        exporter
+            .export(
+                ImmutableList.of(
+                    rollupSum(
+                        AggregationTemporality.CUMULATIVE,
+                        requestPoint(start, end + 60 * NANO_PER_SECOND, "request-1", 5))))
+            .isSuccess());
+
+    verify(mockClient, times(2))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<ArrayList<TimeSeries>> requests = timeSeriesArgCaptor.getAllValues();
+    Point first = requests.get(0).get(0).getPoints(0);
+    Point second = requests.get(1).get(0).getPoints(0);
+    assertEquals(7L, first.getValue().getInt64Value());
+    assertEquals(5L, second.getValue().getInt64Value());
+    assertNotEquals(first.getInterval().getStartTime(), second.getInterval().getStartTime());
+  }
+
+  private MetricExporter createRollupExporter(boolean deltaTemporalityEnabled) {
+    return InternalMetricExporter.createWithClient(
+        mockClient,
+        MetricConfiguration.builder()
+            .setProjectId(aProjectId)
+            .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+            .setDeltaTemporalityEnabled(deltaTemporalityEnabled)
+            .setDroppedAttributeKeys(
+                Collections.singletonMap(
+                    "opentelemetry/*", Collections.singleton("request_id")))
+            .build());
+  }
+
+  private static LongPointData requestPoint(
+      long startEpochNanos, long epochNanos, String requestId, long value) {
+    return ImmutableLongPointData.create(
+        startEpochNanos,
+        epochNanos,
+        Attributes.of(AttributeKey.stringKey("request_id"), requestId),
+        value);
+  }
+
+  private static MetricData rollupSum(
+      AggregationTemporality temporality, LongPointData... points) {
+    return ImmutableMetricData.createLongSum(
+        aGceResource,
+        anInstrumentationLibraryInfo,
+        "opentelemetry/name",
+        "description",
+        "ns",
+        ImmutableSumData.create(true, temporality, Arrays.asList(points)));
+  }
+
+  @Test
+  public void testExportSkipsSeriesWrittenWithinMinimumWriteInterval() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setMinimumWriteInterval(java.time.Duration.ofSeconds(10))
+                .build());
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData)).isSuccess());
+    // The same point again is within the interval, the throttled export still succeeds.
+    assertTrue(exporter.export(ImmutableList.of(aMetricData)).isSuccess());
+
+    verify(mockClient, times(1)).createTimeSeries(any(ProjectName.class), any());
+  }
+
+  @Test
+  public void testExportSkipsUnchangedCumulativeSeries() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setUnchangedSeriesHeartbeat(java.time.Duration.ofMinutes(10))
+                .build());
+    MetricData later =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/name",
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true,
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    ImmutableLongPointData.create(
+                        aLongPoint.getStartEpochNanos(),
+                        aLongPoint.getEpochNanos() + 60 * NANO_PER_SECOND,
+                        aLongPoint.getAttributes(),
+                        aLongPoint.getValue()))));
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData)).isSuccess());
+    assertTrue(exporter.export(ImmutableList.of(later)).isSuccess());
+
+    verify(mockClient, times(1)).createTimeSeries(any(ProjectName.class), any());
+  }
+
+  @Test
+  public void testExportFoldsSeriesOverLimitIntoOverflowSeries() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setInstrumentationLibraryLabelsEnabled(false)
+                .setMaxTimeSeriesPerMetric(1)
+                .build());
+    AttributeKey<String> requestId = AttributeKey.stringKey("request_id");
+    List<LongPointData> points = new ArrayList<>();
+    for (long i = 1; i <= 3; i++) {
+      points.add(
+          ImmutableLongPointData.create(
+              aLongPoint.getStartEpochNanos(),
+              aLongPoint.getEpochNanos(),
+              Attributes.of(requestId, "request-" + i),
+              i));
+    }
+    MetricData metric =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/name",
+            "description",
+            "ns",
+            ImmutableSumData.create(true, AggregationTemporality.CUMULATIVE, points));
+
+    assertTrue(exporter.export(ImmutableList.of(metric)).isSuccess());
+
+    verify(mockClient, times(1))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<TimeSeries> timeSeries = timeSeriesArgCaptor.getValue();
+    assertEquals(2, timeSeries.size());
+    for (TimeSeries series : timeSeries) {
+      if (series.getMetric().getLabelsMap().containsKey("otel_metric_overflow")) {
+        assertEquals(5L, series.getPoints(0).getValue().getInt64Value());
+      } else {
+        assertEquals("request-1", series.getMetric().getLabelsMap().get("request_id"));
+        assertEquals(1L, series.getPoints(0).getValue().getInt64Value());
+      }
+    }
+  }
+
+  @Test
+  public void testExportKeepsAdmittedSeriesAcrossExports() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setInstrumentationLibraryLabelsEnabled(false)
+                .setMaxTimeSeriesPerMetric(1)
+                .build());
+    AttributeKey<String> requestId = AttributeKey.stringKey("request_id");
+
+    assertTrue(exporter.export(ImmutableList.of(aLongSum(requestId, "request-1"))).isSuccess());
+    // Later exports only fold the series of this metric that were never admitted.
+    assertTrue(
+        exporter
+            .export(ImmutableList.of(aLongSum(requestId, "request-2", "request-1")))
+            .isSuccess());
+
+    verify(mockClient, times(2))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<TimeSeries> timeSeries = timeSeriesArgCaptor.getValue();
+    assertEquals(2, timeSeries.size());
+    for (TimeSeries series : timeSeries) {
+      if (series.getMetric().getLabelsMap().containsKey("otel_metric_overflow")) {
+        assertEquals(1L, series.getPoints(0).getValue().getInt64Value());
+      } else {
+        assertEquals("request-1", series.getMetric().getLabelsMap().get("request_id"));
+        assertEquals(2L, series.getPoints(0).getValue().getInt64Value());
+      }
+    }
+  }
+
+  @Test
+  public void testExportNeverSkipsPointsFoldedIntoOverflowSeries() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setInstrumentationLibraryLabelsEnabled(false)
+                .setUnchangedSeriesHeartbeat(java.time.Duration.ofMinutes(10))
+                .setMaxTimeSeriesPerMetric(1)
+                .build());
+    AttributeKey<String> requestId = AttributeKey.stringKey("request_id");
+    MetricData metric = aLongSum(requestId, "request-1", "request-2", "request-3");
+
+    assertTrue(exporter.export(ImmutableList.of(metric)).isSuccess());
+    // The admitted series is unchanged and skipped, the overflow series still adds up the others.
+    assertTrue(exporter.export(ImmutableList.of(metric)).isSuccess());
+
+    verify(mockClient, times(2))
+        .createTimeSeries(any(ProjectName.class), timeSeriesArgCaptor.capture());
+    List<TimeSeries> timeSeries = timeSeriesArgCaptor.getValue();
+    assertEquals(1, timeSeries.size());
+    assertEquals(
+        "true", timeSeries.get(0).getMetric().getLabelsMap().get("otel_metric_overflow"));
+    assertEquals(5L, timeSeries.get(0).getPoints(0).getValue().getInt64Value());
+  }
+
+  // A cumulative sum with a series per given request ID, the value of the i-th series being i.
+  private static MetricData aLongSum(AttributeKey<String> requestId, String... requestIds) {
+    List<LongPointData> points = new ArrayList<>();
+    for (int i = 0; i < requestIds.length; i++) {
+      points.add(
+          ImmutableLongPointData.create(
+              aLongPoint.getStartEpochNanos(),
+              aLongPoint.getEpochNanos(),
+              Attributes.of(requestId, requestIds[i]),
+              i + 1));
+    }
+    return ImmutableMetricData.createLongSum(
+        aGceResource,
+        anInstrumentationLibraryInfo,
+        "opentelemetry/name",
+        "description",
+        "ns",
+        ImmutableSumData.create(true, AggregationTemporality.CUMULATIVE, points));
+  }
+
+  @Test
+  public void testExportRoutesTimeSeriesToProjectsByAttribute() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setProjectIdAttributeKey("tenant_project")
+                .build());
+    MetricData metric =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/name",
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true,
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    aLongPoint,
+                    ImmutableLongPointData.create(
+                        aLongPoint.getStartEpochNanos(),
+                        aLongPoint.getEpochNanos(),
+                        Attributes.of(AttributeKey.stringKey("tenant_project"), "tenant-project"),
+                        aLongPoint.getValue()))));
+
+    assertTrue(exporter.export(ImmutableList.of(metric)).isSuccess());
+
+    verify(mockClient, times(1)).createTimeSeries(eq(ProjectName.of(aProjectId)), any());
+    verify(mockClient, times(1)).createTimeSeries(eq(ProjectName.of("tenant-project")), any());
+  }
+
+  @Test
+  public void testExportAppliesMetricAndAttributeRules() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setDroppedMetrics(Collections.singletonList("hist*"))
+                .setDroppedAttributeKeys(
+                    Collections.singletonMap("opentelemetry/*", Collections.singleton("label2")))
+                .build());
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData, aHistogram)).isSuccess());
+
+    verify(mockClient, times(1))
+        .createTimeSeries(eq(ProjectName.of(aProjectId)), timeSeriesArgCaptor.capture());
+    List<TimeSeries> timeSeries = timeSeriesArgCaptor.getValue();
+    assertEquals(1, timeSeries.size());
+    Map<String, String> labels = timeSeries.get(0).getMetric().getLabelsMap();
+    assertEquals("value1", labels.get("label1"));
+    assertFalse(labels.containsKey("label2"));
+  }
+
+  @Test
+  public void testStreamingExportSendsEachBatchOnceFull() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.ALWAYS_SEND)
+                .setMaxTimeSeriesPerRequest(1)
+                .setStreamingExportEnabled(true)
+                .build());
+    MetricData otherMetric =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/other",
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true, AggregationTemporality.CUMULATIVE, ImmutableList.of(aLongPoint)));
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData, otherMetric)).isSuccess());
+
+    // The batch of the first metric is sent before the second metric is translated.
+    InOrder inOrder = Mockito.inOrder(mockClient);
+    inOrder.verify(mockClient).createMetricDescriptor(metricDescriptorCaptor.capture());
+    inOrder.verify(mockClient).createTimeSeries(any(), timeSeriesArgCaptor.capture());
+    inOrder.verify(mockClient).createMetricDescriptor(metricDescriptorCaptor.capture());
+    inOrder.verify(mockClient).createTimeSeries(any(), timeSeriesArgCaptor.capture());
+    assertEquals(
+        DEFAULT_PREFIX + "/" + aMetricData.getName(),
+        metricDescriptorCaptor.getAllValues().get(0).getMetricDescriptor().getType());
+    assertEquals(
+        DEFAULT_PREFIX + "/" + aMetricData.getName(),
+        timeSeriesArgCaptor.getAllValues().get(0).get(0).getMetric().getType());
+    assertEquals(
+        DEFAULT_PREFIX + "/" + otherMetric.getName(),
+        timeSeriesArgCaptor.getAllValues().get(1).get(0).getMetric().getType());
+  }
+
+  @Test
+  public void testStreamingExportSendsCollidingMetricsInSequentialWaves() {
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .setInstrumentationLibraryLabelsEnabled(false)
+                .setStreamingExportEnabled(true)
+                .build());
+    // Without instrumentation scope labels, both metrics map to the same time series.
+    MetricData otherScope =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            InstrumentationScopeInfo.create("other"),
+            aMetricData.getName(),
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true, AggregationTemporality.CUMULATIVE, ImmutableList.of(aLongPoint)));
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData, otherScope)).isSuccess());
+
+    verify(mockClient, times(2)).createTimeSeries(any(), timeSeriesArgCaptor.capture());
+    List<ArrayList<TimeSeries>> requests = timeSeriesArgCaptor.getAllValues();
+    assertEquals(1, requests.get(0).size());
+    assertEquals(1, requests.get(1).size());
+    assertEquals(requests.get(0).get(0).getMetric(), requests.get(1).get(0).getMetric());
+  }
+
+  @Test
+  public void testExportSendsPointsOfTheSameSeriesInSequentialWaves() {
+    SettableApiFuture<Empty> firstWave = SettableApiFuture.create();
+    SettableApiFuture<Empty> secondWave = SettableApiFuture.create();
+    when(mockClient.createTimeSeriesAsync(any(), any())).thenReturn(firstWave, secondWave);
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.NEVER_SEND)
+                .build());
+    // Both points map to the same time series.
+    MetricData metric =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "opentelemetry/name",
+            "description",
+            "ns",
+            ImmutableSumData.create(
+                true,
+                AggregationTemporality.CUMULATIVE,
+                ImmutableList.of(
+                    aLongPoint,
+                    ImmutableLongPointData.create(
+                        aLongPoint.getStartEpochNanos(),
+                        aLongPoint.getEpochNanos(),
+                        aLongPoint.getAttributes(),
+                        aLongPoint.getValue() + 1))));
+
+    CompletableResultCode result = exporter.export(ImmutableList.of(metric));
+
+    // The second wave is only sent once the first one has completed.
+    verify(mockClient, times(1)).createTimeSeriesAsync(any(), any());
+    firstWave.set(Empty.getDefaultInstance());
+    verify(mockClient, times(2)).createTimeSeriesAsync(any(), timeSeriesArgCaptor.capture());
+    secondWave.set(Empty.getDefaultInstance());
+    assertTrue(result.isSuccess());
+    List<ArrayList<TimeSeries>> requests = timeSeriesArgCaptor.getAllValues();
+    assertEquals(1, requests.get(0).size());
+    assertEquals(1, requests.get(0).get(0).getPointsCount());
+    assertEquals(1, requests.get(1).size());
+    assertEquals(1, requests.get(1).get(0).getPointsCount());
+    assertEquals(requests.get(0).get(0).getMetric(), requests.get(1).get(0).getMetric());
+  }
+
+  @Test
+  public void testExportReportsSelfObservabilityMetrics() {
+    InMemoryMetricReader reader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(reader).build();
+    MetricExporter exporter =
+        InternalMetricExporter.createWithClient(
+            mockClient,
+            MetricConfiguration.builder()
+                .setProjectId(aProjectId)
+                .setDescriptorStrategy(MetricDescriptorStrategy.ALWAYS_SEND)
+                .setMeterProvider(meterProvider)
+                .build());
+
+    assertTrue(exporter.export(ImmutableList.of(aMetricData)).isSuccess());
+
+    Map<String, MetricData> selfMetrics =
+        reader.collectAllMetrics().stream()
+            .collect(Collectors.toMap(MetricData::getName, metric -> metric));
+    assertEquals(
+        1,
+        selfMetrics
+            .get("gcp.metric_exporter.translation.duration")
+            .getHistogramData()
+            .getPoints()
+            .iterator()
+            .next()
+            .getCount());
+    assertEquals(
+        1,
+        selfMetrics
+            .get("gcp.metric_exporter.export.time_series")
+            .getHistogramData()
+            .getPoints()
+            .iterator()
+            .next()
+            .getSum(),
+        0);
+    assertEquals(
+        Attributes.of(ExporterInstruments.RESULT_KEY, "success"),
+        selfMetrics
+            .get("gcp.metric_exporter.request.duration")
+            .getHistogramData()
+            .getPoints()
+            .iterator()
+            .next()
+            .getAttributes());
+    assertEquals(
+        Attributes.of(ExporterInstruments.RESULT_KEY, "success"),
+        selfMetrics
+            .get("gcp.metric_exporter.descriptor.requests")
+            .getLongSumData()
+            .getPoints()
+            .iterator()
+            .next()
+            .getAttributes());
+    for (LongPointData point :
+        selfMetrics.get("gcp.metric_exporter.points").getLongSumData().getPoints()) {
+      String result = point.getAttributes().get(ExporterInstruments.RESULT_KEY);
+      assertEquals("written".equals(result) ? 1 : 0, point.getValue());
+    }
+  }
+
   private void generateOpenTelemetryUsingGoogleCloudMetricExporter(MetricExporter metricExporter) {
     SdkMeterProvider meterProvider =
         SdkMeterProvider.builder()
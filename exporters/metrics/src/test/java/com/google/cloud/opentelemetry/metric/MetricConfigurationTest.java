@@ -28,8 +28,16 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.ServiceOptions;
 import com.google.cloud.opentelemetry.metric.MetricConfiguration.Builder;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import org.junit.Test;
@@ -55,6 +63,32 @@ public class MetricConfigurationTest {
     assertFalse(configuration.getUseServiceTimeSeries());
     assertNotNull(configuration.getResourceAttributesFilter());
     assertNotNull(configuration.getMonitoredResourceDescription());
+    assertEquals(
+        MetricConfiguration.DEFAULT_MAX_CONCURRENT_TIME_SERIES_REQUESTS,
+        configuration.getMaxConcurrentTimeSeriesRequests());
+    assertFalse(configuration.getDeltaTemporalityEnabled());
+    assertEquals(Duration.ZERO, configuration.getMinimumWriteInterval());
+    assertEquals(Duration.ZERO, configuration.getUnchangedSeriesHeartbeat());
+    assertEquals(0, configuration.getMaxTimeSeriesPerMetric());
+    assertFalse(configuration.getBackgroundDescriptorRegistrationEnabled());
+    assertEquals(Duration.ZERO, configuration.getDescriptorRegistrationWait());
+    assertEquals(Duration.ZERO, configuration.getTimeSeriesRetryTimeout());
+    assertEquals(
+        MetricConfiguration.MAX_TIME_SERIES_PER_REQUEST,
+        configuration.getMaxTimeSeriesPerRequest());
+    assertEquals(
+        MetricConfiguration.DEFAULT_MAX_TIME_SERIES_REQUEST_BYTES,
+        configuration.getMaxTimeSeriesRequestBytes());
+    assertNull(configuration.getProjectIdAttributeKey());
+    assertEquals(MeterProvider.noop(), configuration.getMeterProvider());
+    assertFalse(configuration.getStreamingExportEnabled());
+    assertEquals(0, configuration.getMaxExemplarsPerPoint());
+    assertEquals(0, configuration.getMaxExemplarsPerExport());
+    assertEquals(ExemplarSelection.MOST_RECENT, configuration.getExemplarSelection());
+    assertTrue(configuration.getDroppedMetrics().isEmpty());
+    assertTrue(configuration.getDroppedInstrumentationScopes().isEmpty());
+    assertTrue(configuration.getKeptAttributeKeys().isEmpty());
+    assertTrue(configuration.getDroppedAttributeKeys().isEmpty());
   }
 
   @Test
@@ -62,6 +96,7 @@ public class MetricConfigurationTest {
     Predicate<AttributeKey<?>> allowAllPredicate = attributeKey -> true;
     MonitoredResourceDescription customMRMapping =
         new MonitoredResourceDescription("custom_mr", Set.of("instance_id", "foo_bar", "host_id"));
+    MeterProvider meterProvider = SdkMeterProvider.builder().build();
 
     MetricConfiguration configuration =
         MetricConfiguration.builder()
@@ -70,6 +105,28 @@ public class MetricConfigurationTest {
             .setResourceAttributesFilter(allowAllPredicate)
             .setMonitoredResourceDescription(customMRMapping)
             .setUseServiceTimeSeries(true)
+            .setMaxConcurrentTimeSeriesRequests(8)
+            .setDeltaTemporalityEnabled(true)
+            .setMinimumWriteInterval(Duration.ofSeconds(10))
+            .setUnchangedSeriesHeartbeat(Duration.ofMinutes(30))
+            .setMaxTimeSeriesPerMetric(1000)
+            .setBackgroundDescriptorRegistrationEnabled(true)
+            .setDescriptorRegistrationWait(Duration.ofSeconds(2))
+            .setTimeSeriesRetryTimeout(Duration.ofSeconds(30))
+            .setMaxTimeSeriesPerRequest(100)
+            .setMaxTimeSeriesRequestBytes(65536)
+            .setProjectIdAttributeKey("tenant_project")
+            .setMeterProvider(meterProvider)
+            .setStreamingExportEnabled(true)
+            .setMaxExemplarsPerPoint(2)
+            .setMaxExemplarsPerExport(100)
+            .setExemplarSelection(ExemplarSelection.MAX_VALUE)
+            .setDroppedMetrics(Collections.singletonList("http.*"))
+            .setDroppedInstrumentationScopes(Collections.singletonList("io.grpc"))
+            .setKeptAttributeKeys(
+                Collections.singletonMap("rpc.*", Collections.singleton("rpc.method")))
+            .setDroppedAttributeKeys(
+                Collections.singletonMap("*", Collections.singleton("user.id")))
             .build();
 
     assertEquals(FAKE_CREDENTIALS, configuration.getCredentials());
@@ -77,6 +134,56 @@ public class MetricConfigurationTest {
     assertEquals(allowAllPredicate, configuration.getResourceAttributesFilter());
     assertEquals(customMRMapping, configuration.getMonitoredResourceDescription());
     assertTrue(configuration.getUseServiceTimeSeries());
+    assertEquals(8, configuration.getMaxConcurrentTimeSeriesRequests());
+    assertTrue(configuration.getDeltaTemporalityEnabled());
+    assertEquals(Duration.ofSeconds(10), configuration.getMinimumWriteInterval());
+    assertEquals(Duration.ofMinutes(30), configuration.getUnchangedSeriesHeartbeat());
+    assertEquals(1000, configuration.getMaxTimeSeriesPerMetric());
+    assertTrue(configuration.getBackgroundDescriptorRegistrationEnabled());
+    assertEquals(Duration.ofSeconds(2), configuration.getDescriptorRegistrationWait());
+    assertEquals(Duration.ofSeconds(30), configuration.getTimeSeriesRetryTimeout());
+    assertEquals(100, configuration.getMaxTimeSeriesPerRequest());
+    assertEquals(65536, configuration.getMaxTimeSeriesRequestBytes());
+    assertEquals("tenant_project", configuration.getProjectIdAttributeKey());
+    assertEquals(meterProvider, configuration.getMeterProvider());
+    assertTrue(configuration.getStreamingExportEnabled());
+    assertEquals(2, configuration.getMaxExemplarsPerPoint());
+    assertEquals(100, configuration.getMaxExemplarsPerExport());
+    assertEquals(ExemplarSelection.MAX_VALUE, configuration.getExemplarSelection());
+    assertEquals(Collections.singletonList("http.*"), configuration.getDroppedMetrics());
+    assertEquals(
+        Collections.singletonList("io.grpc"), configuration.getDroppedInstrumentationScopes());
+    assertEquals(
+        Collections.singletonMap("rpc.*", Collections.singleton("rpc.method")),
+        configuration.getKeptAttributeKeys());
+    assertEquals(
+        Collections.singletonMap("*", Collections.singleton("user.id")),
+        configuration.getDroppedAttributeKeys());
+  }
+
+  @Test
+  public void testConfigurationCopiesMetricRules() {
+    List<String> droppedMetrics = new ArrayList<>(Collections.singletonList("http.*"));
+    Set<String> keptKeys = new HashSet<>(Collections.singleton("rpc.method"));
+    Map<String, Set<String>> keptAttributeKeys = new HashMap<>();
+    keptAttributeKeys.put("rpc.*", keptKeys);
+    MetricConfiguration configuration =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setDroppedMetrics(droppedMetrics)
+            .setKeptAttributeKeys(keptAttributeKeys)
+            .build();
+
+    droppedMetrics.add("db.*");
+    keptKeys.add("rpc.service");
+    keptAttributeKeys.put("*", Collections.emptySet());
+
+    assertEquals(Collections.singletonList("http.*"), configuration.getDroppedMetrics());
+    assertEquals(
+        Collections.singletonMap("rpc.*", Collections.singleton("rpc.method")),
+        configuration.getKeptAttributeKeys());
+    assertThrows(
+        UnsupportedOperationException.class, () -> configuration.getDroppedMetrics().add("x"));
   }
 
   @Test
@@ -93,6 +200,90 @@ public class MetricConfigurationTest {
     assertThrows(IllegalArgumentException.class, builder::build);
   }
 
+  @Test
+  public void testConfigurationWithNonPositiveConcurrentRequestsFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setMaxConcurrentTimeSeriesRequests(0);
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeMinimumWriteIntervalFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setMinimumWriteInterval(Duration.ofSeconds(-1));
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeUnchangedSeriesHeartbeatFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setUnchangedSeriesHeartbeat(Duration.ofSeconds(-1));
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeMaxTimeSeriesPerMetricFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder().setProjectId(PROJECT_ID).setMaxTimeSeriesPerMetric(-1);
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeMaxExemplarsPerPointFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder().setProjectId(PROJECT_ID).setMaxExemplarsPerPoint(-1);
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeDescriptorRegistrationWaitFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setDescriptorRegistrationWait(Duration.ofSeconds(-1));
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithNegativeTimeSeriesRetryTimeoutFails() {
+    MetricConfiguration.Builder builder =
+        MetricConfiguration.builder()
+            .setProjectId(PROJECT_ID)
+            .setTimeSeriesRetryTimeout(Duration.ofSeconds(-1));
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  public void testConfigurationWithInvalidRequestBoundsFails() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            MetricConfiguration.builder()
+                .setProjectId(PROJECT_ID)
+                .setMaxTimeSeriesPerRequest(0)
+                .build());
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            MetricConfiguration.builder()
+                .setProjectId(PROJECT_ID)
+                .setMaxTimeSeriesPerRequest(201)
+                .build());
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            MetricConfiguration.builder()
+                .setProjectId(PROJECT_ID)
+                .setMaxTimeSeriesRequestBytes(0)
+                .build());
+  }
+
   @Test
   public void testConfigurationWithNullResourceAttributesFilterFails() {
     Builder builder = MetricConfiguration.builder();
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aDoubleSummaryPoint;
+import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
+import static com.google.cloud.opentelemetry.metric.FakeData.aLongPoint;
+import static com.google.cloud.opentelemetry.metric.FakeData.aMetricData;
+import static com.google.cloud.opentelemetry.metric.FakeData.anInstrumentationLibraryInfo;
+import static com.google.cloud.opentelemetry.metric.MetricConfiguration.DEFAULT_PREFIX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.MetricDescriptor;
+import com.google.common.collect.ImmutableList;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MetricDescriptorCacheTest {
+
+  @Test
+  public void testPointsWithSameLabelKeysShareDescriptor() {
+    MetricDescriptorCache cache = new MetricDescriptorCache(DEFAULT_PREFIX);
+    LongPointData otherValues =
+        ImmutableLongPointData.create(
+            aLongPoint.getStartEpochNanos(),
+            aLongPoint.getEpochNanos(),
+            Attributes.builder().put("label1", "other").put("label2", true).build(),
+            7L);
+
+    MetricDescriptor first = cache.getDescriptor(aMetricData, aLongPoint, Attributes.empty());
+    MetricDescriptor second = cache.getDescriptor(aMetricData, otherValues, Attributes.empty());
+
+    assertSame(first, second);
+    assertEquals(
+        MetricTranslator.mapMetricDescriptor(
+            DEFAULT_PREFIX, aMetricData, aLongPoint, Attributes.empty()),
+        first);
+  }
+
+  @Test
+  public void testDifferentLabelKeysAddToDescriptor() {
+    MetricDescriptorCache cache = new MetricDescriptorCache(DEFAULT_PREFIX);
+    LongPointData otherKeys =
+        ImmutableLongPointData.create(
+            aLongPoint.getStartEpochNanos(),
+            aLongPoint.getEpochNanos(),
+            Attributes.builder().put("label3", "value").build(),
+            7L);
+
+    MetricDescriptor first = cache.getDescriptor(aMetricData, aLongPoint, Attributes.empty());
+    MetricDescriptor second = cache.getDescriptor(aMetricData, otherKeys, Attributes.empty());
+    MetricDescriptor third =
+        cache.getDescriptor(
+            aMetricData, aLongPoint, Attributes.builder().put("service.name", "test").build());
+
+    assertNotSame(first, second);
+    assertEquals(2, first.getLabelsCount());
+    assertEquals(3, second.getLabelsCount());
+    assertEquals(4, third.getLabelsCount());
+    assertSame(third, cache.getDescriptor(aMetricData, otherKeys, Attributes.empty()));
+  }
+
+  @Test
+  public void testDescriptorDoesNotDependOnOrderOfPoints() {
+    LongPointData otherKeys =
+        ImmutableLongPointData.create(
+            aLongPoint.getStartEpochNanos(),
+            aLongPoint.getEpochNanos(),
+            Attributes.builder().put("label3", "value").build(),
+            7L);
+    MetricDescriptorCache cache = new MetricDescriptorCache(DEFAULT_PREFIX);
+    MetricDescriptorCache otherCache = new MetricDescriptorCache(DEFAULT_PREFIX);
+
+    cache.getDescriptor(aMetricData, aLongPoint, Attributes.empty());
+    otherCache.getDescriptor(aMetricData, otherKeys, Attributes.empty());
+
+    assertEquals(
+        cache.getDescriptor(aMetricData, otherKeys, Attributes.empty()),
+        otherCache.getDescriptor(aMetricData, aLongPoint, Attributes.empty()));
+  }
+
+  @Test
+  public void testUnsupportedMetricReturnsNull() {
+    MetricDescriptorCache cache = new MetricDescriptorCache(DEFAULT_PREFIX);
+    MetricData summary =
+        ImmutableMetricData.createDoubleSummary(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "summary",
+            "description",
+            "ns",
+            ImmutableSummaryData.create(ImmutableList.of(aDoubleSummaryPoint)));
+
+    assertNull(cache.getDescriptor(summary, aDoubleSummaryPoint, Attributes.empty()));
+  }
+}
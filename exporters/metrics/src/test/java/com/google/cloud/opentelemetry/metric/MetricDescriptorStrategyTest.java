@@ -16,17 +16,31 @@
 package com.google.cloud.opentelemetry.metric;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import com.google.api.MetricDescriptor;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class MetricDescriptorStrategyTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void testNeverSendStrategy() {
     MetricDescriptorStrategy strategy = MetricDescriptorStrategy.NEVER_SEND;
@@ -105,4 +119,205 @@ public class MetricDescriptorStrategyTest {
         });
     assertEquals("Strategy should not send descriptors", false, wasExported.get());
   }
+
+  @Test
+  public void testSendOnceStrategyRetriesFailedDescriptors() {
+    MetricDescriptorStrategy strategy = new SendOnceMetricDescriptorStrategy();
+    final MetricDescriptor descriptor =
+        MetricDescriptor.newBuilder().setName("Test").setType("custom/test").build();
+    final AtomicBoolean wasExported = new AtomicBoolean(false);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            strategy.exportDescriptors(
+                Collections.singleton(descriptor),
+                desc -> {
+                  throw new IllegalStateException("failed");
+                }));
+    strategy.exportDescriptors(
+        Collections.singleton(descriptor),
+        desc -> {
+          wasExported.set(true);
+        });
+    assertTrue("Strategy should send descriptors again", wasExported.get());
+  }
+
+  @Test
+  public void testSendOnceStrategyIsBounded() {
+    MetricDescriptorStrategy strategy = new SendOnceMetricDescriptorStrategy(1);
+    MetricDescriptor first = MetricDescriptor.newBuilder().setType("custom/first").build();
+    MetricDescriptor second = MetricDescriptor.newBuilder().setType("custom/second").build();
+    List<MetricDescriptor> exported = new ArrayList<>();
+
+    strategy.exportDescriptors(Collections.singleton(first), exported::add);
+    strategy.exportDescriptors(Collections.singleton(second), exported::add);
+    // The first type was evicted to make room for the second one.
+    strategy.exportDescriptors(Collections.singleton(first), exported::add);
+
+    assertEquals(3, exported.size());
+  }
+
+  @Test
+  public void testSendOnceStrategySendsConcurrentDescriptorsOnce() throws InterruptedException {
+    MetricDescriptorStrategy strategy = new SendOnceMetricDescriptorStrategy();
+    MetricDescriptor descriptor = MetricDescriptor.newBuilder().setType("custom/test").build();
+    AtomicInteger exports = new AtomicInteger();
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] =
+          new Thread(
+              () ->
+                  strategy.exportDescriptors(
+                      Collections.singleton(descriptor), desc -> exports.incrementAndGet()));
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(1, exports.get());
+  }
+
+  @Test
+  public void testSendOncePersistedStrategySurvivesRestarts() throws IOException {
+    Path file = temporaryFolder.getRoot().toPath().resolve("descriptors").resolve("sent");
+    MetricDescriptor descriptor =
+        MetricDescriptor.newBuilder().setName("Test").setType("custom/test").build();
+    List<MetricDescriptor> exported = new ArrayList<>();
+
+    MetricDescriptorStrategy strategy = MetricDescriptorStrategy.sendOncePersisted(file);
+    strategy.exportDescriptors(Collections.singleton(descriptor), exported::add);
+    strategy.exportDescriptors(Collections.singleton(descriptor), exported::add);
+    assertEquals(Collections.singletonList(descriptor), exported);
+
+    // A new strategy reading the same file does not send the descriptor again.
+    MetricDescriptorStrategy restarted = MetricDescriptorStrategy.sendOncePersisted(file);
+    restarted.exportDescriptors(Collections.singleton(descriptor), exported::add);
+    assertEquals(Collections.singletonList(descriptor), exported);
+  }
+
+  @Test
+  public void testSendOncePersistedStrategyResendsChangedDescriptors() {
+    Path file = temporaryFolder.getRoot().toPath().resolve("sent");
+    MetricDescriptor descriptor =
+        MetricDescriptor.newBuilder().setName("Test").setType("custom/test").build();
+    MetricDescriptor changed = descriptor.toBuilder().setDescription("changed").build();
+    List<MetricDescriptor> exported = new ArrayList<>();
+
+    MetricDescriptorStrategy.sendOncePersisted(file)
+        .exportDescriptors(Collections.singleton(descriptor), exported::add);
+    MetricDescriptorStrategy.sendOncePersisted(file)
+        .exportDescriptors(Collections.singleton(changed), exported::add);
+
+    assertEquals(2, exported.size());
+    assertEquals(changed, exported.get(1));
+  }
+
+  @Test
+  public void testSendOncePersistedStrategyDoesNotRememberFailedDescriptors() {
+    Path file = temporaryFolder.getRoot().toPath().resolve("sent");
+    MetricDescriptor descriptor =
+        MetricDescriptor.newBuilder().setName("Test").setType("custom/test").build();
+    MetricDescriptorStrategy strategy = MetricDescriptorStrategy.sendOncePersisted(file);
+    final AtomicBoolean wasExported = new AtomicBoolean(false);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            strategy.exportDescriptors(
+                Collections.singleton(descriptor),
+                desc -> {
+                  throw new IllegalStateException("failed");
+                }));
+    strategy.exportDescriptors(
+        Collections.singleton(descriptor),
+        desc -> {
+          wasExported.set(true);
+        });
+    assertTrue("Strategy should send descriptors again", wasExported.get());
+  }
+
+  @Test
+  public void testSendOncePersistedStrategyDoesNotBlockOtherExportsWhileSending()
+      throws InterruptedException {
+    Path file = temporaryFolder.getRoot().toPath().resolve("sent");
+    MetricDescriptor slow = MetricDescriptor.newBuilder().setType("custom/slow").build();
+    MetricDescriptor fast = MetricDescriptor.newBuilder().setType("custom/fast").build();
+    MetricDescriptorStrategy strategy = MetricDescriptorStrategy.sendOncePersisted(file);
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<MetricDescriptor> exported = Collections.synchronizedList(new ArrayList<>());
+
+    Thread slowExport =
+        new Thread(
+            () ->
+                strategy.exportDescriptors(
+                    Collections.singleton(slow),
+                    desc -> {
+                      sending.countDown();
+                      try {
+                        release.await();
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                      }
+                      exported.add(desc);
+                    }));
+    slowExport.start();
+    assertTrue(sending.await(10, TimeUnit.SECONDS));
+
+    // Another type is sent right away, and the type being sent is not sent twice.
+    strategy.exportDescriptors(Arrays.asList(slow, fast), exported::add);
+    assertEquals(Collections.singletonList(fast), exported);
+
+    release.countDown();
+    slowExport.join();
+    assertEquals(Arrays.asList(fast, slow), exported);
+  }
+
+  @Test
+  public void testSendOnceStrategyRetriesDescriptorsFailingAsynchronously() {
+    MetricDescriptorStrategy strategy = new SendOnceMetricDescriptorStrategy();
+    MetricDescriptor descriptor = MetricDescriptor.newBuilder().setType("custom/test").build();
+    CompletableResultCode registration = new CompletableResultCode();
+    List<MetricDescriptor> exported = new ArrayList<>();
+
+    strategy.exportDescriptorsAsync(
+        Collections.singleton(descriptor),
+        desc -> {
+          exported.add(desc);
+          return registration;
+        });
+    // Still pending, so not sent again.
+    strategy.exportDescriptors(Collections.singleton(descriptor), exported::add);
+    assertEquals(1, exported.size());
+
+    registration.fail();
+    strategy.exportDescriptors(Collections.singleton(descriptor), exported::add);
+    assertEquals(2, exported.size());
+  }
+
+  @Test
+  public void testSendOncePersistedStrategyOnlyPersistsRegisteredDescriptors() {
+    Path file = temporaryFolder.getRoot().toPath().resolve("sent");
+    MetricDescriptor dropped = MetricDescriptor.newBuilder().setType("custom/dropped").build();
+    MetricDescriptor registered =
+        MetricDescriptor.newBuilder().setType("custom/registered").build();
+    CompletableResultCode registration = new CompletableResultCode();
+    List<MetricDescriptor> exported = new ArrayList<>();
+
+    MetricDescriptorStrategy.sendOncePersisted(file)
+        .exportDescriptorsAsync(
+            Arrays.asList(dropped, registered),
+            desc -> {
+              exported.add(desc);
+              return desc == dropped ? CompletableResultCode.ofFailure() : registration;
+            });
+    registration.succeed();
+
+    // After a restart, only the descriptor that failed is sent again.
+    MetricDescriptorStrategy.sendOncePersisted(file)
+        .exportDescriptors(Arrays.asList(dropped, registered), exported::add);
+    assertEquals(Arrays.asList(dropped, registered, dropped), exported);
+  }
 }
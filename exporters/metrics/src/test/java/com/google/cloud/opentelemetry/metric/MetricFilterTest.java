@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
+import static com.google.cloud.opentelemetry.metric.FakeData.aHistogram;
+import static com.google.cloud.opentelemetry.metric.FakeData.aMetricData;
+import static com.google.cloud.opentelemetry.metric.FakeData.anExponentialHistogram;
+import static com.google.cloud.opentelemetry.metric.FakeData.anInstrumentationLibraryInfo;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MetricFilterTest {
+
+  @Test
+  public void testCreateWithoutRulesReturnsNull() {
+    assertNull(
+        MetricFilter.create(MetricConfiguration.builder().setProjectId("projectId").build()));
+  }
+
+  @Test
+  public void testDropsMetricsByNamePattern() {
+    MetricFilter filter =
+        new MetricFilter(
+            Arrays.asList("opentelemetry/*", "histo?ram"),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            Collections.emptyMap());
+
+    List<MetricData> result =
+        filter.filter(Arrays.asList(aMetricData, aHistogram, anExponentialHistogram));
+
+    assertEquals(Collections.singletonList(anExponentialHistogram), result);
+  }
+
+  @Test
+  public void testDropsMetricsByInstrumentationScope() {
+    MetricFilter filter =
+        new MetricFilter(
+            Collections.emptyList(),
+            Collections.singletonList("instrument*"),
+            Collections.emptyMap(),
+            Collections.emptyMap());
+
+    assertTrue(filter.filter(Arrays.asList(aMetricData, aHistogram)).isEmpty());
+  }
+
+  @Test
+  public void testKeepsOnlyKeptAttributeKeys() {
+    MetricFilter filter =
+        new MetricFilter(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            ImmutableMap.of("opentelemetry/*", ImmutableSet.of("label1")),
+            Collections.emptyMap());
+
+    List<MetricData> result = filter.filter(Arrays.asList(aMetricData, aHistogram));
+
+    LongPointData point = result.get(0).getLongSumData().getPoints().iterator().next();
+    assertEquals(Attributes.of(stringKey("label1"), "value1"), point.getAttributes());
+    assertEquals(32L, point.getValue());
+    assertTrue(result.get(0).getLongSumData().isMonotonic());
+    // Metrics that match no rule are passed on as they are.
+    assertSame(aHistogram, result.get(1));
+  }
+
+  @Test
+  public void testDropsDroppedAttributeKeys() {
+    MetricFilter filter =
+        new MetricFilter(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            ImmutableMap.of("histogram", ImmutableSet.of("test", "other")),
+            ImmutableMap.of("hist*", ImmutableSet.of("test")));
+
+    MetricData result = filter.filter(Collections.singletonList(aHistogram)).get(0);
+
+    HistogramPointData point = result.getHistogramData().getPoints().iterator().next();
+    HistogramPointData original = aHistogram.getHistogramData().getPoints().iterator().next();
+    assertTrue(point.getAttributes().isEmpty());
+    assertEquals(original.getCounts(), point.getCounts());
+    assertEquals(original.getExemplars(), point.getExemplars());
+  }
+
+  @Test
+  public void testRollsUpPointsLeftWithEqualAttributes() {
+    MetricFilter filter =
+        new MetricFilter(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            ImmutableMap.of("requests", ImmutableSet.of("pod")));
+    MetricData metric =
+        ImmutableMetricData.createLongSum(
+            aGceResource,
+            anInstrumentationLibraryInfo,
+            "requests",
+            "description",
+            "1",
+            ImmutableSumData.create(
+                true,
+                AggregationTemporality.CUMULATIVE,
+                Arrays.asList(
+                    ImmutableLongPointData.create(0, 10, requestAttributes("a", "GET"), 1),
+                    ImmutableLongPointData.create(0, 10, requestAttributes("b", "GET"), 2),
+                    ImmutableLongPointData.create(0, 10, requestAttributes("a", "POST"), 4))));
+
+    MetricData result = filter.filter(Collections.singletonList(metric)).get(0);
+
+    List<LongPointData> points = new ArrayList<>(result.getLongSumData().getPoints());
+    assertEquals(2, points.size());
+    assertEquals(Attributes.of(stringKey("method"), "GET"), points.get(0).getAttributes());
+    assertEquals(3L, points.get(0).getValue());
+    assertEquals(Attributes.of(stringKey("method"), "POST"), points.get(1).getAttributes());
+    assertEquals(4L, points.get(1).getValue());
+  }
+
+  @Test
+  public void testLeavesMetricUnchangedWhenNoAttributeIsDropped() {
+    MetricFilter filter =
+        new MetricFilter(
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            ImmutableMap.of("*", ImmutableSet.of("missing")));
+
+    assertSame(aMetricData, filter.filter(Collections.singletonList(aMetricData)).get(0));
+  }
+
+  @Test
+  public void testGlobsMatchLiterally() {
+    assertTrue(MetricFilter.compileGlob("a.b*").matcher("a.b.c").matches());
+    assertFalse(MetricFilter.compileGlob("a.b*").matcher("axb").matches());
+    assertFalse(MetricFilter.compileGlob("a?").matcher("abc").matches());
+  }
+
+  private static Attributes requestAttributes(String pod, String method) {
+    return Attributes.of(stringKey("pod"), pod, stringKey("method"), method);
+  }
+}
@@ -21,6 +21,8 @@ import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
 import static com.google.cloud.opentelemetry.metric.FakeData.aHistogramPoint;
 import static com.google.cloud.opentelemetry.metric.FakeData.aLongPoint;
 import static com.google.cloud.opentelemetry.metric.FakeData.aMetricData;
+import static com.google.cloud.opentelemetry.metric.FakeData.anExponentialHistogram;
+import static com.google.cloud.opentelemetry.metric.FakeData.anExponentialHistogramPoint;
 import static com.google.cloud.opentelemetry.metric.FakeData.anInstrumentationLibraryInfo;
 import static com.google.cloud.opentelemetry.metric.MetricConfiguration.DEFAULT_PREFIX;
 import static com.google.cloud.opentelemetry.metric.MetricTranslator.CUSTOM_PREFIX;
@@ -29,9 +31,12 @@ import static io.opentelemetry.api.common.AttributeKey.booleanKey;
 import static io.opentelemetry.api.common.AttributeKey.longKey;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import com.google.api.Distribution;
+import com.google.api.Distribution.BucketOptions.Exponential;
 import com.google.api.LabelDescriptor;
 import com.google.api.LabelDescriptor.ValueType;
 import com.google.api.Metric;
@@ -45,11 +50,19 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
 import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramPointData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableMetricData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableSumData;
 import io.opentelemetry.sdk.metrics.internal.data.ImmutableSummaryData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -81,6 +94,44 @@ public class MetricTranslatorTest {
     assertEquals(expectedMetric, actualMetric);
   }
 
+  @Test
+  public void testMapMetricCleansDottedAndNonAsciiKeysOnEveryCall() {
+    String type = DEFAULT_PREFIX + "/" + anInstrumentationLibraryInfo.getName();
+    Attributes attributes =
+        Attributes.of(
+            stringKey("http.request.method"),
+            "GET",
+            stringKey("gr\u00f6\u00dfe.\u00fcberschrift"),
+            "value");
+    Metric expectedMetric =
+        Metric.newBuilder()
+            .setType(type)
+            .putLabels("http_request_method", "GET")
+            .putLabels("gr\u00f6\u00dfe_\u00fcberschrift", "value")
+            .build();
+
+    // The second call reads the interned label names.
+    assertEquals(expectedMetric, MetricTranslator.mapMetric(attributes, type));
+    assertEquals(expectedMetric, MetricTranslator.mapMetric(attributes, type));
+  }
+
+  @Test
+  public void testInternStopsGrowingTableAtMaxSize() {
+    ConcurrentMap<String, String> table = new ConcurrentHashMap<>();
+
+    assertEquals("a_b", MetricTranslator.intern(table, "a.b", k -> k.replace('.', '_'), 2));
+    assertEquals("c_d", MetricTranslator.intern(table, "c.d", k -> k.replace('.', '_'), 2));
+    assertEquals("e_f", MetricTranslator.intern(table, "e.f", k -> k.replace('.', '_'), 2));
+
+    assertEquals(2, table.size());
+    assertFalse(table.containsKey("e.f"));
+    // Interned values are shared, values past the limit are computed again.
+    assertSame(
+        MetricTranslator.intern(table, "a.b", String::new, 2),
+        MetricTranslator.intern(table, "a.b", String::new, 2));
+    assertEquals("e.f", MetricTranslator.intern(table, "e.f", String::new, 2));
+  }
+
   @Test
   public void testMapMetricDescriptorSucceeds() {
     MetricDescriptor.Builder expectedDescriptor =
@@ -201,6 +252,20 @@ public class MetricTranslatorTest {
     assertEquals(expectedDescriptor.build(), actualDescriptor);
   }
 
+  @Test
+  public void testMapMetricDescriptorExponentialHistogramIsDistribution() {
+    MetricDescriptor actualDescriptor =
+        MetricTranslator.mapMetricDescriptor(
+            DEFAULT_PREFIX,
+            anExponentialHistogram,
+            anExponentialHistogramPoint,
+            Attributes.empty());
+
+    assertEquals(DEFAULT_PREFIX + "/exponential_histogram", actualDescriptor.getType());
+    assertEquals(MetricKind.CUMULATIVE, actualDescriptor.getMetricKind());
+    assertEquals(MetricDescriptor.ValueType.DISTRIBUTION, actualDescriptor.getValueType());
+  }
+
   @Test
   public void testMapMetricDescriptorWithInvalidMetricKindReturnsNull() {
     String name = "Metric Name";
@@ -324,4 +389,127 @@ public class MetricTranslatorTest {
               }
             });
   }
+
+  @Test
+  public void testMapDistributionLeavesOutTrailingEmptyBuckets() {
+    HistogramPointData point =
+        ImmutableHistogramPointData.create(
+            0,
+            1,
+            Attributes.empty(),
+            3d,
+            true,
+            1d,
+            true,
+            2d,
+            Arrays.asList(1.0, 2.0, 5.0, 10.0),
+            Arrays.asList(1L, 0L, 2L, 0L, 0L),
+            Collections.emptyList());
+
+    Distribution result = MetricTranslator.mapDistribution(point, "projectId").build();
+
+    assertEquals(Arrays.asList(1L, 0L, 2L), result.getBucketCountsList());
+    assertEquals(
+        Arrays.asList(1.0, 2.0, 5.0, 10.0),
+        result.getBucketOptions().getExplicitBuckets().getBoundsList());
+  }
+
+  @Test
+  public void testMapDistributionSharesBucketOptionsOfEqualBoundaries() {
+    Distribution first =
+        MetricTranslator.mapDistribution(FakeData.aHistogramPoint, "projectId").build();
+    Distribution second =
+        MetricTranslator.mapDistribution(
+                ImmutableHistogramPointData.create(
+                    0,
+                    1,
+                    Attributes.empty(),
+                    1d,
+                    false,
+                    0,
+                    false,
+                    0,
+                    Arrays.asList(1.0),
+                    Arrays.asList(0L, 1L)),
+                "projectId")
+            .build();
+
+    assertSame(first.getBucketOptions(), second.getBucketOptions());
+  }
+
+  @Test
+  public void testMapDistributionSpendsExemplarBudget() {
+    ExemplarBudget budget = new ExemplarBudget(0, 1, ExemplarSelection.MOST_RECENT);
+
+    Distribution first =
+        MetricTranslator.mapDistribution(aHistogramPoint, "projectId", budget).build();
+    Distribution second =
+        MetricTranslator.mapDistribution(aHistogramPoint, "projectId", budget).build();
+
+    assertEquals(1, first.getExemplarsCount());
+    assertEquals(0, second.getExemplarsCount());
+    assertEquals(3, second.getCount());
+  }
+
+  @Test
+  public void testMapExponentialDistribution() {
+    Distribution result =
+        MetricTranslator.mapDistribution(anExponentialHistogramPoint, "projectId").build();
+    Exponential buckets = result.getBucketOptions().getExponentialBuckets();
+
+    assertEquals("Distribution.count", 8, result.getCount());
+    assertEquals("Distribution.mean", 2.5d, result.getMean(), 0.001);
+    assertEquals(3, buckets.getNumFiniteBuckets());
+    assertEquals(Math.sqrt(2), buckets.getGrowthFactor(), 1e-9);
+    assertEquals(2d, buckets.getScale(), 1e-9);
+    // The zero and negative counts land in the underflow bucket, the overflow bucket is omitted.
+    assertEquals(Arrays.asList(2L, 2L, 3L, 1L), result.getBucketCountsList());
+  }
+
+  @Test
+  public void testMapExponentialDistributionAtMinimumScale() {
+    ExponentialHistogramPointData point =
+        anExponentialPoint(-10, MetricValues.exponentialBuckets(-10, 0, Arrays.asList(2L, 1L)));
+
+    Distribution result = MetricTranslator.mapDistribution(point, "projectId").build();
+    Exponential buckets = result.getBucketOptions().getExponentialBuckets();
+
+    // Buckets (1, 2^1024] and (2^1024, 2^2048] go to the halves (1, 2^512] and (2^1024, 2^1536].
+    assertEquals(3, buckets.getNumFiniteBuckets());
+    assertEquals(Math.pow(2, 512), buckets.getGrowthFactor(), 0);
+    assertEquals(1d, buckets.getScale(), 0);
+    assertEquals(Arrays.asList(1L, 2L, 0L, 1L), result.getBucketCountsList());
+  }
+
+  @Test
+  public void testMapExponentialDistributionFoldsBucketsBelowDoubleRangeIntoUnderflow() {
+    ExponentialHistogramPointData point =
+        anExponentialPoint(-9, MetricValues.exponentialBuckets(-9, -3, Arrays.asList(2L, 1L)));
+
+    Distribution result = MetricTranslator.mapDistribution(point, "projectId").build();
+    Exponential buckets = result.getBucketOptions().getExponentialBuckets();
+
+    // Bucket (2^-1536, 2^-1024] has a lower bound too small for a double.
+    assertEquals(1, buckets.getNumFiniteBuckets());
+    assertEquals(Math.pow(2, -1024), buckets.getScale(), 0);
+    assertEquals(Arrays.asList(3L, 1L), result.getBucketCountsList());
+  }
+
+  private static ExponentialHistogramPointData anExponentialPoint(
+      int scale, ExponentialHistogramBuckets positiveBuckets) {
+    return MetricValues.exponentialHistogramPoint(
+        scale,
+        10d,
+        1,
+        false,
+        0,
+        false,
+        0,
+        positiveBuckets,
+        MetricValues.exponentialBuckets(scale, 0, Collections.emptyList()),
+        0,
+        1,
+        Attributes.empty(),
+        Collections.emptyList());
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aMetricData;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.MetricDataType;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MetricValuesTest {
+  private static final Attributes ATTRIBUTES = Attributes.of(stringKey("method"), "GET");
+
+  @Test
+  public void testLongPointsCompareByValue() {
+    LongPointData point = MetricValues.longPoint(1, 2, ATTRIBUTES, 3, Collections.emptyList());
+
+    assertEquals(1, point.getStartEpochNanos());
+    assertEquals(2, point.getEpochNanos());
+    assertEquals(ATTRIBUTES, point.getAttributes());
+    assertEquals(3, point.getValue());
+    assertEquals(MetricValues.longPoint(1, 2, ATTRIBUTES, 3, Collections.emptyList()), point);
+    assertNotEquals(MetricValues.longPoint(2, 1, ATTRIBUTES, 3, Collections.emptyList()), point);
+  }
+
+  @Test
+  public void testHistogramPointsCountTheirBuckets() {
+    HistogramPointData point =
+        MetricValues.histogramPoint(
+            1,
+            2,
+            ATTRIBUTES,
+            10.0,
+            true,
+            0.5,
+            false,
+            0,
+            Arrays.asList(1.0, 5.0),
+            Arrays.asList(1L, 2L, 3L),
+            Collections.emptyList());
+
+    assertEquals(1, point.getStartEpochNanos());
+    assertEquals(2, point.getEpochNanos());
+    assertEquals(10.0, point.getSum(), 0);
+    assertEquals(6, point.getCount());
+    assertTrue(point.hasMin());
+    assertEquals(0.5, point.getMin(), 0);
+    assertFalse(point.hasMax());
+    assertEquals(Arrays.asList(1.0, 5.0), point.getBoundaries());
+    assertEquals(Arrays.asList(1L, 2L, 3L), point.getCounts());
+  }
+
+  @Test
+  public void testExponentialHistogramPointsCountTheirBuckets() {
+    ExponentialHistogramBuckets positive =
+        MetricValues.exponentialBuckets(2, 3, Arrays.asList(1L, 2L));
+    ExponentialHistogramBuckets negative =
+        MetricValues.exponentialBuckets(2, -1, Collections.singletonList(4L));
+    ExponentialHistogramPointData point =
+        MetricValues.exponentialHistogramPoint(
+            2,
+            10.0,
+            5,
+            false,
+            0,
+            true,
+            8.0,
+            positive,
+            negative,
+            1,
+            2,
+            ATTRIBUTES,
+            Collections.emptyList());
+
+    assertEquals(2, point.getScale());
+    assertEquals(12, point.getCount());
+    assertEquals(5, point.getZeroCount());
+    assertFalse(point.hasMin());
+    assertTrue(point.hasMax());
+    assertEquals(8.0, point.getMax(), 0);
+    assertEquals(3, point.getPositiveBuckets().getOffset());
+    assertEquals(3, point.getPositiveBuckets().getTotalCount());
+    assertEquals(-1, point.getNegativeBuckets().getOffset());
+    assertEquals(1, point.getStartEpochNanos());
+    assertEquals(2, point.getEpochNanos());
+  }
+
+  @Test
+  public void testMetricsKeepDefinitionOfOriginal() {
+    LongPointData point = MetricValues.longPoint(1, 2, ATTRIBUTES, 3, Collections.emptyList());
+    MetricData metric =
+        MetricValues.longSum(
+            aMetricData, true, AggregationTemporality.CUMULATIVE, Collections.singletonList(point));
+
+    assertEquals(aMetricData.getResource(), metric.getResource());
+    assertEquals(aMetricData.getInstrumentationScopeInfo(), metric.getInstrumentationScopeInfo());
+    assertEquals(aMetricData.getName(), metric.getName());
+    assertEquals(aMetricData.getDescription(), metric.getDescription());
+    assertEquals(aMetricData.getUnit(), metric.getUnit());
+    assertEquals(MetricDataType.LONG_SUM, metric.getType());
+    assertEquals(Collections.singletonList(point), metric.getLongSumData().getPoints());
+    assertEquals(
+        MetricValues.longSum(
+            aMetricData, true, AggregationTemporality.CUMULATIVE, Collections.singletonList(point)),
+        metric);
+  }
+}
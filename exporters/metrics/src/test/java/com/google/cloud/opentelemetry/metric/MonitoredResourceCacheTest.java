@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aCustomMonitoredResource;
+import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
+import static com.google.cloud.opentelemetry.metric.MetricConfiguration.EMPTY_MONITORED_RESOURCE_DESCRIPTION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.MonitoredResource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MonitoredResourceCacheTest {
+
+  @Test
+  public void testResourceIsTranslatedOnce() {
+    MonitoredResourceCache cache = new MonitoredResourceCache(EMPTY_MONITORED_RESOURCE_DESCRIPTION);
+
+    MonitoredResource first = cache.getMonitoredResource(aGceResource);
+    MonitoredResource second = cache.getMonitoredResource(aGceResource);
+
+    assertSame(first, second);
+    assertEquals(
+        ResourceTranslator.mapResource(aGceResource, EMPTY_MONITORED_RESOURCE_DESCRIPTION), first);
+  }
+
+  @Test
+  public void testDistinctResourcesAreTranslatedSeparately() {
+    MonitoredResourceCache cache = new MonitoredResourceCache(EMPTY_MONITORED_RESOURCE_DESCRIPTION);
+
+    assertEquals("gce_instance", cache.getMonitoredResource(aGceResource).getType());
+    assertEquals(
+        ResourceTranslator.mapResource(
+            aCustomMonitoredResource, EMPTY_MONITORED_RESOURCE_DESCRIPTION),
+        cache.getMonitoredResource(aCustomMonitoredResource));
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.data.DoublePointData;
+import io.opentelemetry.sdk.metrics.data.ExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableDoublePointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramBuckets;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableExponentialHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableHistogramPointData;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PointRollupTest {
+  private static final Attributes GET = Attributes.of(stringKey("method"), "GET");
+  private static final Attributes POST = Attributes.of(stringKey("method"), "POST");
+
+  @Test
+  public void testReturnsPointsWithDistinctAttributesAsIs() {
+    List<LongPointData> points =
+        Arrays.asList(
+            ImmutableLongPointData.create(0, 10, GET, 1),
+            ImmutableLongPointData.create(0, 10, POST, 2));
+
+    assertSame(points, PointRollup.rollUp(points, PointRollup::sumLongs));
+  }
+
+  @Test
+  public void testSumsPointsWithEqualAttributes() {
+    List<LongPointData> points =
+        Arrays.asList(
+            ImmutableLongPointData.create(5, 10, GET, 1),
+            ImmutableLongPointData.create(0, 10, POST, 2),
+            ImmutableLongPointData.create(2, 12, GET, 3));
+
+    List<LongPointData> result = PointRollup.rollUp(points, PointRollup::sumLongs);
+
+    assertEquals(2, result.size());
+    LongPointData get = result.get(0);
+    assertEquals(GET, get.getAttributes());
+    assertEquals(4L, get.getValue());
+    assertEquals(2L, get.getStartEpochNanos());
+    assertEquals(12L, get.getEpochNanos());
+    assertSame(points.get(1), result.get(1));
+  }
+
+  @Test
+  public void testGaugesKeepLatestValue() {
+    List<DoublePointData> points =
+        Arrays.asList(
+            ImmutableDoublePointData.create(0, 12, GET, 1.5),
+            ImmutableDoublePointData.create(0, 10, GET, 2.5));
+
+    List<DoublePointData> result = PointRollup.rollUp(points, PointRollup::latest);
+
+    assertEquals(Collections.singletonList(points.get(0)), result);
+  }
+
+  @Test
+  public void testMergesHistogramsBucketByBucket() {
+    List<HistogramPointData> points =
+        Arrays.asList(
+            histogram(Arrays.asList(1.0, 5.0), 3.0, Arrays.asList(1L, 1L, 0L)),
+            histogram(Arrays.asList(1.0, 5.0), 12.0, Arrays.asList(0L, 1L, 1L)));
+
+    HistogramPointData merged = PointRollup.rollUp(points, PointRollup::mergeHistograms).get(0);
+
+    assertEquals(Arrays.asList(1L, 2L, 1L), merged.getCounts());
+    assertEquals(4, merged.getCount());
+    assertEquals(15.0, merged.getSum(), 1e-9);
+    assertEquals(Arrays.asList(1.0, 5.0), merged.getBoundaries());
+  }
+
+  @Test
+  public void testMergesHistogramsWithDifferentBoundariesIntoFirstBoundaries() {
+    List<HistogramPointData> points =
+        Arrays.asList(
+            histogram(Arrays.asList(1.0, 5.0), 3.0, Arrays.asList(1L, 1L, 1L)),
+            histogram(Arrays.asList(0.5, 2.0, 5.0), 20.0, Arrays.asList(1L, 2L, 3L, 4L)));
+
+    HistogramPointData merged = PointRollup.rollUp(points, PointRollup::mergeHistograms).get(0);
+
+    assertEquals(Arrays.asList(1.0, 5.0), merged.getBoundaries());
+    assertEquals(Arrays.asList(2L, 6L, 5L), merged.getCounts());
+    assertEquals(13, merged.getCount());
+    assertEquals(23.0, merged.getSum(), 1e-9);
+  }
+
+  @Test
+  public void testMergedHistogramsWithDifferentBoundariesKeepGrowing() {
+    HistogramPointData first =
+        PointRollup.mergeHistograms(
+            Arrays.asList(
+                histogram(Arrays.asList(1.0), 1.0, Arrays.asList(1L, 0L)),
+                histogram(Arrays.asList(2.0, 4.0), 9.0, Arrays.asList(1L, 1L, 1L))));
+    HistogramPointData second =
+        PointRollup.mergeHistograms(
+            Arrays.asList(
+                histogram(Arrays.asList(1.0), 1.0, Arrays.asList(1L, 0L)),
+                histogram(Arrays.asList(2.0, 4.0), 15.0, Arrays.asList(1L, 1L, 3L))));
+
+    assertEquals(4, first.getCount());
+    assertEquals(6, second.getCount());
+    assertEquals(Arrays.asList(1L, 3L), first.getCounts());
+    assertEquals(Arrays.asList(1L, 5L), second.getCounts());
+  }
+
+  @Test
+  public void testMergesExponentialHistogramsAtCommonScale() {
+    List<ExponentialHistogramPointData> points =
+        Arrays.asList(
+            exponentialHistogram(1, 2, Arrays.asList(1L, 1L)),
+            exponentialHistogram(0, 1, Arrays.asList(3L)));
+
+    ExponentialHistogramPointData merged =
+        PointRollup.rollUp(points, PointRollup::mergeExponentialHistograms).get(0);
+
+    assertEquals(0, merged.getScale());
+    assertEquals(5, merged.getCount());
+    assertEquals(Arrays.asList(5L), merged.getPositiveBuckets().getBucketCounts());
+  }
+
+  private static HistogramPointData histogram(
+      List<Double> boundaries, double sum, List<Long> counts) {
+    return ImmutableHistogramPointData.create(
+        0, 10, GET, sum, false, 0, false, 0, boundaries, counts);
+  }
+
+  private static ExponentialHistogramPointData exponentialHistogram(
+      int scale, int offset, List<Long> counts) {
+    long count = counts.stream().mapToLong(Long::longValue).sum();
+    return ImmutableExponentialHistogramPointData.create(
+        scale,
+        count,
+        0,
+        false,
+        0,
+        false,
+        0,
+        ImmutableExponentialHistogramBuckets.create(scale, offset, counts),
+        ImmutableExponentialHistogramBuckets.create(scale, 0, Collections.emptyList()),
+        0,
+        10,
+        GET,
+        Collections.emptyList());
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import com.google.api.gax.rpc.ErrorDetails;
+import com.google.common.collect.ImmutableList;
+import com.google.monitoring.v3.CreateTimeSeriesError;
+import com.google.monitoring.v3.CreateTimeSeriesSummary;
+import com.google.monitoring.v3.ProjectName;
+import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.Any;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RetryingCloudMetricClientTest {
+  private static final ProjectName PROJECT = ProjectName.of("test-project");
+  private static final List<TimeSeries> TIME_SERIES =
+      ImmutableList.of(TimeSeries.getDefaultInstance());
+
+  @Mock private CloudMetricClient delegate;
+
+  @Test
+  public void testTransientFailuresAreRetried() throws Exception {
+    when(delegate.createTimeSeriesAsync(any(), any()))
+        .thenReturn(ApiFutures.immediateFailedFuture(failure(Status.Code.UNAVAILABLE, null)))
+        .thenReturn(ApiFutures.immediateFuture(Empty.getDefaultInstance()));
+    RetryingCloudMetricClient client =
+        new RetryingCloudMetricClient(delegate, Duration.ofSeconds(10), Duration.ofMillis(1));
+
+    client.createTimeSeriesAsync(PROJECT, TIME_SERIES).get(10, TimeUnit.SECONDS);
+
+    verify(delegate, times(2)).createTimeSeriesAsync(PROJECT, TIME_SERIES);
+  }
+
+  @Test
+  public void testPermanentFailuresAreNotRetried() {
+    when(delegate.createTimeSeriesAsync(any(), any()))
+        .thenReturn(ApiFutures.immediateFailedFuture(failure(Status.Code.INVALID_ARGUMENT, null)));
+    RetryingCloudMetricClient client =
+        new RetryingCloudMetricClient(delegate, Duration.ofSeconds(10), Duration.ofMillis(1));
+
+    ApiFuture<Empty> result = client.createTimeSeriesAsync(PROJECT, TIME_SERIES);
+
+    assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+    verify(delegate, times(1)).createTimeSeriesAsync(PROJECT, TIME_SERIES);
+  }
+
+  @Test
+  public void testRetriesStopAtTimeout() {
+    when(delegate.createTimeSeriesAsync(any(), any()))
+        .thenReturn(ApiFutures.immediateFailedFuture(failure(Status.Code.UNAVAILABLE, null)));
+    RetryingCloudMetricClient client =
+        new RetryingCloudMetricClient(delegate, Duration.ofMillis(1), Duration.ofMinutes(1));
+
+    ApiFuture<Empty> result = client.createTimeSeriesAsync(PROJECT, TIME_SERIES);
+
+    assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPartiallyWrittenRequestsAreNotRetried() {
+    ApiException failure = failure(Status.Code.UNAVAILABLE, summary(3, 2, Status.Code.UNAVAILABLE));
+
+    assertFalse(TimeSeriesWriteFailures.isRetryable(failure));
+    assertEquals(2, TimeSeriesWriteFailures.getWrittenPointCount(failure));
+  }
+
+  @Test
+  public void testRequestsWithPermanentlyFailedPointsAreNotRetried() {
+    assertTrue(
+        TimeSeriesWriteFailures.isRetryable(
+            failure(Status.Code.UNAVAILABLE, summary(3, 0, Status.Code.UNAVAILABLE))));
+    assertFalse(
+        TimeSeriesWriteFailures.isRetryable(
+            failure(Status.Code.UNAVAILABLE, summary(3, 0, Status.Code.INVALID_ARGUMENT))));
+    assertFalse(TimeSeriesWriteFailures.isRetryable(new IllegalStateException()));
+  }
+
+  @Test
+  public void testRequestsThatMayHaveBeenWrittenAreNotRetried() {
+    assertTrue(TimeSeriesWriteFailures.isRetryable(failure(Status.Code.RESOURCE_EXHAUSTED, null)));
+    assertFalse(TimeSeriesWriteFailures.isRetryable(failure(Status.Code.DEADLINE_EXCEEDED, null)));
+    assertFalse(TimeSeriesWriteFailures.isRetryable(failure(Status.Code.ABORTED, null)));
+    assertFalse(TimeSeriesWriteFailures.isRetryable(failure(Status.Code.INTERNAL, null)));
+  }
+
+  private static CreateTimeSeriesSummary summary(
+      int totalPoints, int writtenPoints, Status.Code errorCode) {
+    return CreateTimeSeriesSummary.newBuilder()
+        .setTotalPointCount(totalPoints)
+        .setSuccessPointCount(writtenPoints)
+        .addErrors(
+            CreateTimeSeriesError.newBuilder()
+                .setStatus(com.google.rpc.Status.newBuilder().setCode(errorCode.value()))
+                .setPointCount(totalPoints - writtenPoints))
+        .build();
+  }
+
+  private static ApiException failure(Status.Code code, CreateTimeSeriesSummary summary) {
+    ErrorDetails details =
+        ErrorDetails.builder()
+            .setRawErrorMessages(
+                summary == null
+                    ? Collections.emptyList()
+                    : Collections.singletonList(Any.pack(summary)))
+            .build();
+    return ApiExceptionFactory.createException(
+        "failed", null, GrpcStatusCode.of(code), false, details);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.api.common.Attributes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SeriesIndexTest {
+
+  @Test
+  public void testValuesArePerSeries() {
+    SeriesIndex index = new SeriesIndex(2, 1000, Long.MAX_VALUE);
+
+    for (long series = 0; series < 100; series++) {
+      long value = series;
+      assertTrue(
+          index.update(series * 31, 0, (values, offset, created) -> store(values, offset, value)));
+    }
+    for (long series = 0; series < 100; series++) {
+      long expected = series;
+      assertFalse(
+          index.update(
+              series * 31,
+              0,
+              (values, offset, created) ->
+                  created || values[offset] != expected || values[offset + 1] != -expected));
+    }
+    assertEquals(100, index.size());
+  }
+
+  @Test
+  public void testExpiredSeriesAreDroppedWhenGrowing() {
+    SeriesIndex index = new SeriesIndex(1, 1000, 10);
+
+    for (long series = 0; series < 100; series++) {
+      index.update(series, 0, (values, offset, created) -> true);
+    }
+    for (long series = 100; series < 200; series++) {
+      index.update(series, 100, (values, offset, created) -> true);
+    }
+
+    assertTrue(index.size() < 200);
+    assertTrue(index.update(0, 100, (values, offset, created) -> created));
+  }
+
+  @Test
+  public void testSizeIsBounded() {
+    SeriesIndex index = new SeriesIndex(1, 160, Long.MAX_VALUE);
+
+    for (long series = 0; series < 10_000; series++) {
+      index.update(SeriesHash.seriesHash(series, Attributes.empty()), 0, (v, o, c) -> true);
+    }
+
+    assertTrue(index.size() <= 160);
+  }
+
+  @Test
+  public void testSeriesHashDependsOnAttributes() {
+    long metricHash = SeriesHash.metricHash(FakeData.aMetricData);
+
+    assertEquals(
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("a", "b").build()),
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("a", "b").build()));
+    assertNotEquals(
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("a", "bc").build()),
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("ab", "c").build()));
+    assertNotEquals(
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("a", "1").build()),
+        SeriesHash.seriesHash(metricHash, Attributes.builder().put("a", 1L).build()));
+  }
+
+  private static boolean store(long[] values, int offset, long value) {
+    values[offset] = value;
+    values[offset + 1] = -value;
+    return true;
+  }
+}
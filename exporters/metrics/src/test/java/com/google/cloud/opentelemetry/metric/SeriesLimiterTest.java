@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SeriesLimiterTest {
+  private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+  @Test
+  public void testAdmitsSeriesUpToLimitPerMetric() {
+    SeriesLimiter limiter = new SeriesLimiter(2, 10 * MINUTE);
+
+    assertTrue(limiter.admit("metric", 1, 0));
+    assertTrue(limiter.admit("metric", 2, 0));
+    assertFalse(limiter.admit("metric", 3, 0));
+    assertTrue(limiter.admit("metric", 1, MINUTE));
+    assertTrue(limiter.admit("other", 3, 0));
+  }
+
+  @Test
+  public void testExpiredSeriesFreeTheirPlace() {
+    SeriesLimiter limiter = new SeriesLimiter(2, 10 * MINUTE);
+
+    assertTrue(limiter.admit("metric", 1, 0));
+    assertTrue(limiter.admit("metric", 2, 0));
+    assertFalse(limiter.admit("metric", 3, MINUTE));
+    // Keeps the first series alive, while the second one goes unreported.
+    assertTrue(limiter.admit("metric", 1, 5 * MINUTE));
+
+    assertTrue(limiter.admit("metric", 3, 11 * MINUTE));
+    assertFalse(limiter.admit("metric", 2, 11 * MINUTE));
+    assertTrue(limiter.admit("metric", 1, 11 * MINUTE));
+  }
+}
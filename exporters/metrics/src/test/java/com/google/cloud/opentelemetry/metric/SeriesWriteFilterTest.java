@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.internal.data.ImmutableLongPointData;
+import java.time.Duration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SeriesWriteFilterTest {
+  private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  @Test
+  public void testPointsWithinIntervalAreSkipped() {
+    SeriesWriteFilter filter = new SeriesWriteFilter(Duration.ofSeconds(10), Duration.ZERO);
+
+    assertTrue(filter.shouldWrite(1, 0, false, 0));
+    assertFalse(filter.shouldWrite(1, 5 * SECOND, false, 0));
+    assertTrue(filter.shouldWrite(1, 10 * SECOND, false, 0));
+    // The skipped point did not count as a write.
+    assertFalse(filter.shouldWrite(1, 19 * SECOND, false, 0));
+    assertTrue(filter.shouldWrite(1, 20 * SECOND, false, 0));
+  }
+
+  @Test
+  public void testSeriesAreFilteredIndependently() {
+    SeriesWriteFilter filter = new SeriesWriteFilter(Duration.ofSeconds(10), Duration.ZERO);
+
+    assertTrue(filter.shouldWrite(1, 0, false, 0));
+    assertTrue(filter.shouldWrite(2, SECOND, false, 0));
+    assertFalse(filter.shouldWrite(1, SECOND, false, 0));
+  }
+
+  @Test
+  public void testUnchangedCumulativeSeriesAreSkippedUntilHeartbeat() {
+    SeriesWriteFilter filter = new SeriesWriteFilter(Duration.ZERO, Duration.ofMinutes(5));
+    long minute = Duration.ofMinutes(1).toNanos();
+
+    assertTrue(filter.shouldWrite(1, 0, true, 42));
+    assertFalse(filter.shouldWrite(1, minute, true, 42));
+    assertTrue(filter.shouldWrite(1, 2 * minute, true, 43));
+    assertFalse(filter.shouldWrite(1, 6 * minute, true, 43));
+    assertTrue(filter.shouldWrite(1, 7 * minute, true, 43));
+  }
+
+  @Test
+  public void testUnchangedGaugesAreWritten() {
+    SeriesWriteFilter filter = new SeriesWriteFilter(Duration.ZERO, Duration.ofMinutes(5));
+
+    assertTrue(filter.shouldWrite(1, 0, false, 0));
+    assertTrue(filter.shouldWrite(1, SECOND, false, 0));
+  }
+
+  @Test
+  public void testChangedCumulativeSeriesAreStillThrottled() {
+    SeriesWriteFilter filter =
+        new SeriesWriteFilter(Duration.ofSeconds(10), Duration.ofMinutes(5));
+
+    assertTrue(filter.shouldWrite(1, 0, true, 42));
+    assertFalse(filter.shouldWrite(1, 5 * SECOND, true, 43));
+    assertTrue(filter.shouldWrite(1, 10 * SECOND, true, 43));
+  }
+
+  @Test
+  public void testRolledBackWritesDoNotSkipPoints() {
+    SeriesWriteFilter filter =
+        new SeriesWriteFilter(Duration.ofSeconds(10), Duration.ofMinutes(5));
+    assertTrue(filter.shouldWrite(1, 0, true, 42));
+
+    SeriesWriteFilter.Journal writes = filter.newJournal();
+    assertTrue(filter.shouldWrite(1, 10 * SECOND, true, 43, writes));
+    assertTrue(filter.shouldWrite(2, 10 * SECOND, true, 7, writes));
+    writes.rollBack();
+
+    // Series 1 was last written at 0 with another value, series 2 was never written.
+    assertTrue(filter.shouldWrite(1, 11 * SECOND, true, 43));
+    assertTrue(filter.shouldWrite(2, 11 * SECOND, true, 7));
+    // The writes that were not rolled back are kept.
+    assertFalse(filter.shouldWrite(1, 12 * SECOND, false, 0));
+  }
+
+  @Test
+  public void testRollBackKeepsSeriesWrittenSince() {
+    SeriesWriteFilter filter = new SeriesWriteFilter(Duration.ofSeconds(10), Duration.ZERO);
+
+    SeriesWriteFilter.Journal writes = filter.newJournal();
+    assertTrue(filter.shouldWrite(1, 0, false, 0, writes));
+    assertTrue(filter.shouldWrite(1, 10 * SECOND, false, 0));
+    writes.rollBack();
+
+    assertFalse(filter.shouldWrite(1, 15 * SECOND, false, 0));
+  }
+
+  @Test
+  public void testFingerprintDependsOnStartTime() {
+    Attributes attributes = Attributes.empty();
+
+    assertNotEquals(
+        SeriesWriteFilter.fingerprint(ImmutableLongPointData.create(0, 10, attributes, 5)),
+        SeriesWriteFilter.fingerprint(ImmutableLongPointData.create(1, 10, attributes, 5)));
+    assertNotEquals(
+        SeriesWriteFilter.fingerprint(ImmutableLongPointData.create(0, 10, attributes, 5)),
+        SeriesWriteFilter.fingerprint(ImmutableLongPointData.create(0, 10, attributes, 6)));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static com.google.cloud.opentelemetry.metric.FakeData.aGceResource;
+import static com.google.cloud.opentelemetry.metric.FakeData.anInstrumentationLibraryInfo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SharedLabelsCacheTest {
+  private static final AttributeKey<String> EXTRA_INFO = AttributeKey.stringKey("extra_info");
+
+  @Test
+  public void testResourceLabelsAreFilteredOnce() {
+    SharedLabelsCache cache = new SharedLabelsCache(EXTRA_INFO::equals, true);
+
+    Attributes first = cache.getResourceLabels(aGceResource);
+    Attributes second = cache.getResourceLabels(aGceResource);
+
+    assertSame(first, second);
+    assertEquals(Attributes.of(EXTRA_INFO, "extra"), first);
+  }
+
+  @Test
+  public void testScopeLabelsAreBuiltOnce() {
+    SharedLabelsCache cache =
+        new SharedLabelsCache(MetricConfiguration.NO_RESOURCE_ATTRIBUTES, true);
+
+    Attributes first = cache.getScopeLabels(anInstrumentationLibraryInfo);
+    Attributes second = cache.getScopeLabels(anInstrumentationLibraryInfo);
+
+    assertSame(first, second);
+    assertEquals("instrumentName", first.get(AttributeKey.stringKey("instrumentation_source")));
+    assertEquals("0", first.get(AttributeKey.stringKey("instrumentation_version")));
+  }
+
+  @Test
+  public void testScopeLabelsAreEmptyWhenDisabled() {
+    SharedLabelsCache cache =
+        new SharedLabelsCache(MetricConfiguration.NO_RESOURCE_ATTRIBUTES, false);
+
+    assertTrue(cache.getScopeLabels(anInstrumentationLibraryInfo).isEmpty());
+  }
+
+  @Test
+  public void testMergeLabelsGivesResourceLabelsPrecedence() {
+    Attributes point = Attributes.of(EXTRA_INFO, "point", AttributeKey.stringKey("a"), "b");
+    Attributes scope = Attributes.of(EXTRA_INFO, "scope");
+    Attributes resource = Attributes.of(EXTRA_INFO, "resource");
+
+    Attributes merged = SharedLabelsCache.mergeLabels(point, scope, resource);
+
+    assertEquals("resource", merged.get(EXTRA_INFO));
+    assertEquals("b", merged.get(AttributeKey.stringKey("a")));
+    assertSame(point, SharedLabelsCache.mergeLabels(point, Attributes.empty(), Attributes.empty()));
+  }
+}
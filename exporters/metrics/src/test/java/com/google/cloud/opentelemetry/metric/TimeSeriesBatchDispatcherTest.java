@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.collect.ImmutableList;
+import com.google.monitoring.v3.TimeSeries;
+import com.google.protobuf.Empty;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TimeSeriesBatchDispatcherTest {
+
+  private static List<List<TimeSeries>> someBatches(int count) {
+    List<List<TimeSeries>> batches = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      batches.add(ImmutableList.of(TimeSeries.getDefaultInstance()));
+    }
+    return batches;
+  }
+
+  @Test
+  public void testCompletedRequestsSendAllBatches() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(1);
+    AtomicInteger sent = new AtomicInteger();
+
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            someBatches(500),
+            batch -> {
+              sent.incrementAndGet();
+              return ApiFutures.immediateFuture(Empty.getDefaultInstance());
+            });
+
+    assertTrue(result.isDone());
+    assertTrue(result.isSuccess());
+    assertEquals(500, sent.get());
+  }
+
+  @Test
+  public void testWrittenAndDroppedPointsAreCounted() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(1);
+    AtomicInteger sent = new AtomicInteger();
+
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            someBatches(3),
+            batch ->
+                sent.incrementAndGet() == 2
+                    ? ApiFutures.immediateFailedFuture(new IllegalStateException("failed"))
+                    : ApiFutures.immediateFuture(Empty.getDefaultInstance()));
+
+    assertFalse(result.isSuccess());
+    assertEquals(2, dispatcher.getWrittenPointCount());
+    assertEquals(1, dispatcher.getDroppedPointCount());
+  }
+
+  @Test
+  public void testConcurrentRequestsAreBounded() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(2);
+    List<SettableApiFuture<Empty>> requests = new ArrayList<>();
+
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            someBatches(5),
+            batch -> {
+              SettableApiFuture<Empty> request = SettableApiFuture.create();
+              requests.add(request);
+              return request;
+            });
+
+    assertEquals(2, requests.size());
+    requests.get(0).set(Empty.getDefaultInstance());
+    assertEquals(3, requests.size());
+    requests.get(1).set(Empty.getDefaultInstance());
+    requests.get(2).set(Empty.getDefaultInstance());
+    assertEquals(5, requests.size());
+    assertFalse(result.isDone());
+
+    requests.get(3).set(Empty.getDefaultInstance());
+    requests.get(4).set(Empty.getDefaultInstance());
+    assertTrue(result.isDone());
+    assertTrue(result.isSuccess());
+  }
+
+  @Test
+  public void testFailedBatchDoesNotStopRemainingBatches() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(1);
+    AtomicInteger attempts = new AtomicInteger();
+
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            someBatches(3),
+            batch -> {
+              if (attempts.incrementAndGet() == 1) {
+                return ApiFutures.immediateFailedFuture(new IllegalStateException("failed"));
+              }
+              return ApiFutures.immediateFuture(Empty.getDefaultInstance());
+            });
+
+    assertTrue(result.isDone());
+    assertFalse(result.isSuccess());
+    assertEquals(3, attempts.get());
+  }
+
+  @Test
+  public void testSenderExceptionFailsResult() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(2);
+
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            someBatches(2),
+            batch -> {
+              throw new IllegalStateException("failed");
+            });
+
+    assertTrue(result.isDone());
+    assertFalse(result.isSuccess());
+  }
+
+  @Test
+  public void testStartedDispatchSendsBatchesAsTheyAreAdded() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(1);
+    List<SettableApiFuture<Empty>> requests = new ArrayList<>();
+    TimeSeriesBatchDispatcher.Dispatch dispatch =
+        dispatcher.start(
+            batch -> {
+              SettableApiFuture<Empty> request = SettableApiFuture.create();
+              requests.add(request);
+              return request;
+            });
+
+    dispatch.add(ImmutableList.of(TimeSeries.getDefaultInstance()));
+    assertEquals(1, requests.size());
+    dispatch.add(ImmutableList.of(TimeSeries.getDefaultInstance()));
+    assertEquals(1, requests.size());
+    requests.get(0).set(Empty.getDefaultInstance());
+    assertEquals(2, requests.size());
+    requests.get(1).set(Empty.getDefaultInstance());
+
+    CompletableResultCode result = dispatch.close();
+    assertTrue(result.isDone());
+    assertTrue(result.isSuccess());
+    assertEquals(2, dispatcher.getWrittenPointCount());
+  }
+
+  @Test
+  public void testStartedDispatchWithoutBatchesSucceedsOnClose() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(1);
+    TimeSeriesBatchDispatcher.Dispatch dispatch =
+        dispatcher.start(
+            batch -> {
+              throw new AssertionError("No batch should be sent");
+            });
+
+    assertTrue(dispatch.close().isSuccess());
+  }
+
+  @Test
+  public void testNoBatchesSucceedsImmediately() {
+    TimeSeriesBatchDispatcher dispatcher = new TimeSeriesBatchDispatcher(4);
+    CompletableResultCode result =
+        dispatcher.dispatch(
+            Collections.emptyList(),
+            batch -> {
+              throw new AssertionError("No batch should be sent");
+            });
+    assertTrue(result.isSuccess());
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.api.Metric;
+import com.google.common.base.Strings;
+import com.google.monitoring.v3.TimeSeries;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TimeSeriesBatcherTest {
+
+  private static TimeSeries aTimeSeries(int labelLength) {
+    return TimeSeries.newBuilder()
+        .setMetric(Metric.newBuilder().putLabels("label", Strings.repeat("x", labelLength)))
+        .build();
+  }
+
+  private static List<TimeSeries> someTimeSeries(int count, int labelLength) {
+    return new ArrayList<>(Collections.nCopies(count, aTimeSeries(labelLength)));
+  }
+
+  @Test
+  public void testBatchesAreBoundedByCount() {
+    TimeSeriesBatcher batcher = new TimeSeriesBatcher(200, 1024 * 1024);
+
+    List<List<TimeSeries>> batches = batcher.partition(someTimeSeries(450, 10));
+
+    assertEquals(3, batches.size());
+    assertEquals(200, batches.get(0).size());
+    assertEquals(50, batches.get(2).size());
+  }
+
+  @Test
+  public void testBatchesAreBoundedBySize() {
+    // Each series takes a little over 1000 bytes.
+    TimeSeriesBatcher batcher = new TimeSeriesBatcher(200, 10_000);
+
+    List<List<TimeSeries>> batches = batcher.partition(someTimeSeries(20, 1000));
+
+    assertEquals(3, batches.size());
+    assertEquals(9, batches.get(0).size());
+    assertEquals(2, batches.get(2).size());
+  }
+
+  @Test
+  public void testOversizedTimeSeriesAreSentAlone() {
+    TimeSeriesBatcher batcher = new TimeSeriesBatcher(200, 100);
+    List<TimeSeries> timeSeries = new ArrayList<>();
+    timeSeries.add(aTimeSeries(10));
+    timeSeries.add(aTimeSeries(1000));
+    timeSeries.add(aTimeSeries(10));
+
+    List<List<TimeSeries>> batches = batcher.partition(timeSeries);
+
+    assertEquals(3, batches.size());
+  }
+
+  @Test
+  public void testAccumulatorHandsOverBatchesAsSoonAsTheyAreFull() {
+    TimeSeriesBatcher batcher = new TimeSeriesBatcher(2, 1024 * 1024);
+    List<List<TimeSeries>> batches = new ArrayList<>();
+    TimeSeriesBatcher.Accumulator accumulator = batcher.newAccumulator(batches::add);
+
+    accumulator.add(aTimeSeries(10));
+    assertEquals(0, batches.size());
+    accumulator.add(aTimeSeries(10));
+    assertEquals(1, batches.size());
+    accumulator.add(aTimeSeries(10));
+    accumulator.flush();
+    assertEquals(2, batches.size());
+    assertEquals(1, batches.get(1).size());
+  }
+
+  @Test
+  public void testBatchSizeAdaptsToLatency() {
+    int maxBytes = 1024 * 1024;
+    TimeSeriesBatcher batcher = new TimeSeriesBatcher(200, maxBytes);
+
+    batcher.onRequestCompleted(TimeUnit.SECONDS.toNanos(5));
+    assertEquals(maxBytes / 2, batcher.getBatchBytes());
+    for (int i = 0; i < 10; i++) {
+      batcher.onRequestCompleted(TimeUnit.SECONDS.toNanos(5));
+    }
+    assertEquals(TimeSeriesBatcher.MIN_BATCH_BYTES, batcher.getBatchBytes());
+
+    for (int i = 0; i < 20; i++) {
+      batcher.onRequestCompleted(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    assertEquals(maxBytes, batcher.getBatchBytes());
+  }
+}
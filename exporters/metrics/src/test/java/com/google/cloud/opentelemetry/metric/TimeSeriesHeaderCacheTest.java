@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.metric;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.api.MetricDescriptor;
+import com.google.api.MetricDescriptor.MetricKind;
+import com.google.api.MonitoredResource;
+import com.google.monitoring.v3.TimeSeries;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TimeSeriesHeaderCacheTest {
+  private static final MetricDescriptor DESCRIPTOR =
+      MetricDescriptor.newBuilder()
+          .setType("workload.googleapis.com/requests")
+          .setMetricKind(MetricKind.CUMULATIVE)
+          .build();
+  private static final Attributes ATTRIBUTES =
+      Attributes.builder().put("http.method", "GET").build();
+  private static final MonitoredResource RESOURCE =
+      MonitoredResource.newBuilder().setType("generic_node").putLabels("node_id", "a").build();
+
+  @Test
+  public void testHeaderIsReusedForSameSeries() {
+    TimeSeriesHeaderCache cache = new TimeSeriesHeaderCache();
+
+    // Use distinct but equal keys, as every export creates its own.
+    MetricWithLabels firstKey = new MetricWithLabels(DESCRIPTOR.getType(), ATTRIBUTES);
+    MetricWithLabels secondKey = new MetricWithLabels(DESCRIPTOR.getType(), ATTRIBUTES);
+    TimeSeries first = cache.getHeader(firstKey, ATTRIBUTES, DESCRIPTOR, RESOURCE);
+    TimeSeries second = cache.getHeader(secondKey, ATTRIBUTES, DESCRIPTOR, RESOURCE);
+
+    assertSame(first, second);
+    assertEquals(0, first.getPointsCount());
+    assertEquals("GET", first.getMetric().getLabelsMap().get("http_method"));
+    assertEquals(MetricKind.CUMULATIVE, first.getMetricKind());
+    assertEquals(RESOURCE, first.getResource());
+  }
+
+  @Test
+  public void testHeaderIsRebuiltWhenResourceChanges() {
+    TimeSeriesHeaderCache cache = new TimeSeriesHeaderCache();
+    MetricWithLabels key = new MetricWithLabels(DESCRIPTOR.getType(), ATTRIBUTES);
+    MonitoredResource otherResource = RESOURCE.toBuilder().putLabels("node_id", "b").build();
+
+    TimeSeries first = cache.getHeader(key, ATTRIBUTES, DESCRIPTOR, RESOURCE);
+    TimeSeries second = cache.getHeader(key, ATTRIBUTES, DESCRIPTOR, otherResource);
+
+    assertNotSame(first, second);
+    assertEquals(otherResource, second.getResource());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.opentelemetry.trace;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.MeterProvider;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The instruments through which the exporter reports on itself: how long translating spans takes,
+ * how many spans each export sends, and the outcome and latency of the requests that send them.
+ */
+final class ExporterInstruments {
+  static final String INSTRUMENTATION_SCOPE = "com.google.cloud.opentelemetry.trace";
+
+  static final AttributeKey<String> RESULT_KEY = AttributeKey.stringKey("result");
+
+  private static final Attributes SUCCESS = Attributes.of(RESULT_KEY, "success");
+  private static final Attributes FAILURE = Attributes.of(RESULT_KEY, "failure");
+
+  private static final List<Double> DURATION_BUCKETS =
+      Arrays.asList(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0);
+  private static final List<Long> SPAN_BUCKETS =
+      Arrays.asList(1L, 10L, 100L, 512L, 1_000L, 10_000L);
+  private static final double NANOS_PER_SECOND = 1e9;
+
+  private final DoubleHistogram translationDuration;
+  private final LongHistogram exportSpans;
+  private final DoubleHistogram requestDuration;
+  private final LongCounter droppedSpans;
+
+  ExporterInstruments(MeterProvider meterProvider) {
+    Meter meter = meterProvider.get(INSTRUMENTATION_SCOPE);
+    this.translationDuration =
+        meter
+            .histogramBuilder("gcp.trace_exporter.translation.duration")
+            .setDescription("Time spent translating the spans of an export.")
+            .setUnit("s")
+            .setExplicitBucketBoundariesAdvice(DURATION_BUCKETS)
+            .build();
+    this.exportSpans =
+        meter
+            .histogramBuilder("gcp.trace_exporter.export.spans")
+            .setDescription("Number of spans sent by an export.")
+            .setUnit("{span}")
+            .ofLongs()
+            .setExplicitBucketBoundariesAdvice(SPAN_BUCKETS)
+            .build();
+    this.requestDuration =
+        meter
+            .histogramBuilder("gcp.trace_exporter.request.duration")
+            .setDescription("Latency of the requests writing batches of spans.")
+            .setUnit("s")
+            .setExplicitBucketBoundariesAdvice(DURATION_BUCKETS)
+            .build();
+    this.droppedSpans =
+        meter
+            .counterBuilder("gcp.trace_exporter.dropped_spans")
+            .setDescription("Number of spans that could not be written.")
+            .setUnit("{span}")
+            .build();
+  }
+
+  void recordTranslation(long durationNanos, int spans) {
+    translationDuration.record(durationNanos / NANOS_PER_SECOND);
+    exportSpans.record(spans);
+  }
+
+  void recordRequest(long durationNanos, int spans, boolean success) {
+    requestDuration.record(durationNanos / NANOS_PER_SECOND, success ? SUCCESS : FAILURE);
+    if (!success) {
+      droppedSpans.add(spans);
+    }
+  }
+}
@@ -32,6 +32,7 @@ import com.google.devtools.cloudtrace.v2.AttributeValue;
 import com.google.devtools.cloudtrace.v2.ProjectName;
 import com.google.devtools.cloudtrace.v2.Span;
 import io.grpc.ManagedChannelBuilder;
+import io.opentelemetry.api.metrics.MeterProvider;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
@@ -52,6 +53,7 @@ class InternalTraceExporter implements SpanExporter {
   private final ProjectName projectName;
   private final String projectId;
   private final TraceTranslator translator;
+  private final ExporterInstruments instruments;
 
   private static final Map<String, String> HEADERS =
       Collections.singletonMap(
@@ -62,9 +64,10 @@ class InternalTraceExporter implements SpanExporter {
       String projectId,
       CloudTraceClient cloudTraceClient,
       ImmutableMap<String, String> attributeMappings,
-      Map<String, AttributeValue> fixedAttributes) {
+      Map<String, AttributeValue> fixedAttributes,
+      MeterProvider meterProvider) {
     return new InternalTraceExporter(
-        projectId, cloudTraceClient, attributeMappings, fixedAttributes);
+        projectId, cloudTraceClient, attributeMappings, fixedAttributes, meterProvider);
   }
 
   static SpanExporter createWithConfiguration(TraceConfiguration configuration) throws IOException {
@@ -104,24 +107,28 @@ class InternalTraceExporter implements SpanExporter {
           projectId,
           new CloudTraceClientImpl(TraceServiceClient.create(builder.build())),
           configuration.getAttributeMapping(),
-          configuration.getFixedAttributes());
+          configuration.getFixedAttributes(),
+          configuration.getMeterProvider());
     }
     return InternalTraceExporter.createWithClient(
         projectId,
         new CloudTraceClientImpl(TraceServiceClient.create(stub)),
         configuration.getAttributeMapping(),
-        configuration.getFixedAttributes());
+        configuration.getFixedAttributes(),
+        configuration.getMeterProvider());
   }
 
   InternalTraceExporter(
       String projectId,
       CloudTraceClient cloudTraceClient,
       ImmutableMap<String, String> attributeMappings,
-      Map<String, AttributeValue> fixedAttributes) {
+      Map<String, AttributeValue> fixedAttributes,
+      MeterProvider meterProvider) {
     this.projectId = projectId;
     this.cloudTraceClient = cloudTraceClient;
     this.projectName = ProjectName.of(projectId);
     this.translator = new TraceTranslator(attributeMappings, fixedAttributes);
+    this.instruments = new ExporterInstruments(meterProvider);
   }
 
   @Override
@@ -132,12 +139,21 @@ class InternalTraceExporter implements SpanExporter {
 
   @Override
   public CompletableResultCode export(Collection<SpanData> spanDataList) {
+    long translationStart = System.nanoTime();
     List<Span> spans = new ArrayList<>(spanDataList.size());
     for (SpanData spanData : spanDataList) {
       spans.add(translator.generateSpan(spanData, projectId));
     }
+    long requestStart = System.nanoTime();
+    instruments.recordTranslation(requestStart - translationStart, spans.size());
 
-    cloudTraceClient.batchWriteSpans(projectName, spans);
+    try {
+      cloudTraceClient.batchWriteSpans(projectName, spans);
+    } catch (RuntimeException e) {
+      instruments.recordRequest(System.nanoTime() - requestStart, spans.size(), false);
+      throw e;
+    }
+    instruments.recordRequest(System.nanoTime() - requestStart, spans.size(), true);
     return CompletableResultCode.ofSuccess();
   }
 
@@ -26,6 +26,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.devtools.cloudtrace.v2.AttributeValue;
+import io.opentelemetry.api.metrics.MeterProvider;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -130,6 +131,15 @@ public abstract class TraceConfiguration {
    */
   public abstract Duration getDeadline();
 
+  /**
+   * Returns the {@link MeterProvider} the exporter reports its own metrics to.
+   *
+   * <p>Default value is {@link MeterProvider#noop()}, which disables them.
+   *
+   * @return the meter provider of the metrics of the exporter itself.
+   */
+  public abstract MeterProvider getMeterProvider();
+
   @VisibleForTesting
   abstract boolean getInsecureEndpoint();
 
@@ -145,6 +155,7 @@ public abstract class TraceConfiguration {
         .setDeadline(DEFAULT_DEADLINE)
         .setTraceServiceEndpoint(TraceServiceStubSettings.getDefaultEndpoint())
         .setInsecureEndpoint(false)
+        .setMeterProvider(MeterProvider.noop())
         .setAttributeMapping(DEFAULT_ATTRIBUTE_MAPPING);
   }
 
@@ -243,6 +254,26 @@ public abstract class TraceConfiguration {
      */
     public abstract Builder setDeadline(Duration deadline);
 
+    /**
+     * Sets the {@link MeterProvider} the exporter reports its own metrics to, under the {@code
+     * com.google.cloud.opentelemetry.trace} instrumentation scope:
+     *
+     * <ul>
+     *   <li>{@code gcp.trace_exporter.translation.duration}: the time spent translating the spans
+     *       of an export.
+     *   <li>{@code gcp.trace_exporter.export.spans}: the number of spans of an export.
+     *   <li>{@code gcp.trace_exporter.request.duration}: the latency of the requests writing
+     *       spans, by {@code result}.
+     *   <li>{@code gcp.trace_exporter.dropped_spans}: the spans of failed requests.
+     * </ul>
+     *
+     * <p>By default, this is {@link MeterProvider#noop()} and no metrics are reported.
+     *
+     * @param meterProvider the meter provider of the metrics of the exporter itself.
+     * @return this
+     */
+    public abstract Builder setMeterProvider(MeterProvider meterProvider);
+
     abstract Map<String, AttributeValue> getFixedAttributes();
 
     abstract Duration getDeadline();
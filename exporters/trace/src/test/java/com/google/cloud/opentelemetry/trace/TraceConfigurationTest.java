@@ -26,6 +26,8 @@ import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.ServiceOptions;
 import com.google.devtools.cloudtrace.v2.AttributeValue;
+import io.opentelemetry.api.metrics.MeterProvider;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Date;
@@ -56,12 +58,14 @@ public class TraceConfigurationTest {
     assertNull(configuration.getTraceServiceStub());
     assertTrue(configuration.getFixedAttributes().isEmpty());
     assertEquals(TraceConfiguration.DEFAULT_DEADLINE, configuration.getDeadline());
+    assertEquals(MeterProvider.noop(), configuration.getMeterProvider());
   }
 
   @Test
   public void setAllConfigurationFields() {
     Map<String, AttributeValue> attributes =
         Collections.singletonMap("key", AttributeValue.newBuilder().setBoolValue(true).build());
+    MeterProvider meterProvider = SdkMeterProvider.builder().build();
 
     // set all the fields different from their default values
     TraceConfiguration configuration =
@@ -70,6 +74,7 @@ public class TraceConfigurationTest {
             .setProjectId(PROJECT_ID)
             .setFixedAttributes(attributes)
             .setDeadline(ONE_MINUTE)
+            .setMeterProvider(meterProvider)
             .build();
 
     // make sure the changes are reflected
@@ -77,6 +82,7 @@ public class TraceConfigurationTest {
     assertEquals(PROJECT_ID, configuration.getProjectId());
     assertEquals(attributes, configuration.getFixedAttributes());
     assertEquals(ONE_MINUTE, configuration.getDeadline());
+    assertEquals(meterProvider, configuration.getMeterProvider());
   }
 
   @Test
@@ -23,16 +23,24 @@ import com.google.cloud.ServiceOptions;
 import com.google.cloud.trace.v2.TraceServiceClient;
 import com.google.cloud.trace.v2.TraceServiceSettings;
 import com.google.cloud.trace.v2.stub.TraceServiceStub;
+import com.google.common.collect.ImmutableMap;
 import com.google.devtools.cloudtrace.v2.ProjectName;
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -129,6 +137,44 @@ public class TraceExporterTest {
     }
   }
 
+  @Test
+  public void verifyExporterReportsSelfObservabilityMetrics() {
+    InMemoryMetricReader reader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(reader).build();
+    SpanExporter exporter =
+        new InternalTraceExporter(
+            PROJECT_ID,
+            Mockito.mock(CloudTraceClient.class),
+            ImmutableMap.of(),
+            Collections.emptyMap(),
+            meterProvider);
+
+    simulateExport(exporter);
+
+    Map<String, MetricData> selfMetrics =
+        reader.collectAllMetrics().stream()
+            .collect(Collectors.toMap(MetricData::getName, metric -> metric));
+    HistogramPointData spans =
+        selfMetrics
+            .get("gcp.trace_exporter.export.spans")
+            .getHistogramData()
+            .getPoints()
+            .iterator()
+            .next();
+    assertEquals(1, spans.getCount());
+    assertEquals(0, spans.getSum(), 0);
+    assertEquals(
+        Attributes.of(ExporterInstruments.RESULT_KEY, "success"),
+        selfMetrics
+            .get("gcp.trace_exporter.request.duration")
+            .getHistogramData()
+            .getPoints()
+            .iterator()
+            .next()
+            .getAttributes());
+  }
+
   private void generateOpenTelemetryUsingTraceExporter(SpanExporter traceExporter) {
     SdkTracerProvider tracerProvider =
         SdkTracerProvider.builder()